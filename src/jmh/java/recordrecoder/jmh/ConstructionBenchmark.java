@@ -0,0 +1,74 @@
+package recordrecoder.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import recordrecoder.api.record.ComponentKeyRegistry;
+import recordrecoder.api.record.IntRecordComponentKey;
+import recordrecoder.api.record.RecordComponentKey;
+import recordrecoder.api.record.RecordFactory;
+import recordrecoder.jmh.records.GetterRecord;
+import recordrecoder.jmh.records.PlainRecord;
+import recordrecoder.jmh.support.BenchmarkKeys;
+import recordrecoder.jmh.support.TransformingClassLoader;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ways of constructing a transformed record with extended values against a plain record.
+ * Transformed records live in another loader, so they are constructed through exact method handle invocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConstructionBenchmark {
+    static final RecordComponentKey<String> STRING_KEY = BenchmarkKeys.STRING_KEY;
+    static final IntRecordComponentKey INT_KEY = BenchmarkKeys.INT_KEY;
+
+    private MethodHandle canonicalConstructor;
+    private MethodHandle extendedConstructor;
+    private RecordFactory<? extends Record> factory;
+    private Object[] vanillaArguments;
+
+    @Setup
+    public void setup() throws Throwable {
+        Class<? extends Record> recordClass = TransformingClassLoader.loadTransformed(GetterRecord.class);
+        canonicalConstructor = MethodHandles.publicLookup()
+                .findConstructor(recordClass, MethodType.methodType(void.class, String.class, int.class))
+                .asType(MethodType.methodType(Record.class, String.class, int.class));
+        // keys are ordered by field name: addedInt, then addedString
+        extendedConstructor = MethodHandles.publicLookup()
+                .findConstructor(recordClass, MethodType.methodType(void.class, String.class, int.class, int.class, String.class))
+                .asType(MethodType.methodType(Record.class, String.class, int.class, int.class, String.class));
+        factory = ComponentKeyRegistry.INSTANCE.factoryFor(recordClass);
+        vanillaArguments = new Object[]{"name", 1};
+    }
+
+    @Benchmark
+    public PlainRecord plainConstruct() {
+        return new PlainRecord("name", 1, "value", 7);
+    }
+
+    @Benchmark
+    public Record canonicalDefaults() throws Throwable {
+        return (Record) canonicalConstructor.invokeExact("name", 1);
+    }
+
+    @Benchmark
+    public Record queueNextThenCanonical() throws Throwable {
+        STRING_KEY.queueNext("value");
+        INT_KEY.queueNextInt(7);
+        return (Record) canonicalConstructor.invokeExact("name", 1);
+    }
+
+    @Benchmark
+    public Record extendedConstructor() throws Throwable {
+        return (Record) extendedConstructor.invokeExact("name", 1, 7, "value");
+    }
+
+    @Benchmark
+    public Record factoryCreate() {
+        return factory.create(vanillaArguments, new Object[]{7, "value"});
+    }
+}
@@ -0,0 +1,67 @@
+package recordrecoder.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import recordrecoder.api.record.IntRecordComponentKey;
+import recordrecoder.jmh.records.FieldsRecord;
+import recordrecoder.jmh.records.PackedRecord;
+import recordrecoder.jmh.support.BenchmarkKeys;
+import recordrecoder.jmh.support.TransformingClassLoader;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the heap footprint of a record with {@value BenchmarkKeys#FOOTPRINT_KEY_COUNT} keys stored one field per
+ * key against the same record with packed storage. Every operation constructs one instance, so running with
+ * {@code -prof gc} reports the bytes each instance occupies as {@code gc.alloc.rate.norm}.
+ * <p>
+ * With compressed references, one field per key costs 4 bytes per key on every instance. Packed instances holding
+ * only defaults cost a single reference, one holding a value also allocates the packed values and the boxed value,
+ * and briefly the array its values are collected in, which the allocation rate counts but the instance does not retain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FootprintBenchmark {
+    static final IntRecordComponentKey FIELDS_KEY = BenchmarkKeys.FIELDS_INT_KEY;
+    static final IntRecordComponentKey PACKED_KEY = BenchmarkKeys.PACKED_INT_KEY;
+
+    private MethodHandle fieldsConstructor;
+    private MethodHandle packedConstructor;
+
+    @Setup
+    public void setup() throws Throwable {
+        fieldsConstructor = canonicalConstructor(TransformingClassLoader.loadTransformed(FieldsRecord.class));
+        packedConstructor = canonicalConstructor(TransformingClassLoader.loadTransformed(PackedRecord.class));
+    }
+
+    private static MethodHandle canonicalConstructor(Class<? extends Record> recordClass) throws ReflectiveOperationException {
+        return MethodHandles.publicLookup()
+                .findConstructor(recordClass, MethodType.methodType(void.class, String.class, int.class))
+                .asType(MethodType.methodType(Record.class, String.class, int.class));
+    }
+
+    @Benchmark
+    public Record fieldsDefaults() throws Throwable {
+        return (Record) fieldsConstructor.invokeExact("name", 1);
+    }
+
+    @Benchmark
+    public Record packedDefaults() throws Throwable {
+        return (Record) packedConstructor.invokeExact("name", 1);
+    }
+
+    @Benchmark
+    public Record fieldsOneValue() throws Throwable {
+        FIELDS_KEY.queueNextInt(1000);
+        return (Record) fieldsConstructor.invokeExact("name", 1);
+    }
+
+    @Benchmark
+    public Record packedOneValue() throws Throwable {
+        PACKED_KEY.queueNextInt(1000);
+        return (Record) packedConstructor.invokeExact("name", 1);
+    }
+}
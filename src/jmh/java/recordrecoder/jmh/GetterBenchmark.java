@@ -0,0 +1,143 @@
+package recordrecoder.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import recordrecoder.api.record.IntRecordComponentKey;
+import recordrecoder.api.record.RecordComponentKey;
+import recordrecoder.jmh.records.CachedHashRecord;
+import recordrecoder.jmh.records.DirectRecord;
+import recordrecoder.jmh.records.FieldsRecord;
+import recordrecoder.jmh.records.GetterRecord;
+import recordrecoder.jmh.records.PlainRecord;
+import recordrecoder.jmh.support.BenchmarkKeys;
+import recordrecoder.jmh.support.TransformingClassLoader;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reads through keys against plain record field reads.
+ * The {@code mismatch*} probes should neither allocate nor capture stack traces, except {@link #mismatchGet()}.
+ * <p>
+ * Each fork only reads the keys of its own benchmark. The {@code *Several} benchmarks read keys of more records than
+ * a shared accessor call site inlines, as is common in a modded game. Keys are specialized, so each read through a
+ * key should cost a class comparison on top of the field load of the matching {@code plain*} benchmark, however many
+ * keys are read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GetterBenchmark {
+    static final RecordComponentKey<String> STRING_KEY = BenchmarkKeys.STRING_KEY;
+    static final IntRecordComponentKey INT_KEY = BenchmarkKeys.INT_KEY;
+
+    static final IntRecordComponentKey DIRECT_INT_KEY = BenchmarkKeys.DIRECT_INT_KEY;
+    static final IntRecordComponentKey CACHED_HASH_INT_KEY = BenchmarkKeys.CACHED_HASH_INT_KEY;
+    static final IntRecordComponentKey FIELDS_INT_KEY = BenchmarkKeys.FIELDS_INT_KEY;
+    static final RecordComponentKey<String> DIRECT_STRING_KEY = BenchmarkKeys.DIRECT_STRING_KEY;
+    static final RecordComponentKey<String> CACHED_HASH_STRING_KEY = BenchmarkKeys.CACHED_HASH_STRING_KEY;
+
+    private PlainRecord plain;
+    private PlainRecord[] plainSeveral;
+    private Record transformed;
+    private Record direct;
+    private Record cachedHash;
+    private Record fields;
+
+    @Setup
+    public void setup() throws Throwable {
+        plain = new PlainRecord("name", 1, "added", 42);
+        plainSeveral = new PlainRecord[]{
+                new PlainRecord("name", 1, "added", 42),
+                new PlainRecord("name", 2, "added", 42),
+                new PlainRecord("name", 3, "added", 42),
+                new PlainRecord("name", 4, "added", 42)
+        };
+        transformed = create(GetterRecord.class);
+        direct = create(DirectRecord.class);
+        cachedHash = create(CachedHashRecord.class);
+        fields = create(FieldsRecord.class);
+    }
+
+    private static Record create(Class<? extends Record> template) throws Throwable {
+        Class<? extends Record> recordClass = TransformingClassLoader.loadTransformed(template);
+        return (Record) MethodHandles.publicLookup()
+                .findConstructor(recordClass, MethodType.methodType(void.class, String.class, int.class))
+                .invoke("name", 1);
+    }
+
+    @Benchmark
+    public String plainReadString() {
+        return plain.addedString();
+    }
+
+    @Benchmark
+    public String keyGetString() throws RecordComponentKey.KeyMismatchException {
+        return STRING_KEY.get(transformed);
+    }
+
+    @Benchmark
+    public int plainReadInt() {
+        return plain.addedInt();
+    }
+
+    @Benchmark
+    public int keyGetInt() throws RecordComponentKey.KeyMismatchException {
+        return INT_KEY.getInt(transformed);
+    }
+
+    @Benchmark
+    public int plainReadIntSeveral() {
+        return plainSeveral[0].addedInt() + plainSeveral[1].addedInt() + plainSeveral[2].addedInt() + plainSeveral[3].addedInt();
+    }
+
+    @Benchmark
+    public int keyGetIntSeveral() throws RecordComponentKey.KeyMismatchException {
+        return INT_KEY.getInt(transformed) + DIRECT_INT_KEY.getInt(direct) + CACHED_HASH_INT_KEY.getInt(cachedHash) + FIELDS_INT_KEY.getInt(fields);
+    }
+
+    @Benchmark
+    public void plainReadStringSeveral(Blackhole blackhole) {
+        blackhole.consume(plainSeveral[0].addedString());
+        blackhole.consume(plainSeveral[1].addedString());
+        blackhole.consume(plainSeveral[2].addedString());
+    }
+
+    @Benchmark
+    public void keyGetStringSeveral(Blackhole blackhole) throws RecordComponentKey.KeyMismatchException {
+        blackhole.consume(STRING_KEY.get(transformed));
+        blackhole.consume(DIRECT_STRING_KEY.get(direct));
+        blackhole.consume(CACHED_HASH_STRING_KEY.get(cachedHash));
+    }
+
+    @Benchmark
+    public String keyGetOrNull() {
+        return STRING_KEY.getOrNull(transformed);
+    }
+
+    @Benchmark
+    public Optional<String> keyGetOptional() {
+        return STRING_KEY.getOptional(transformed);
+    }
+
+    @Benchmark
+    public String mismatchGetOrNull() {
+        return STRING_KEY.getOrNull(plain);
+    }
+
+    @Benchmark
+    public Optional<String> mismatchGetOptional() {
+        return STRING_KEY.getOptional(plain);
+    }
+
+    @Benchmark
+    public Object mismatchGet() {
+        try {
+            return STRING_KEY.get(plain);
+        } catch (RecordComponentKey.KeyMismatchException e) {
+            return e;
+        }
+    }
+}
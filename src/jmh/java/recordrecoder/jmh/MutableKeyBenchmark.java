@@ -0,0 +1,56 @@
+package recordrecoder.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import recordrecoder.api.record.MutableIntRecordComponentKey;
+import recordrecoder.api.record.RecordComponentKey;
+import recordrecoder.jmh.records.CounterRecord;
+import recordrecoder.jmh.support.BenchmarkKeys;
+import recordrecoder.jmh.support.TransformingClassLoader;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares a per-instance counter held by a mutable key against the identity maps it replaces.
+ * Every operation increments the counter of one shared record, so running with {@code -t} above one measures the
+ * contended case. The key should be a single atomic add, while the maps also hash the record and look it up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MutableKeyBenchmark {
+    static final MutableIntRecordComponentKey COUNTER_KEY = BenchmarkKeys.COUNTER_KEY;
+
+    private final Map<Record, AtomicInteger> concurrentMap = new ConcurrentHashMap<>();
+    private final Map<Record, AtomicInteger> weakMap = Collections.synchronizedMap(new WeakHashMap<>());
+    private Record record;
+
+    @Setup
+    public void setup() throws Throwable {
+        Class<? extends Record> recordClass = TransformingClassLoader.loadTransformed(CounterRecord.class);
+        record = (Record) MethodHandles.publicLookup()
+                .findConstructor(recordClass, MethodType.methodType(void.class, String.class, int.class))
+                .invoke("name", 1);
+    }
+
+    @Benchmark
+    public int concurrentMapIncrement() {
+        return concurrentMap.computeIfAbsent(record, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    @Benchmark
+    public int weakMapIncrement() {
+        return weakMap.computeIfAbsent(record, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    @Benchmark
+    public int keyIncrement() throws RecordComponentKey.KeyMismatchException {
+        return COUNTER_KEY.getAndAddInt(record, 1) + 1;
+    }
+}
@@ -0,0 +1,106 @@
+package recordrecoder.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import recordrecoder.jmh.records.CachedHashRecord;
+import recordrecoder.jmh.records.DirectRecord;
+import recordrecoder.jmh.records.GetterRecord;
+import recordrecoder.jmh.records.PlainRecord;
+import recordrecoder.jmh.support.BenchmarkKeys;
+import recordrecoder.jmh.support.TransformingClassLoader;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the record methods of a transformed record against a plain record declaring the same components,
+ * and against the same record transformed with direct object methods and with a cached hash code.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RecordMethodsBenchmark {
+    static {
+        // the keys have to be registered before the record is transformed
+        BenchmarkKeys.STRING_KEY.getClass();
+    }
+
+    private PlainRecord plain;
+    private PlainRecord plainOther;
+    private Record transformed;
+    private Record transformedOther;
+    private Record direct;
+    private Record directOther;
+    private Record cachedHash;
+
+    @Setup
+    public void setup() throws Throwable {
+        plain = new PlainRecord("name", 1, "added", 42);
+        plainOther = new PlainRecord("name", 1, "added", 42);
+        // both instances of a pair have to come from the same transformed class to be equal
+        MethodHandle transformedConstructor = constructor(GetterRecord.class);
+        transformed = (Record) transformedConstructor.invoke("name", 1);
+        transformedOther = (Record) transformedConstructor.invoke("name", 1);
+        MethodHandle directConstructor = constructor(DirectRecord.class);
+        direct = (Record) directConstructor.invoke("name", 1);
+        directOther = (Record) directConstructor.invoke("name", 1);
+        cachedHash = (Record) constructor(CachedHashRecord.class).invoke("name", 1);
+    }
+
+    private static MethodHandle constructor(Class<? extends Record> template) throws ReflectiveOperationException {
+        Class<? extends Record> recordClass = TransformingClassLoader.loadTransformed(template);
+        return MethodHandles.publicLookup()
+                .findConstructor(recordClass, MethodType.methodType(void.class, String.class, int.class));
+    }
+
+    @Benchmark
+    public boolean plainEquals() {
+        return plain.equals(plainOther);
+    }
+
+    @Benchmark
+    public boolean transformedEquals() {
+        return transformed.equals(transformedOther);
+    }
+
+    @Benchmark
+    public int plainHashCode() {
+        return plain.hashCode();
+    }
+
+    @Benchmark
+    public int transformedHashCode() {
+        return transformed.hashCode();
+    }
+
+    @Benchmark
+    public boolean directEquals() {
+        return direct.equals(directOther);
+    }
+
+    @Benchmark
+    public int directHashCode() {
+        return direct.hashCode();
+    }
+
+    @Benchmark
+    public int cachedHashCode() {
+        return cachedHash.hashCode();
+    }
+
+    @Benchmark
+    public String directToString() {
+        return direct.toString();
+    }
+
+    @Benchmark
+    public String plainToString() {
+        return plain.toString();
+    }
+
+    @Benchmark
+    public String transformedToString() {
+        return transformed.toString();
+    }
+}
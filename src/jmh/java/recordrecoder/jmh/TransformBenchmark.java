@@ -0,0 +1,58 @@
+package recordrecoder.jmh;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.commons.ClassRemapper;
+import org.objectweb.asm.commons.SimpleRemapper;
+import org.objectweb.asm.tree.ClassNode;
+import org.openjdk.jmh.annotations.*;
+import recordrecoder.impl.asm.RecordClassTransformer;
+import recordrecoder.jmh.records.SyntheticRecord;
+import recordrecoder.jmh.support.BenchmarkKeys;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link RecordClassTransformer#transform(ClassNode)} on synthetic records with a growing number of keys.
+ * Each invocation transforms a freshly read tree, reading it is not part of the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransformBenchmark {
+    @Param({"1", "10", "50", "200", "400", "800"})
+    public int keyCount;
+
+    private byte[] syntheticBytes;
+    private ClassNode classNode;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        String templateName = SyntheticRecord.class.getName().replace('.', '/');
+        byte[] template;
+        try (InputStream stream = SyntheticRecord.class.getClassLoader().getResourceAsStream(templateName + ".class")) {
+            template = stream.readAllBytes();
+        }
+        // rename the template to the synthetic target of this key count
+        ClassWriter writer = new ClassWriter(0);
+        new ClassReader(template).accept(
+                new ClassRemapper(writer, new SimpleRemapper(templateName, BenchmarkKeys.syntheticName(keyCount))),
+                0
+        );
+        syntheticBytes = writer.toByteArray();
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        classNode = new ClassNode();
+        new ClassReader(syntheticBytes).accept(classNode, 0);
+    }
+
+    @Benchmark
+    public ClassNode transform() {
+        RecordClassTransformer.transform(classNode);
+        return classNode;
+    }
+}
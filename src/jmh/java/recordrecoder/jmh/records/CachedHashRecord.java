@@ -0,0 +1,8 @@
+package recordrecoder.jmh.records;
+
+/**
+ * Loaded transformed by {@link recordrecoder.jmh.RecordMethodsBenchmark} with a cached hash code,
+ * and by {@link recordrecoder.jmh.GetterBenchmark} as one of several records read through keys.
+ */
+public record CachedHashRecord(String name, int value) {
+}
@@ -0,0 +1,7 @@
+package recordrecoder.jmh.records;
+
+/**
+ * Loaded transformed by {@link recordrecoder.jmh.MutableKeyBenchmark} with a mutable int key.
+ */
+public record CounterRecord(String name, int value) {
+}
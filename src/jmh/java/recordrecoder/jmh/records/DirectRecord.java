@@ -0,0 +1,8 @@
+package recordrecoder.jmh.records;
+
+/**
+ * Loaded transformed by {@link recordrecoder.jmh.RecordMethodsBenchmark} with direct object methods,
+ * and by {@link recordrecoder.jmh.GetterBenchmark} as one of several records read through keys.
+ */
+public record DirectRecord(String name, int value) {
+}
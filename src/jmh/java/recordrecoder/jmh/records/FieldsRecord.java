@@ -0,0 +1,8 @@
+package recordrecoder.jmh.records;
+
+/**
+ * Loaded transformed by {@link recordrecoder.jmh.FootprintBenchmark} with one field per key,
+ * and by {@link recordrecoder.jmh.GetterBenchmark} as one of several records read through keys.
+ */
+public record FieldsRecord(String name, int value) {
+}
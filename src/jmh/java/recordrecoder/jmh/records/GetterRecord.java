@@ -0,0 +1,7 @@
+package recordrecoder.jmh.records;
+
+/**
+ * Loaded transformed by {@link recordrecoder.jmh.GetterBenchmark}, which attaches keys to it.
+ */
+public record GetterRecord(String name, int value) {
+}
@@ -0,0 +1,7 @@
+package recordrecoder.jmh.records;
+
+/**
+ * Loaded transformed by {@link recordrecoder.jmh.FootprintBenchmark} with packed storage.
+ */
+public record PackedRecord(String name, int value) {
+}
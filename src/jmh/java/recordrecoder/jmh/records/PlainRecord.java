@@ -0,0 +1,7 @@
+package recordrecoder.jmh.records;
+
+/**
+ * Untransformed record declaring the same components as a transformed {@link GetterRecord}, used as the baseline.
+ */
+public record PlainRecord(String name, int value, String addedString, int addedInt) {
+}
@@ -0,0 +1,7 @@
+package recordrecoder.jmh.records;
+
+/**
+ * Template for the synthetic records of {@link recordrecoder.jmh.TransformBenchmark}, which renames it per key count.
+ */
+public record SyntheticRecord(String name, int value, long stamp) {
+}
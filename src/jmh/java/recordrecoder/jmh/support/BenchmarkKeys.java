@@ -0,0 +1,110 @@
+package recordrecoder.jmh.support;
+
+import recordrecoder.api.record.ComponentKeyRegistry;
+import recordrecoder.api.record.IntRecordComponentKey;
+import recordrecoder.api.record.MutableIntRecordComponentKey;
+import recordrecoder.api.record.RecordComponentKey;
+import recordrecoder.api.record.RecordOptions;
+
+/**
+ * Registers every key the benchmarks use, before the first transformation freezes the registry.
+ * Benchmarks reference this class from their static state, so the keys exist in every fork regardless
+ * of which benchmark it runs.
+ */
+public final class BenchmarkKeys {
+    public static final String GETTER_RECORD = "recordrecoder/jmh/records/GetterRecord";
+    public static final RecordComponentKey<String> STRING_KEY = ComponentKeyRegistry.INSTANCE.register(
+            RecordComponentKey.create("addedString", GETTER_RECORD, String.class, "added")
+    );
+    public static final IntRecordComponentKey INT_KEY = ComponentKeyRegistry.INSTANCE.register(
+            IntRecordComponentKey.create("addedInt", GETTER_RECORD, 42)
+    );
+
+    // the same keys as GetterRecord, transformed with each of the record options
+    public static final String DIRECT_RECORD = "recordrecoder/jmh/records/DirectRecord";
+    public static final RecordComponentKey<String> DIRECT_STRING_KEY = ComponentKeyRegistry.INSTANCE.register(
+            RecordComponentKey.create("addedString", DIRECT_RECORD, String.class, "added")
+    );
+    public static final IntRecordComponentKey DIRECT_INT_KEY = ComponentKeyRegistry.INSTANCE.register(
+            IntRecordComponentKey.create("addedInt", DIRECT_RECORD, 42)
+    );
+    public static final String CACHED_HASH_RECORD = "recordrecoder/jmh/records/CachedHashRecord";
+    public static final RecordComponentKey<String> CACHED_HASH_STRING_KEY = ComponentKeyRegistry.INSTANCE.register(
+            RecordComponentKey.create("addedString", CACHED_HASH_RECORD, String.class, "added")
+    );
+    public static final IntRecordComponentKey CACHED_HASH_INT_KEY = ComponentKeyRegistry.INSTANCE.register(
+            IntRecordComponentKey.create("addedInt", CACHED_HASH_RECORD, 42)
+    );
+
+    public static final String FIELDS_RECORD = "recordrecoder/jmh/records/FieldsRecord";
+    public static final String PACKED_RECORD = "recordrecoder/jmh/records/PackedRecord";
+    /**
+     * The number of keys attached to the records compared by {@link recordrecoder.jmh.FootprintBenchmark}.
+     */
+    public static final int FOOTPRINT_KEY_COUNT = 8;
+    public static final IntRecordComponentKey FIELDS_INT_KEY = registerFootprintKeys(FIELDS_RECORD);
+    public static final IntRecordComponentKey PACKED_INT_KEY = registerFootprintKeys(PACKED_RECORD);
+
+    public static final String COUNTER_RECORD = "recordrecoder/jmh/records/CounterRecord";
+    public static final MutableIntRecordComponentKey COUNTER_KEY = ComponentKeyRegistry.INSTANCE.register(
+            MutableIntRecordComponentKey.create("counter", COUNTER_RECORD)
+    );
+
+    /**
+     * Key counts of the synthetic records transformed by {@link recordrecoder.jmh.TransformBenchmark}.
+     */
+    public static final int[] SYNTHETIC_KEY_COUNTS = {1, 10, 50, 200, 400, 800};
+
+    static {
+        ComponentKeyRegistry.INSTANCE.configure(DIRECT_RECORD, RecordOptions.DEFAULT.withDirectObjectMethods());
+        ComponentKeyRegistry.INSTANCE.configure(CACHED_HASH_RECORD, RecordOptions.DEFAULT.withCachedHashCode());
+
+        ComponentKeyRegistry.INSTANCE.configure(PACKED_RECORD, RecordOptions.DEFAULT.withPackedStorage());
+
+        for (int keyCount : SYNTHETIC_KEY_COUNTS) {
+            String target = syntheticName(keyCount);
+            for (int i = 0; i < keyCount; i++) {
+                String fieldName = String.format("key%03d", i);
+                // alternate reference and primitive keys, so both code paths are generated
+                if ((i & 1) == 0) {
+                    ComponentKeyRegistry.INSTANCE.register(RecordComponentKey.create(fieldName, target, String.class, ""));
+                } else {
+                    ComponentKeyRegistry.INSTANCE.register(IntRecordComponentKey.create(fieldName, target, i));
+                }
+            }
+        }
+    }
+
+    private BenchmarkKeys() {
+    }
+
+    /**
+     * Registers the same keys on each of the records compared by {@link recordrecoder.jmh.FootprintBenchmark}.
+     *
+     * @param target The internal name of the record
+     * @return The first int key, for queueing a value
+     */
+    private static IntRecordComponentKey registerFootprintKeys(String target) {
+        IntRecordComponentKey first = null;
+        for (int i = 0; i < FOOTPRINT_KEY_COUNT; i++) {
+            String fieldName = "footprint" + i;
+            // alternate reference and primitive keys, like the synthetic records
+            if ((i & 1) == 0) {
+                ComponentKeyRegistry.INSTANCE.register(RecordComponentKey.create(fieldName, target, String.class, ""));
+            } else {
+                IntRecordComponentKey key = ComponentKeyRegistry.INSTANCE.register(IntRecordComponentKey.create(fieldName, target, 0));
+                if (first == null)
+                    first = key;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * @param keyCount The number of keys attached to the synthetic record
+     * @return The internal name of the synthetic record with that many keys
+     */
+    public static String syntheticName(int keyCount) {
+        return "recordrecoder/jmh/synthetic/Synthetic" + keyCount;
+    }
+}
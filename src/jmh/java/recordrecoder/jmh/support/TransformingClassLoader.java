@@ -0,0 +1,77 @@
+package recordrecoder.jmh.support;
+
+import recordrecoder.api.record.ComponentKeyRegistry;
+import recordrecoder.api.record.RecordTransformer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+
+/**
+ * Loads a fixed set of record classes through {@link RecordTransformer}, so benchmarks can use transformed
+ * records without launching Minecraft. Every other class, including the library itself, is loaded by the parent,
+ * so keys registered by the benchmark are the ones the transformed classes bind to.
+ */
+public class TransformingClassLoader extends ClassLoader {
+    private final Set<String> transformedClasses;
+
+    /**
+     * @param parent             The loader providing the library and the untransformed class bytes
+     * @param transformedClasses The binary names of the classes to load transformed
+     */
+    public TransformingClassLoader(ClassLoader parent, Set<String> transformedClasses) {
+        super(parent);
+        this.transformedClasses = transformedClasses;
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (!transformedClasses.contains(name)) {
+            return super.loadClass(name, resolve);
+        }
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> loaded = findLoadedClass(name);
+            if (loaded == null) {
+                byte[] bytes = transform(readClassBytes(name));
+                loaded = defineClass(name, bytes, 0, bytes.length);
+            }
+            if (resolve) {
+                resolveClass(loaded);
+            }
+            return loaded;
+        }
+    }
+
+    private byte[] readClassBytes(String name) throws ClassNotFoundException {
+        try (InputStream stream = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+            if (stream == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return stream.readAllBytes();
+        } catch (IOException e) {
+            throw new ClassNotFoundException(name, e);
+        }
+    }
+
+    private static byte[] transform(byte[] bytes) {
+        return RecordTransformer.transform(bytes, ComponentKeyRegistry.INSTANCE.freeze());
+    }
+
+    /**
+     * Loads the given record class transformed, in a fresh loader.
+     *
+     * @param recordClass The untransformed record class, compiled into the benchmark source set
+     * @return The transformed copy of the record class
+     */
+    public static Class<? extends Record> loadTransformed(Class<? extends Record> recordClass) {
+        TransformingClassLoader loader = new TransformingClassLoader(
+                TransformingClassLoader.class.getClassLoader(),
+                Set.of(recordClass.getName())
+        );
+        try {
+            return loader.loadClass(recordClass.getName()).asSubclass(Record.class);
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException("Failed to load transformed class: ", e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package recordrecoder.api.record;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+import recordrecoder.impl.record.BooleanRecordComponentKeyImpl;
+import recordrecoder.impl.record.SpecializedKeys;
+
+/**
+ * A {@link RecordComponentKey} specialized for {@code boolean} components.
+ * <p>
+ * Components created through this key are stored as a real {@code boolean} field on the target record,
+ * so queueing and reading values through {@link #queueNextBoolean(boolean)} and {@link #getBoolean(Record)} never boxes.
+ */
+@ApiStatus.NonExtendable
+@SuppressWarnings("unused")
+public interface BooleanRecordComponentKey extends RecordComponentKey<Boolean> {
+    /**
+     * Retrieves the component value from a record instance without boxing.
+     *
+     * @param <I>      The record instance type
+     * @param instance The record instance from which to get the component value
+     * @return The component value
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    <I extends Record> boolean getBoolean(I instance) throws KeyMismatchException, IllegalStateException;
+
+    /**
+     * Retrieves the component value from a record instance without boxing, or a default value if the key
+     * is not applicable to the instance.
+     *
+     * @param <I>          The record instance type
+     * @param instance     The record instance from which to get the component value, may be null
+     * @param defaultValue The value returned if the key is not applicable to the instance
+     * @return The component value, or the given default value
+     */
+    <I extends Record> boolean getBooleanOrDefault(@Nullable I instance, boolean defaultValue);
+
+    /**
+     * Queues a value to be assigned to this component during the next record instantiation without boxing.
+     *
+     * @param value The value to queue
+     */
+    void queueNextBoolean(boolean value);
+
+    static BooleanRecordComponentKey create(String fieldName, String targetClassName) {
+        return create(fieldName, targetClassName, false);
+    }
+
+    static BooleanRecordComponentKey create(String fieldName, String targetClassName, boolean defaultValue) {
+        return SpecializedKeys.specialize(new BooleanRecordComponentKeyImpl(fieldName, targetClassName, defaultValue));
+    }
+
+    static BooleanRecordComponentKey create(String fieldName, String targetClassName, boolean defaultValue, ComponentOptions options) {
+        return SpecializedKeys.specialize(new BooleanRecordComponentKeyImpl(fieldName, targetClassName, defaultValue, options));
+    }
+}
@@ -0,0 +1,29 @@
+package recordrecoder.api.record;
+
+/**
+ * A custom notion of equality for the values of a component, used by the generated {@code equals} and
+ * {@code hashCode} of records whose key was created with {@link ComponentOptions#withEquivalence}.
+ * <p>
+ * Null values are handled by the caller: two nulls are equivalent, a null is never equivalent to a non-null value
+ * and hashes to zero, so neither method is called with null.
+ *
+ * @param <T> The type of the component values
+ */
+public interface ComponentEquivalence<T> {
+    /**
+     * Checks whether two values are equivalent. Must be consistent with {@link #hash(Object)}.
+     *
+     * @param first  The value of the first record
+     * @param second The value of the second record
+     * @return Whether the values are equivalent
+     */
+    boolean equivalent(T first, T second);
+
+    /**
+     * Computes the hash code of a value.
+     *
+     * @param value The value
+     * @return The hash code, equal for equivalent values
+     */
+    int hash(T value);
+}
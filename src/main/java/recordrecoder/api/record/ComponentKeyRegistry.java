@@ -1,5 +1,6 @@
 package recordrecoder.api.record;
 
+import net.fabricmc.loader.api.MappingResolver;
 import recordrecoder.impl.record.ComponentKeyRegistryImpl;
 
 import java.util.List;
@@ -11,17 +12,51 @@ public interface ComponentKeyRegistry {
      * Registers a record component key with the system.
      *
      * <p>This method adds the provided key to an internal collection of keys organized by target class.
-     * If the target class already has registered keys, the new key is added to the existing collection
-     * and the keys are sorted alphabetically by field name. If this is the first key for the target class,
-     * a new collection is created.</p>
+     * Keys are sorted alphabetically by field name once, when the registry is frozen.
+     * Registering the same key again has no effect.</p>
      *
      * @param <Q> The type of record component key extending RecordComponentKey<T>
      * @param <T> The type associated with the record component key
      * @param key The record component key to register
      * @return The registered key (same instance that was passed in)
+     * @throws IllegalStateException If the registry has already been frozen
      */
     <Q extends RecordComponentKey<T>, T> Q register(Q key);
 
+    /**
+     * Sets the options a record class is transformed with, replacing any options set before.
+     *
+     * @param targetClassName The internal name of the record class
+     * @param options         The options to transform the record with
+     * @throws IllegalStateException If the registry has already been frozen
+     */
+    void configure(String targetClassName, RecordOptions options);
+
+    /**
+     * Ends the registration phase. Called by RecordRecoder once every registration entrypoint has run,
+     * and at the latest when the first record class is transformed.
+     * Freezing an already frozen registry returns the existing snapshot.
+     *
+     * @return The immutable snapshot all further reads are served from
+     * @throws IllegalStateException If a record is configured with {@link RecordOptions#cachedHashCode()} but has a
+     *                               mutable key included in its equality
+     */
+    KeySnapshot freeze();
+
+    /**
+     * @return Whether the registry has been frozen and no longer accepts keys
+     */
+    boolean isFrozen();
+
+    /**
+     * Gets the mapping resolver registrations should name their target classes with.
+     * In game this is the resolver of {@code FabricLoader}, which is not available when records are transformed ahead
+     * of time, so registrations that look up names through this resolver run in both cases.
+     *
+     * @return The resolver mapping class names to the namespace of the game
+     */
+    MappingResolver getMappingResolver();
+
     /**
      * Retrieves record component keys for a specified class.
      *
@@ -37,4 +72,26 @@ public interface ComponentKeyRegistry {
      * @return A list of record component keys for the specified class, or an empty list if none exist
      */
     List<? extends RecordComponentKey<?>> getForClass(String className);
+
+    /**
+     * Gets a key declared in the {@code recordrecoder:keys} block of a {@code fabric.mod.json}.
+     * Declared keys are created from mod metadata before any entrypoint runs, without loading classes of the
+     * declaring mod; their component class and default value factory are only resolved once first needed.
+     *
+     * @param id The name of the key, {@code <mod id>:<key id>}, where the key id defaults to the field name
+     * @return The declared key, to be cast to the primitive key interfaces for primitive types
+     * @throws IllegalArgumentException If no key was declared under the name
+     */
+    RecordComponentKey<?> getDeclaredKey(String id);
+
+    /**
+     * Gets the reusable factory constructing the given transformed record together with its extended values.
+     *
+     * @param <R>         The record type
+     * @param recordClass The transformed record class
+     * @return The factory for the record class
+     * @throws IllegalArgumentException If no keys are registered for the record class
+     * @throws IllegalStateException    If the record class has not been transformed
+     */
+    <R extends Record> RecordFactory<R> factoryFor(Class<R> recordClass);
 }
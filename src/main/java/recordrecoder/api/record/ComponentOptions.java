@@ -0,0 +1,102 @@
+package recordrecoder.api.record;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Options controlling how the component of a key takes part in the {@code equals}, {@code hashCode} and
+ * {@code toString} of its record, and when its default value is created, set when the key is created.
+ * <p>
+ * Excluding a component only filters the arguments of the {@code ObjectMethods} bootstrap. Any strategy other than
+ * {@link Equality#VALUE} makes the record use direct object methods, see {@link RecordOptions#directObjectMethods()}.
+ *
+ * @param includedInEquality Whether the component is compared by {@code equals} and hashed by {@code hashCode}
+ * @param includedInToString Whether the component is printed by {@code toString}
+ * @param equality           How the component is compared and hashed
+ * @param equivalence        The custom equivalence, present exactly if the strategy is {@link Equality#CUSTOM}
+ * @param lazyDefault        Whether instances constructed without a queued value create the default value on the
+ *                           first read of the component instead of in the constructor, for reference components only.
+ *                           Concurrent first reads agree on a single default value. Copies and the object methods read
+ *                           the component, so they create the default as well, while factories keep it lazy for
+ *                           components they are given no value or null for. Derived keys compute their value on the
+ *                           first read instead
+ */
+@SuppressWarnings("unused")
+public record ComponentOptions(boolean includedInEquality, boolean includedInToString, Equality equality,
+                               @Nullable ComponentEquivalence<?> equivalence, boolean lazyDefault) {
+    public static final ComponentOptions DEFAULT = new ComponentOptions(true, true, Equality.VALUE, null, false);
+
+    public ComponentOptions {
+        if ((equality == Equality.CUSTOM) != (equivalence != null))
+            throw new IllegalArgumentException("An equivalence must be given exactly for the custom equality strategy");
+    }
+
+    public ComponentOptions(boolean includedInEquality, boolean includedInToString, Equality equality,
+                            @Nullable ComponentEquivalence<?> equivalence) {
+        this(includedInEquality, includedInToString, equality, equivalence, false);
+    }
+
+    /**
+     * @return These options with the component left out of {@code equals} and {@code hashCode}
+     */
+    public ComponentOptions excludedFromEquality() {
+        return new ComponentOptions(false, includedInToString, equality, equivalence, lazyDefault);
+    }
+
+    /**
+     * @return These options with the component left out of {@code toString}
+     */
+    public ComponentOptions excludedFromToString() {
+        return new ComponentOptions(includedInEquality, false, equality, equivalence, lazyDefault);
+    }
+
+    /**
+     * @return These options with values compared by reference and hashed by {@link System#identityHashCode}
+     */
+    public ComponentOptions withIdentityEquality() {
+        return new ComponentOptions(includedInEquality, includedInToString, Equality.IDENTITY, null, lazyDefault);
+    }
+
+    /**
+     * @return These options with array values compared, hashed and printed by content, deeply for nested arrays
+     */
+    public ComponentOptions withArrayContentEquality() {
+        return new ComponentOptions(includedInEquality, includedInToString, Equality.ARRAY_CONTENT, null, lazyDefault);
+    }
+
+    /**
+     * @param equivalence The equivalence comparing and hashing the values
+     * @return These options with values compared and hashed by a custom equivalence
+     */
+    public ComponentOptions withEquivalence(ComponentEquivalence<?> equivalence) {
+        return new ComponentOptions(includedInEquality, includedInToString, Equality.CUSTOM, equivalence, lazyDefault);
+    }
+
+    /**
+     * @return These options with the default value created on the first read instead of in the constructor
+     */
+    public ComponentOptions withLazyDefault() {
+        return new ComponentOptions(includedInEquality, includedInToString, equality, equivalence, true);
+    }
+
+    /**
+     * How the values of a component are compared and hashed.
+     */
+    public enum Equality {
+        /**
+         * Like the bootstrap: {@code ==} for primitives, {@link java.util.Objects#equals} otherwise.
+         */
+        VALUE,
+        /**
+         * By reference, for reference components only.
+         */
+        IDENTITY,
+        /**
+         * By array content, for array components only.
+         */
+        ARRAY_CONTENT,
+        /**
+         * By a {@link ComponentEquivalence}, for reference components only.
+         */
+        CUSTOM
+    }
+}
@@ -0,0 +1,26 @@
+package recordrecoder.api.record;
+
+import org.jetbrains.annotations.ApiStatus;
+import recordrecoder.impl.record.EnumRecordComponentKeyImpl;
+import recordrecoder.impl.record.SpecializedKeys;
+
+/**
+ * A {@link RecordComponentKey} for enum components.
+ * <p>
+ * Components created through this key are stored as a field of the enum type, or, on records configured with
+ * {@link RecordOptions#withBitfields()}, as the ordinal of their value in a bitfield shared with the other flag and
+ * small enum keys of the record. Values of enum keys are never null.
+ *
+ * @param <E> The enum type of the component
+ */
+@ApiStatus.NonExtendable
+@SuppressWarnings("unused")
+public interface EnumRecordComponentKey<E extends Enum<E>> extends RecordComponentKey<E> {
+    static <E extends Enum<E>> EnumRecordComponentKey<E> create(String fieldName, String targetClassName, E defaultValue) {
+        return SpecializedKeys.specialize(new EnumRecordComponentKeyImpl<>(fieldName, targetClassName, defaultValue));
+    }
+
+    static <E extends Enum<E>> EnumRecordComponentKey<E> create(String fieldName, String targetClassName, E defaultValue, ComponentOptions options) {
+        return SpecializedKeys.specialize(new EnumRecordComponentKeyImpl<>(fieldName, targetClassName, defaultValue, options));
+    }
+}
@@ -0,0 +1,58 @@
+package recordrecoder.api.record;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+import recordrecoder.impl.record.IntRecordComponentKeyImpl;
+import recordrecoder.impl.record.SpecializedKeys;
+
+/**
+ * A {@link RecordComponentKey} specialized for {@code int} components.
+ * <p>
+ * Components created through this key are stored as a real {@code int} field on the target record,
+ * so queueing and reading values through {@link #queueNextInt(int)} and {@link #getInt(Record)} never boxes.
+ */
+@ApiStatus.NonExtendable
+@SuppressWarnings("unused")
+public interface IntRecordComponentKey extends RecordComponentKey<Integer> {
+    /**
+     * Retrieves the component value from a record instance without boxing.
+     *
+     * @param <I>      The record instance type
+     * @param instance The record instance from which to get the component value
+     * @return The component value
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    <I extends Record> int getInt(I instance) throws KeyMismatchException, IllegalStateException;
+
+    /**
+     * Retrieves the component value from a record instance without boxing, or a default value if the key
+     * is not applicable to the instance.
+     *
+     * @param <I>          The record instance type
+     * @param instance     The record instance from which to get the component value, may be null
+     * @param defaultValue The value returned if the key is not applicable to the instance
+     * @return The component value, or the given default value
+     */
+    <I extends Record> int getIntOrDefault(@Nullable I instance, int defaultValue);
+
+    /**
+     * Queues a value to be assigned to this component during the next record instantiation without boxing.
+     *
+     * @param value The value to queue
+     */
+    void queueNextInt(int value);
+
+    static IntRecordComponentKey create(String fieldName, String targetClassName) {
+        return create(fieldName, targetClassName, 0);
+    }
+
+    static IntRecordComponentKey create(String fieldName, String targetClassName, int defaultValue) {
+        return SpecializedKeys.specialize(new IntRecordComponentKeyImpl(fieldName, targetClassName, defaultValue));
+    }
+
+    static IntRecordComponentKey create(String fieldName, String targetClassName, int defaultValue, ComponentOptions options) {
+        return SpecializedKeys.specialize(new IntRecordComponentKeyImpl(fieldName, targetClassName, defaultValue, options));
+    }
+}
@@ -0,0 +1,35 @@
+package recordrecoder.api.record;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.List;
+
+/**
+ * An immutable view of the registered keys, taken when the {@link ComponentKeyRegistry} is frozen.
+ * <p>
+ * Snapshots never change and can be read from any thread without synchronization.
+ */
+@ApiStatus.NonExtendable
+@SuppressWarnings("unused")
+public interface KeySnapshot {
+    /**
+     * Retrieves record component keys for a class specified by its name.
+     *
+     * @param className The name of the class, in internal or binary form
+     * @return The keys for the class sorted by field name, or an empty list if none exist
+     */
+    List<? extends RecordComponentKey<?>> getForClass(String className);
+
+    /**
+     * Checks whether any keys target a class.
+     *
+     * @param className The name of the class, in internal or binary form
+     * @return Whether any keys target the class
+     */
+    boolean hasKeys(String className);
+
+    /**
+     * @return The number of keys in the snapshot
+     */
+    int keyCount();
+}
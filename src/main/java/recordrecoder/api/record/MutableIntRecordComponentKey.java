@@ -0,0 +1,118 @@
+package recordrecoder.api.record;
+
+import org.jetbrains.annotations.ApiStatus;
+import recordrecoder.impl.record.MutableIntRecordComponentKeyImpl;
+import recordrecoder.impl.record.SpecializedKeys;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A {@link IntRecordComponentKey} whose component can be changed after construction, atomically and without boxing.
+ * <p>
+ * Components created through this key are stored as a non-final {@code int} field on the target record, see
+ * {@link MutableRecordComponentKey} for the memory semantics and how they take part in the object methods.
+ */
+@ApiStatus.NonExtendable
+@SuppressWarnings("unused")
+public interface MutableIntRecordComponentKey extends IntRecordComponentKey {
+    /**
+     * Reads the component value with volatile semantics.
+     *
+     * @param <I>      The record instance type
+     * @param instance The record instance from which to get the component value
+     * @return The component value
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    <I extends Record> int getIntVolatile(I instance) throws KeyMismatchException, IllegalStateException;
+
+    /**
+     * Reads the component value with acquire semantics.
+     *
+     * @param <I>      The record instance type
+     * @param instance The record instance from which to get the component value
+     * @return The component value
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    <I extends Record> int getIntAcquire(I instance) throws KeyMismatchException, IllegalStateException;
+
+    /**
+     * Sets the component value with volatile semantics.
+     *
+     * @param <I>      The record instance type
+     * @param instance The record instance to change
+     * @param value    The new value
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    <I extends Record> void setIntVolatile(I instance, int value) throws KeyMismatchException, IllegalStateException;
+
+    /**
+     * Sets the component value with release semantics.
+     *
+     * @param <I>      The record instance type
+     * @param instance The record instance to change
+     * @param value    The new value
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    <I extends Record> void setIntRelease(I instance, int value) throws KeyMismatchException, IllegalStateException;
+
+    /**
+     * Sets the component value if it is the expected value.
+     *
+     * @param <I>      The record instance type
+     * @param instance The record instance to change
+     * @param expected The expected current value
+     * @param value    The new value
+     * @return Whether the value was set
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    <I extends Record> boolean compareAndSetInt(I instance, int expected, int value) throws KeyMismatchException, IllegalStateException;
+
+    /**
+     * Adds to the component value, returning the previous one.
+     *
+     * @param <I>      The record instance type
+     * @param instance The record instance to change
+     * @param delta    The value to add
+     * @return The previous value
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    <I extends Record> int getAndAddInt(I instance, int delta) throws KeyMismatchException, IllegalStateException;
+
+    /**
+     * Atomically replaces the component value with the result of a function, which may be applied more than once
+     * under contention.
+     *
+     * @param <I>      The record instance type
+     * @param instance The record instance to change
+     * @param update   Computes the new value from the current one, without side effects
+     * @return The new value
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    <I extends Record> int updateAndGetInt(I instance, IntUnaryOperator update) throws KeyMismatchException, IllegalStateException;
+
+    static MutableIntRecordComponentKey create(String fieldName, String targetClassName) {
+        return create(fieldName, targetClassName, 0);
+    }
+
+    static MutableIntRecordComponentKey create(String fieldName, String targetClassName, int defaultValue) {
+        return SpecializedKeys.specialize(new MutableIntRecordComponentKeyImpl(fieldName, targetClassName, defaultValue));
+    }
+
+    static MutableIntRecordComponentKey create(String fieldName, String targetClassName, int defaultValue, ComponentOptions options) {
+        return SpecializedKeys.specialize(new MutableIntRecordComponentKeyImpl(fieldName, targetClassName, defaultValue, options));
+    }
+}
@@ -0,0 +1,118 @@
+package recordrecoder.api.record;
+
+import org.jetbrains.annotations.ApiStatus;
+import recordrecoder.impl.record.MutableLongRecordComponentKeyImpl;
+import recordrecoder.impl.record.SpecializedKeys;
+
+import java.util.function.LongUnaryOperator;
+
+/**
+ * A {@link LongRecordComponentKey} whose component can be changed after construction, atomically and without boxing.
+ * <p>
+ * Components created through this key are stored as a non-final {@code long} field on the target record, see
+ * {@link MutableRecordComponentKey} for the memory semantics and how they take part in the object methods.
+ */
+@ApiStatus.NonExtendable
+@SuppressWarnings("unused")
+public interface MutableLongRecordComponentKey extends LongRecordComponentKey {
+    /**
+     * Reads the component value with volatile semantics.
+     *
+     * @param <I>      The record instance type
+     * @param instance The record instance from which to get the component value
+     * @return The component value
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    <I extends Record> long getLongVolatile(I instance) throws KeyMismatchException, IllegalStateException;
+
+    /**
+     * Reads the component value with acquire semantics.
+     *
+     * @param <I>      The record instance type
+     * @param instance The record instance from which to get the component value
+     * @return The component value
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    <I extends Record> long getLongAcquire(I instance) throws KeyMismatchException, IllegalStateException;
+
+    /**
+     * Sets the component value with volatile semantics.
+     *
+     * @param <I>      The record instance type
+     * @param instance The record instance to change
+     * @param value    The new value
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    <I extends Record> void setLongVolatile(I instance, long value) throws KeyMismatchException, IllegalStateException;
+
+    /**
+     * Sets the component value with release semantics.
+     *
+     * @param <I>      The record instance type
+     * @param instance The record instance to change
+     * @param value    The new value
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    <I extends Record> void setLongRelease(I instance, long value) throws KeyMismatchException, IllegalStateException;
+
+    /**
+     * Sets the component value if it is the expected value.
+     *
+     * @param <I>      The record instance type
+     * @param instance The record instance to change
+     * @param expected The expected current value
+     * @param value    The new value
+     * @return Whether the value was set
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    <I extends Record> boolean compareAndSetLong(I instance, long expected, long value) throws KeyMismatchException, IllegalStateException;
+
+    /**
+     * Adds to the component value, returning the previous one.
+     *
+     * @param <I>      The record instance type
+     * @param instance The record instance to change
+     * @param delta    The value to add
+     * @return The previous value
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    <I extends Record> long getAndAddLong(I instance, long delta) throws KeyMismatchException, IllegalStateException;
+
+    /**
+     * Atomically replaces the component value with the result of a function, which may be applied more than once
+     * under contention.
+     *
+     * @param <I>      The record instance type
+     * @param instance The record instance to change
+     * @param update   Computes the new value from the current one, without side effects
+     * @return The new value
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    <I extends Record> long updateAndGetLong(I instance, LongUnaryOperator update) throws KeyMismatchException, IllegalStateException;
+
+    static MutableLongRecordComponentKey create(String fieldName, String targetClassName) {
+        return create(fieldName, targetClassName, 0);
+    }
+
+    static MutableLongRecordComponentKey create(String fieldName, String targetClassName, long defaultValue) {
+        return SpecializedKeys.specialize(new MutableLongRecordComponentKeyImpl(fieldName, targetClassName, defaultValue));
+    }
+
+    static MutableLongRecordComponentKey create(String fieldName, String targetClassName, long defaultValue, ComponentOptions options) {
+        return SpecializedKeys.specialize(new MutableLongRecordComponentKeyImpl(fieldName, targetClassName, defaultValue, options));
+    }
+}
@@ -0,0 +1,127 @@
+package recordrecoder.api.record;
+
+import org.jetbrains.annotations.ApiStatus;
+import recordrecoder.impl.record.MutableRecordComponentKeyImpl;
+import recordrecoder.impl.record.SpecializedKeys;
+
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * A {@link RecordComponentKey} whose component can be changed after construction, atomically.
+ * <p>
+ * Components created through this key are stored as a non-final field on the target record, which the operations of
+ * this key access through a {@link java.lang.invoke.VarHandle}, so per-instance mutable state needs no map keyed by
+ * record identity. Plain reads through {@link #get(Record)} and the record's own accessor are not ordered with the
+ * operations of other threads, use {@link #getVolatile(Record)} or {@link #getAcquire(Record)} for that.
+ * <p>
+ * Mutable components are left out of {@code equals} and {@code hashCode} unless options are given. Records with a
+ * cached hash code do not notice changes to mutable components included in equality. Records with mutable keys
+ * are never packed.
+ *
+ * @param <T> The type of the component
+ */
+@ApiStatus.NonExtendable
+@SuppressWarnings("unused")
+public interface MutableRecordComponentKey<T> extends RecordComponentKey<T> {
+    /**
+     * Reads the component value with volatile semantics.
+     *
+     * @param <I>      The record instance type
+     * @param instance The record instance from which to get the component value
+     * @return The component value
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    <I extends Record> T getVolatile(I instance) throws KeyMismatchException, IllegalStateException;
+
+    /**
+     * Reads the component value with acquire semantics.
+     *
+     * @param <I>      The record instance type
+     * @param instance The record instance from which to get the component value
+     * @return The component value
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    <I extends Record> T getAcquire(I instance) throws KeyMismatchException, IllegalStateException;
+
+    /**
+     * Sets the component value with volatile semantics.
+     *
+     * @param <I>      The record instance type
+     * @param instance The record instance to change
+     * @param value    The new value
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    <I extends Record> void setVolatile(I instance, T value) throws KeyMismatchException, IllegalStateException;
+
+    /**
+     * Sets the component value with release semantics.
+     *
+     * @param <I>      The record instance type
+     * @param instance The record instance to change
+     * @param value    The new value
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    <I extends Record> void setRelease(I instance, T value) throws KeyMismatchException, IllegalStateException;
+
+    /**
+     * Sets the component value if it is the expected value, compared by reference.
+     *
+     * @param <I>      The record instance type
+     * @param instance The record instance to change
+     * @param expected The expected current value
+     * @param value    The new value
+     * @return Whether the value was set
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    <I extends Record> boolean compareAndSet(I instance, T expected, T value) throws KeyMismatchException, IllegalStateException;
+
+    /**
+     * Sets the component value, returning the previous one.
+     *
+     * @param <I>      The record instance type
+     * @param instance The record instance to change
+     * @param value    The new value
+     * @return The previous value
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    <I extends Record> T getAndSet(I instance, T value) throws KeyMismatchException, IllegalStateException;
+
+    /**
+     * Atomically replaces the component value with the result of a function, which may be applied more than once
+     * under contention.
+     *
+     * @param <I>      The record instance type
+     * @param instance The record instance to change
+     * @param update   Computes the new value from the current one, without side effects
+     * @return The new value
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    <I extends Record> T updateAndGet(I instance, UnaryOperator<T> update) throws KeyMismatchException, IllegalStateException;
+
+    static <T> MutableRecordComponentKey<T> create(String fieldName, String targetClassName, Class<T> componentClass) {
+        return SpecializedKeys.specialize(new MutableRecordComponentKeyImpl<>(fieldName, targetClassName, componentClass, () -> null));
+    }
+
+    static <T> MutableRecordComponentKey<T> create(String fieldName, String targetClassName, Class<T> componentClass, Supplier<T> defaultValueSupplier) {
+        return SpecializedKeys.specialize(new MutableRecordComponentKeyImpl<>(fieldName, targetClassName, componentClass, defaultValueSupplier));
+    }
+
+    static <T> MutableRecordComponentKey<T> create(String fieldName, String targetClassName, Class<T> componentClass, Supplier<T> defaultValueSupplier, ComponentOptions options) {
+        return SpecializedKeys.specialize(new MutableRecordComponentKeyImpl<>(fieldName, targetClassName, componentClass, defaultValueSupplier, options));
+    }
+}
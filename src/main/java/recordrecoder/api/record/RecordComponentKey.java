@@ -2,9 +2,12 @@ package recordrecoder.api.record;
 
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
+import recordrecoder.impl.record.DerivedRecordComponentKeyImpl;
 import recordrecoder.impl.record.RecordComponentKeyImpl;
+import recordrecoder.impl.record.SpecializedKeys;
 
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 @ApiStatus.NonExtendable
@@ -22,22 +25,38 @@ public interface RecordComponentKey<T> {
      */
     <I extends Record> T get(I instance) throws KeyMismatchException, IllegalStateException;
 
-    default <I extends Record> @Nullable T getOrNull(I instance) {
-        try {
-            return this.get(instance);
-        } catch (KeyMismatchException | NullPointerException e) {
-            return null;
-        }
-    }
+    /**
+     * Retrieves the component value from a record instance, without throwing if the key is not applicable.
+     *
+     * @param <I>      The record instance type
+     * @param instance The record instance from which to get the component value, may be null
+     * @return The component value, or null if the key is not applicable to the instance
+     */
+    <I extends Record> @Nullable T getOrNull(@Nullable I instance);
 
-    default <I extends Record> Optional<T> getOptional(I instance) {
-        try {
-            return Optional.ofNullable(this.get(instance));
-        } catch (KeyMismatchException | NullPointerException e) {
-            return Optional.empty();
-        }
+    /**
+     * Retrieves the component value from a record instance, without throwing if the key is not applicable.
+     *
+     * @param <I>          The record instance type
+     * @param instance     The record instance from which to get the component value, may be null
+     * @param defaultValue The value returned if the key is not applicable to the instance
+     * @return The component value, or the given default value if the key is not applicable to the instance
+     */
+    <I extends Record> T getOrDefault(@Nullable I instance, T defaultValue);
+
+    default <I extends Record> Optional<T> getOptional(@Nullable I instance) {
+        return Optional.ofNullable(this.getOrNull(instance));
     }
 
+    /**
+     * Checks whether this key can be read from an instance.
+     * The answer is cached per concrete class, so probing records of many types is cheap.
+     *
+     * @param instance The record instance to check, may be null
+     * @return Whether the key is implemented on the class of the instance
+     */
+    boolean isApplicable(@Nullable Record instance);
+
     /**
      * Queues a value to be assigned to this component during the next record instantiation.
      * The value is stored in a ThreadLocal to ensure thread safety.
@@ -47,28 +66,110 @@ public interface RecordComponentKey<T> {
      */
     void queueNext(T value);
 
+    /**
+     * Copies a record instance, replacing the value of this component and keeping every other value.
+     * The copy goes through the record's canonical constructor.
+     *
+     * @param <R>      The record instance type
+     * @param instance The record instance to copy
+     * @param value    The value of this component on the copy
+     * @return The copy
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     */
+    <R extends Record> R with(R instance, T value) throws KeyMismatchException, IllegalStateException;
+
+    /**
+     * Copies a record instance, replacing the values of several components at once.
+     *
+     * @param <R>      The record instance type
+     * @param instance The record instance to copy
+     * @param bindings The values to replace, see {@link #bind(Object)}
+     * @return The copy, or the instance itself if there are no bindings
+     * @throws KeyMismatchException  If a key is not applicable to the provided instance type
+     * @throws IllegalStateException If a getter has not been provided yet
+     */
+    static <R extends Record> R withAll(R instance, Binding<?>... bindings) throws KeyMismatchException, IllegalStateException {
+        return RecordComponentKeyImpl.withAll(instance, bindings);
+    }
+
+    /**
+     * Binds a value to this key, for use with {@link RecordFactory#create(Object[], Binding[])} and {@link #withAll(Record, Binding[])}.
+     *
+     * @param value The value to bind
+     * @return The binding
+     */
+    default Binding<T> bind(T value) {
+        return new Binding<>(this, value);
+    }
+
     static <T> RecordComponentKey<T> create(String fieldName, String targetClassName, String componentClassName) {
         return create(fieldName, targetClassName, componentClassName, () -> null);
     }
 
     static <T> RecordComponentKey<T> create(String fieldName, String className, String componentClassName, T defaultValue) {
-        return new RecordComponentKeyImpl<>(fieldName, className, componentClassName, () -> defaultValue);
+        return SpecializedKeys.specialize(new RecordComponentKeyImpl<>(fieldName, className, componentClassName, () -> defaultValue));
     }
 
     static <T> RecordComponentKey<T> create(String fieldName, String className, String componentClassName, Supplier<T> defaultValueSupplier) {
-        return new RecordComponentKeyImpl<>(fieldName, className, componentClassName, defaultValueSupplier::get);
+        return SpecializedKeys.specialize(new RecordComponentKeyImpl<>(fieldName, className, componentClassName, defaultValueSupplier::get));
+    }
+
+    static <T> RecordComponentKey<T> create(String fieldName, String className, String componentClassName, Supplier<T> defaultValueSupplier, ComponentOptions options) {
+        return SpecializedKeys.specialize(new RecordComponentKeyImpl<>(fieldName, className, componentClassName, defaultValueSupplier::get, options));
     }
 
     static <T> RecordComponentKey<T> create(String fieldName, String targetClassName, Class<T> componentClass) {
-        return new RecordComponentKeyImpl<>(fieldName, targetClassName, componentClass, () -> null);
+        return SpecializedKeys.specialize(new RecordComponentKeyImpl<>(fieldName, targetClassName, componentClass, () -> null));
     }
 
     static <T> RecordComponentKey<T> create(String fieldName, String targetClassName, Class<T> componentClass, T defaultValue) {
-        return new RecordComponentKeyImpl<>(fieldName, targetClassName, componentClass, () -> defaultValue);
+        return SpecializedKeys.specialize(new RecordComponentKeyImpl<>(fieldName, targetClassName, componentClass, () -> defaultValue));
     }
 
     static <T> RecordComponentKey<T> create(String fieldName, String targetClassName, Class<T> componentClass, Supplier<T> defaultValueSupplier) {
-        return new RecordComponentKeyImpl<>(fieldName, targetClassName, componentClass, defaultValueSupplier::get);
+        return SpecializedKeys.specialize(new RecordComponentKeyImpl<>(fieldName, targetClassName, componentClass, defaultValueSupplier::get));
+    }
+
+    static <T> RecordComponentKey<T> create(String fieldName, String targetClassName, Class<T> componentClass, Supplier<T> defaultValueSupplier, ComponentOptions options) {
+        return SpecializedKeys.specialize(new RecordComponentKeyImpl<>(fieldName, targetClassName, componentClass, defaultValueSupplier::get, options));
+    }
+
+    /**
+     * Creates a key whose value is computed from the vanilla components of its record when the record is
+     * constructed, so reading it is a single field read. The value cannot be queued or replaced, copies compute it
+     * from their own components.
+     * <p>
+     * A lambda taking the record type loads the record class when it is created, so code creating keys before the
+     * record may be loaded should take {@link Record} and cast it in the body.
+     *
+     * @param <R>             The type of the target record
+     * @param <T>             The type of the component
+     * @param fieldName       The name of the component
+     * @param targetClassName The internal name of the target record class
+     * @param componentClass  The type of the component, boxed for primitive values
+     * @param function        Computes the value, reading only the vanilla components of the record
+     * @return The key
+     */
+    static <R extends Record, T> RecordComponentKey<T> derived(String fieldName, String targetClassName, Class<T> componentClass, Function<? super R, ? extends T> function) {
+        return SpecializedKeys.specialize(new DerivedRecordComponentKeyImpl<>(fieldName, targetClassName, componentClass, function, ComponentOptions.DEFAULT));
+    }
+
+    /**
+     * Creates a key whose value is computed from the vanilla components of its record, when the record is
+     * constructed, or on the first read with {@link ComponentOptions#withLazyDefault()}.
+     *
+     * @param <R>             The type of the target record
+     * @param <T>             The type of the component
+     * @param fieldName       The name of the component
+     * @param targetClassName The internal name of the target record class
+     * @param componentClass  The type of the component, boxed for primitive values
+     * @param function        Computes the value, reading only the vanilla components of the record
+     * @param options         How the component takes part in the object methods of the record, and when it is computed
+     * @return The key
+     */
+    static <R extends Record, T> RecordComponentKey<T> derived(String fieldName, String targetClassName, Class<T> componentClass, Function<? super R, ? extends T> function, ComponentOptions options) {
+        return SpecializedKeys.specialize(new DerivedRecordComponentKeyImpl<>(fieldName, targetClassName, componentClass, function, options));
     }
 
     static <T, V extends Record> T get(RecordComponentKey<T> key, V instance) throws KeyMismatchException {
@@ -76,19 +177,14 @@ public interface RecordComponentKey<T> {
     }
 
     static <T, V extends Record> @Nullable T getOrNull(RecordComponentKey<T> key, V instance) {
-        try {
-            return key.get(instance);
-        } catch (KeyMismatchException e) {
-            return null;
-        }
+        return key.getOrNull(instance);
     }
 
     static <T, V extends Record> Optional<T> getOptional(RecordComponentKey<T> key, V instance) {
-        try {
-            return Optional.ofNullable(key.get(instance));
-        } catch (KeyMismatchException e) {
-            return Optional.empty();
-        }
+        return key.getOptional(instance);
+    }
+
+    record Binding<T>(RecordComponentKey<T> key, T value) {
     }
 
     final class KeyMismatchException extends Exception {
@@ -0,0 +1,88 @@
+package recordrecoder.api.record;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.List;
+
+/**
+ * A reusable factory constructing a transformed record together with its extended component values.
+ * <p>
+ * Factories are obtained from {@link ComponentKeyRegistry#factoryFor(Class)} and construct records through the
+ * extended canonical constructor, so every value is passed directly, nothing is queued on the calling thread and values
+ * already queued there are left for the next construction.
+ * Records whose extended constructor would exceed the JVM's parameter limit are constructed through the vanilla
+ * constructor instead, with the values handed over on the calling thread within the same call.
+ * <p>
+ * Keys with a {@link ComponentOptions#lazyDefault() lazy default} that are given no value, or null, create their
+ * default value on the first read instead of during construction.
+ *
+ * @param <R> The record type this factory constructs
+ */
+@ApiStatus.NonExtendable
+@SuppressWarnings("unused")
+public interface RecordFactory<R extends Record> {
+    /**
+     * @return The record class this factory constructs
+     */
+    Class<R> recordClass();
+
+    /**
+     * Gets the keys of the record, in the order their values are expected by
+     * {@link #create(Object[], Object[])} and {@link #createAll(int, Object[][], Object[][])}.
+     *
+     * @return The keys attached to the record
+     */
+    List<? extends RecordComponentKey<?>> keys();
+
+    /**
+     * @return The number of vanilla components of the record
+     */
+    int vanillaArity();
+
+    /**
+     * Constructs a record, giving every key its default value.
+     *
+     * @param vanillaArguments The vanilla components, in declaration order
+     * @return The constructed record
+     * @throws IllegalArgumentException If the number of vanilla components does not match, or a component is given a
+     *                                  value of the wrong type or null for a primitive type
+     */
+    R create(Object... vanillaArguments);
+
+    /**
+     * Constructs a record from positional values.
+     *
+     * @param vanillaArguments The vanilla components, in declaration order
+     * @param extendedValues   One value per key, in the order of {@link #keys()}
+     * @return The constructed record
+     * @throws IllegalArgumentException If the number of vanilla components or extended values does not match, or a
+     *                                  value has the wrong type or is null for a primitive type
+     */
+    R create(Object[] vanillaArguments, Object[] extendedValues);
+
+    /**
+     * Constructs a record from key to value bindings. Keys without a binding get their default value.
+     *
+     * @param vanillaArguments The vanilla components, in declaration order
+     * @param bindings         The values to assign, see {@link RecordComponentKey#bind(Object)}
+     * @return The constructed record
+     * @throws IllegalArgumentException If the number of vanilla components does not match,
+     *                                  a binding's key is not attached to the record, or a value has the wrong type
+     *                                  or is null for a primitive type
+     */
+    R create(Object[] vanillaArguments, RecordComponentKey.Binding<?>... bindings);
+
+    /**
+     * Constructs {@code count} records from columnar inputs.
+     *
+     * @param count          The number of records to construct
+     * @param vanillaColumns One column per vanilla component, each holding at least {@code count} values
+     * @param extendedColumns One column per key in the order of {@link #keys()}, each holding at least
+     *                       {@code count} values; a {@code null} column gives that key its default value
+     * @return The constructed records, in row order
+     * @throws IllegalArgumentException If {@code count} is negative, the number of columns does not match, a column
+     *                                  holds fewer than {@code count} values, or a value has the wrong type or is null
+     *                                  for a primitive type
+     */
+    List<R> createAll(int count, Object[][] vanillaColumns, Object[][] extendedColumns);
+}
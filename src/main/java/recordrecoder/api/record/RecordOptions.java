@@ -0,0 +1,84 @@
+package recordrecoder.api.record;
+
+/**
+ * Options controlling how a record class is transformed, set through {@link ComponentKeyRegistry#configure}.
+ * Options only apply to records that have keys.
+ *
+ * @param directObjectMethods Whether {@code equals}, {@code hashCode} and {@code toString} are generated as
+ *                            straight-line bytecode over all components, instead of extending the
+ *                            {@code ObjectMethods} bootstrap javac links them through
+ * @param cachedHashCode      Whether the hash code is stored in a synthetic field once computed, which implies
+ *                            direct object methods. Only safe for records whose components never change their hash,
+ *                            so freezing the registry fails if a mutable key is included in the equality of the record
+ * @param packedStorage       Whether the values of all keys are stored behind a single field instead of one field per
+ *                            key. Instances holding only default values share one empty value set, others hold the
+ *                            values that differ from the default, boxed. Default values are created once per key and
+ *                            shared by all instances, so keys with mutable defaults should not be packed. Records
+ *                            with more than 64 keys always use one field per key
+ * @param bitfieldBits        The widest enum key, in bits, whose values are stored in a bitfield shared by all flag and
+ *                            small enum keys of the record, or 0 to give every key its own field. Boolean keys take one
+ *                            bit, enum keys as many as their largest ordinal needs. Keys are assigned in slot order
+ *                            while they fit into 64 bits, the rest keep their own fields. Ignored with packed storage
+ */
+@SuppressWarnings("unused")
+public record RecordOptions(boolean directObjectMethods, boolean cachedHashCode, boolean packedStorage, int bitfieldBits) {
+    public static final RecordOptions DEFAULT = new RecordOptions(false, false, false, 0);
+    /**
+     * The widest enum key stored in the bitfield by {@link #withBitfields()}, enough for enums of up to 256 constants.
+     */
+    public static final int DEFAULT_BITFIELD_BITS = 8;
+
+    public RecordOptions {
+        directObjectMethods |= cachedHashCode;
+        if (bitfieldBits < 0 || bitfieldBits > Integer.SIZE)
+            throw new IllegalArgumentException("Bitfield width " + bitfieldBits + " is not between 0 and " + Integer.SIZE);
+    }
+
+    public RecordOptions(boolean directObjectMethods, boolean cachedHashCode, boolean packedStorage) {
+        this(directObjectMethods, cachedHashCode, packedStorage, 0);
+    }
+
+    public RecordOptions(boolean directObjectMethods, boolean cachedHashCode) {
+        this(directObjectMethods, cachedHashCode, false);
+    }
+
+    /**
+     * @return These options with direct object methods enabled
+     */
+    public RecordOptions withDirectObjectMethods() {
+        return new RecordOptions(true, cachedHashCode, packedStorage, bitfieldBits);
+    }
+
+    /**
+     * @return These options with the cached hash code, and therefore direct object methods, enabled
+     */
+    public RecordOptions withCachedHashCode() {
+        return new RecordOptions(true, true, packedStorage, bitfieldBits);
+    }
+
+    /**
+     * @return These options with the values of all keys packed behind a single field
+     */
+    public RecordOptions withPackedStorage() {
+        return new RecordOptions(directObjectMethods, cachedHashCode, true, bitfieldBits);
+    }
+
+    /**
+     * @return These options with boolean keys and enum keys of up to {@value #DEFAULT_BITFIELD_BITS} bits stored in
+     * a shared bitfield
+     */
+    public RecordOptions withBitfields() {
+        return withBitfields(DEFAULT_BITFIELD_BITS);
+    }
+
+    /**
+     * @param maxEnumBits The widest enum key stored in the bitfield, at most 32 bits
+     * @return These options with boolean keys and enum keys of up to the given width stored in a shared bitfield
+     * @throws IllegalArgumentException If the width is not between 1 and 32
+     */
+    public RecordOptions withBitfields(int maxEnumBits) {
+        if (maxEnumBits < 1)
+            throw new IllegalArgumentException("Bitfield width " + maxEnumBits + " must be at least 1");
+        return new RecordOptions(directObjectMethods, cachedHashCode, packedStorage, maxEnumBits);
+    }
+}
@@ -0,0 +1,45 @@
+package recordrecoder.api.record;
+
+import recordrecoder.impl.asm.RecordClassTransformer;
+import recordrecoder.impl.asm.TransformCache;
+import recordrecoder.impl.record.KeySnapshotImpl;
+
+import java.nio.file.Path;
+
+/**
+ * Transforms class bytes outside of Mixin, for unit tests, benchmarks and offline tooling.
+ * <p>
+ * The transformed class binds its keys through {@link ComponentKeyRegistry#INSTANCE} when it initializes,
+ * so the snapshot should be the one the registry was frozen into.
+ */
+@SuppressWarnings("unused")
+public final class RecordTransformer {
+    private RecordTransformer() {
+    }
+
+    /**
+     * Transforms the bytes of a class, implementing the keys targeting it.
+     * Classes that are not records or have no keys are rejected without building a class tree.
+     *
+     * @param classBytes The bytes of the class
+     * @param keys       The keys to implement, see {@link ComponentKeyRegistry#freeze()}
+     * @return The bytes of the transformed class, or the given array itself if the class was not transformed
+     */
+    public static byte[] transform(byte[] classBytes, KeySnapshot keys) {
+        return RecordClassTransformer.transform(classBytes, (KeySnapshotImpl) keys);
+    }
+
+    /**
+     * Transforms the bytes of a class, reusing the output of an earlier run from a cache directory
+     * when the class, its keys and the library are unchanged. Entries of other versions of the library are deleted
+     * from the directory.
+     *
+     * @param classBytes     The bytes of the class
+     * @param keys           The keys to implement, see {@link ComponentKeyRegistry#freeze()}
+     * @param cacheDirectory The directory transformed classes are cached in
+     * @return The bytes of the transformed class, or the given array itself if the class was not transformed
+     */
+    public static byte[] transform(byte[] classBytes, KeySnapshot keys, Path cacheDirectory) {
+        return RecordClassTransformer.transform(classBytes, (KeySnapshotImpl) keys, new TransformCache(cacheDirectory));
+    }
+}
@@ -2,23 +2,38 @@ package recordrecoder.impl;
 
 import net.fabricmc.loader.api.FabricLoader;
 import net.fabricmc.loader.api.entrypoint.EntrypointContainer;
-import org.spongepowered.asm.logging.ILogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.spongepowered.asm.mixin.MixinEnvironment;
 import org.spongepowered.asm.mixin.transformer.IMixinTransformer;
 import org.spongepowered.asm.mixin.transformer.ext.Extensions;
-import org.spongepowered.asm.service.MixinService;
+import recordrecoder.api.record.ComponentKeyRegistry;
+import recordrecoder.impl.asm.PrepatchManifest;
 import recordrecoder.impl.asm.RecordClassTransformer;
+import recordrecoder.impl.asm.TransformCache;
+import recordrecoder.impl.jfr.RecordRecoderEvents;
+import recordrecoder.impl.record.ComponentKeyRegistryImpl;
+import recordrecoder.impl.record.DeclaredKeyLoader;
+import recordrecoder.impl.record.KeySnapshotImpl;
 import recordrecoder.impl.utils.Constants;
 import recordrecoder.impl.utils.mixindefaults.IDefaultedMixinConfigPlugin;
 
 public class RecordRecoder implements IDefaultedMixinConfigPlugin {
-    public static final ILogger LOGGER = MixinService.getService().getLogger("recordrecoder-impl");
+    /**
+     * Not taken from the Mixin service, so the logger also works when records are transformed ahead of time.
+     */
+    public static final Logger LOGGER = LoggerFactory.getLogger("recordrecoder-impl");
 
     @Override
     public void onLoad(String mixinPackage) {
         LOGGER.info("Preparing to recode your records!");
-        // first, register all keys
-        FabricLoader.getInstance()
+        RecordRecoderEvents.register();
+        // first, register all keys, starting with the ones declared in mod metadata, which loads no mod classes
+        FabricLoader loader = FabricLoader.getInstance();
+        int declared = new DeclaredKeyLoader(loader.getMappingResolver())
+                .registerAll(loader.getAllMods(), (ComponentKeyRegistryImpl) ComponentKeyRegistry.INSTANCE);
+        LOGGER.info("Registered {} declared record component keys", declared);
+        loader
                 .getEntrypointContainers(
                         Constants.ENTRYPOINT_KEY,
                         Runnable.class
@@ -26,11 +41,21 @@ public class RecordRecoder implements IDefaultedMixinConfigPlugin {
                 .stream()
                 .map(EntrypointContainer::getEntrypoint)
                 .forEach(Runnable::run);
+        // no keys can be added once classes may be transformed
+        KeySnapshotImpl snapshot = (KeySnapshotImpl) ComponentKeyRegistry.INSTANCE.freeze();
+        // classes transformed at build time don't need the transformer
+        PrepatchManifest prepatched = PrepatchManifest.load(RecordRecoder.class.getClassLoader());
+        if (prepatched.coversAll(snapshot)) {
+            LOGGER.info("All {} keyed record classes were transformed ahead of time, not registering the transformer", prepatched.size());
+            return;
+        }
         // then, register the transformer
         MixinEnvironment environment = MixinEnvironment.getCurrentEnvironment();
         IMixinTransformer transformer = (IMixinTransformer) environment.getActiveTransformer();
         Extensions extensions = (Extensions) transformer.getExtensions();
-        extensions.add(new RecordClassTransformer());
+        // transformed records are cached across launches, keyed by their original bytes, keys and the library build
+        TransformCache cache = new TransformCache(loader.getGameDir().resolve(".recordrecoder/cache"));
+        extensions.add(new RecordClassTransformer(cache, prepatched));
 
         LOGGER.info("Patented record recoding system (PRRS) initialized!");
     }
@@ -0,0 +1,163 @@
+package recordrecoder.impl.asm;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.ConstantDynamic;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import recordrecoder.impl.utils.Constants;
+
+import java.lang.constant.ConstantDescs;
+
+/**
+ * Generates the hidden {@link recordrecoder.impl.record.ComponentAccessor} subclasses keys are bound to, each extending
+ * the shape matching the type of its field.
+ * Besides the field read, or the getter call for components without a field of their own, each accessor forwards copies to the copy method generated on its record.
+ * Specialized keys link their accessor into their own call site as a constant, see
+ * {@link recordrecoder.impl.record.SpecializedKeys}.
+ */
+public class AccessorGenerator {
+    private static final String ACCESSOR_SUFFIX = "$RecordRecoderAccessor";
+
+    /**
+     * Generates an accessor reading one component field of a record.
+     * The result must be defined as a hidden nestmate of the record class, as the field is private.
+     *
+     * @param recordClassName The internal name of the record class owning the field
+     * @param fieldName       The name of the generated component field
+     * @param fieldType       The type of the generated component field
+     * @param slot            The position of the key among the extended components of the record
+     * @param keyCount        The number of keys of the record
+     * @param throughGetter   Whether the component has no field of its own, so the value is read through its getter
+     * @param mutable         Whether the accessor returns the {@link java.lang.invoke.VarHandle} it is defined with as
+     *                        class data
+     * @return The bytes of the accessor class
+     */
+    public static byte[] generate(String recordClassName, String fieldName, Type fieldType, int slot, int keyCount, boolean throughGetter, boolean mutable) {
+        String superName = accessorShape(fieldType).getInternalName();
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(
+                Opcodes.V21,
+                Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER | Opcodes.ACC_SYNTHETIC,
+                recordClassName + ACCESSOR_SUFFIX,
+                null,
+                superName,
+                mutable ? new String[]{Constants.COMPONENT_ACCESSOR_MUTABLE.getInternalName()} : null
+        );
+
+        MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitLdcInsn(Type.getObjectType(recordClassName));
+        constructor.visitLdcInsn(slot);
+        constructor.visitLdcInsn(keyCount);
+        constructor.visitMethodInsn(
+                Opcodes.INVOKESPECIAL,
+                superName,
+                "<init>",
+                Type.getMethodDescriptor(Type.VOID_TYPE, Constants.CLASS, Type.INT_TYPE, Type.INT_TYPE),
+                false
+        );
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        Type returnType = accessorReturnType(fieldType);
+        MethodVisitor getter = writer.visitMethod(
+                Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL,
+                accessorName(fieldType),
+                Type.getMethodDescriptor(returnType, Constants.OBJECT),
+                null,
+                null
+        );
+        getter.visitCode();
+        getter.visitVarInsn(Opcodes.ALOAD, 1);
+        getter.visitTypeInsn(Opcodes.CHECKCAST, recordClassName);
+        if (throughGetter) {
+            getter.visitMethodInsn(Opcodes.INVOKEVIRTUAL, recordClassName, fieldName, Type.getMethodDescriptor(fieldType), false);
+        } else {
+            getter.visitFieldInsn(Opcodes.GETFIELD, recordClassName, fieldName, fieldType.getDescriptor());
+        }
+        getter.visitInsn(returnType.getOpcode(Opcodes.IRETURN));
+        getter.visitMaxs(0, 0);
+        getter.visitEnd();
+
+        MethodVisitor copy = writer.visitMethod(
+                Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL,
+                "copy",
+                Type.getMethodDescriptor(Constants.RECORD, Constants.OBJECT, Type.getType(Object[].class)),
+                null,
+                null
+        );
+        copy.visitCode();
+        copy.visitVarInsn(Opcodes.ALOAD, 1);
+        copy.visitTypeInsn(Opcodes.CHECKCAST, recordClassName);
+        copy.visitVarInsn(Opcodes.ALOAD, 2);
+        copy.visitMethodInsn(
+                Opcodes.INVOKESTATIC,
+                recordClassName,
+                CopyMethodGenerator.COPY_METHOD_NAME,
+                CopyMethodGenerator.copyDescriptor(recordClassName),
+                false
+        );
+        copy.visitInsn(Opcodes.ARETURN);
+        copy.visitMaxs(0, 0);
+        copy.visitEnd();
+
+        if (mutable) {
+            MethodVisitor handle = writer.visitMethod(
+                    Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL,
+                    "handle",
+                    Type.getMethodDescriptor(Constants.VAR_HANDLE),
+                    null,
+                    null
+            );
+            handle.visitCode();
+            // a dynamic constant, so the handle folds into the callers of the accessor
+            handle.visitLdcInsn(new ConstantDynamic(
+                    ConstantDescs.DEFAULT_NAME,
+                    Constants.VAR_HANDLE.getDescriptor(),
+                    new Handle(
+                            Opcodes.H_INVOKESTATIC,
+                            Constants.METHOD_HANDLES$CLASS_DATA.getOwnerInternalName(),
+                            Constants.METHOD_HANDLES$CLASS_DATA.name(),
+                            Constants.METHOD_HANDLES$CLASS_DATA.descriptor().getDescriptor(),
+                            false
+                    )
+            ));
+            handle.visitInsn(Opcodes.ARETURN);
+            handle.visitMaxs(0, 0);
+            handle.visitEnd();
+        }
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static Type accessorShape(Type fieldType) {
+        return switch (fieldType.getSort()) {
+            case Type.INT -> Constants.COMPONENT_ACCESSOR_OF_INT;
+            case Type.LONG -> Constants.COMPONENT_ACCESSOR_OF_LONG;
+            case Type.DOUBLE -> Constants.COMPONENT_ACCESSOR_OF_DOUBLE;
+            case Type.BOOLEAN -> Constants.COMPONENT_ACCESSOR_OF_BOOLEAN;
+            case Type.OBJECT, Type.ARRAY -> Constants.COMPONENT_ACCESSOR_OF_OBJECT;
+            default -> throw new IllegalArgumentException("Unsupported component field type " + fieldType);
+        };
+    }
+
+    private static String accessorName(Type fieldType) {
+        return switch (fieldType.getSort()) {
+            case Type.INT -> "getInt";
+            case Type.LONG -> "getLong";
+            case Type.DOUBLE -> "getDouble";
+            case Type.BOOLEAN -> "getBoolean";
+            case Type.OBJECT, Type.ARRAY -> "get";
+            default -> throw new IllegalArgumentException("Unsupported component field type " + fieldType);
+        };
+    }
+
+    private static Type accessorReturnType(Type fieldType) {
+        return fieldType.getSort() == Type.OBJECT || fieldType.getSort() == Type.ARRAY ? Constants.OBJECT : fieldType;
+    }
+}
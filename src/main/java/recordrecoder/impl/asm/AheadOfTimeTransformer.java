@@ -0,0 +1,234 @@
+package recordrecoder.impl.asm;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.fabricmc.loader.api.MappingResolver;
+import org.jetbrains.annotations.Nullable;
+import recordrecoder.api.record.ComponentKeyRegistry;
+import recordrecoder.impl.RecordRecoder;
+import recordrecoder.impl.record.ComponentKeyRegistryImpl;
+import recordrecoder.impl.record.DeclaredKeyLoader;
+import recordrecoder.impl.record.KeySnapshotImpl;
+import recordrecoder.impl.utils.Constants;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+
+/**
+ * Transforms the record classes of a jar at build time, so the game can load them without runtime rewriting.
+ * <p>
+ * Keys are registered the same way as in game, first the keys declared in {@code recordrecoder:keys} blocks, then the
+ * {@code recordrecoder:register} entrypoints, both read from the {@code fabric.mod.json} of the input jar and of the
+ * given mods. As {@code FabricLoader} is not running, registrations get their class names mapped by
+ * {@link ComponentKeyRegistry#getMappingResolver()}, which reads tiny mappings here. The output jar holds a
+ * {@link PrepatchManifest} listing the transformed classes, which {@link RecordRecoder} reads to skip transforming
+ * them again, and to not register the transformer at all when every keyed class is covered.
+ * <p>
+ * Usage: {@code AheadOfTimeTransformer <input jar> <output jar> [--namespace=<namespace>] [--mappings=<file>]
+ * [mod jar or directory...]}. The namespace is the one the input jar is named in, {@code intermediary} by default as
+ * in production. Mappings are a tiny file or a jar holding {@code mappings/mappings.tiny}, by default the one on the
+ * classpath, where the loader looks for them as well.
+ */
+public final class AheadOfTimeTransformer {
+    private static final String USAGE = "Usage: AheadOfTimeTransformer <input jar> <output jar> [--namespace=<namespace>] [--mappings=<file>] [mod jar or directory...]";
+    private static final String DEFAULT_NAMESPACE = "intermediary";
+    private static final String MAPPINGS_LOCATION = "mappings/mappings.tiny";
+    private static final String MOD_METADATA_LOCATION = "fabric.mod.json";
+
+    private AheadOfTimeTransformer() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String namespace = DEFAULT_NAMESPACE;
+        String mappings = null;
+        List<Path> paths = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--namespace="))
+                namespace = arg.substring("--namespace=".length());
+            else if (arg.startsWith("--mappings="))
+                mappings = arg.substring("--mappings=".length());
+            else
+                paths.add(Path.of(arg));
+        }
+        if (paths.size() < 2)
+            throw new IllegalArgumentException(USAGE);
+        List<Path> mods = new ArrayList<>(paths);
+        // the output jar is not a mod
+        mods.remove(1);
+        KeySnapshotImpl snapshot = registerKeys(mods, loadMappings(mappings, namespace));
+        PrepatchManifest manifest = transformJar(paths.get(0), paths.get(1), snapshot);
+        RecordRecoder.LOGGER.info("Transformed {} of {} keyed record classes ahead of time",
+                manifest.size(), snapshot.getTargetClasses().size());
+    }
+
+    /**
+     * Registers the keys of a set of mods the way {@link RecordRecoder} does in game, and freezes the registry.
+     *
+     * @param mods            Jars or directories holding a {@code fabric.mod.json}, others are skipped
+     * @param mappingResolver The resolver registrations map their class names with
+     * @return The snapshot of the registered keys
+     * @throws IOException              If a {@code fabric.mod.json} can't be read
+     * @throws IllegalArgumentException If a declaration or entrypoint is malformed
+     */
+    public static KeySnapshotImpl registerKeys(List<Path> mods, MappingResolver mappingResolver) throws IOException {
+        ComponentKeyRegistryImpl registry = (ComponentKeyRegistryImpl) ComponentKeyRegistry.INSTANCE;
+        registry.setMappingResolver(mappingResolver);
+        List<JsonObject> metadata = new ArrayList<>();
+        for (Path mod : mods) {
+            JsonObject modMetadata = readModMetadata(mod);
+            if (modMetadata != null)
+                metadata.add(modMetadata);
+        }
+
+        DeclaredKeyLoader declaredKeyLoader = new DeclaredKeyLoader(mappingResolver);
+        int declared = 0;
+        for (JsonObject modMetadata : metadata) {
+            JsonObject custom = modMetadata.getAsJsonObject("custom");
+            if (custom != null && custom.has(Constants.KEYS_CUSTOM_VALUE))
+                declared += declaredKeyLoader.register(modMetadata.get("id").getAsString(), JsonCustomValue.of(custom.get(Constants.KEYS_CUSTOM_VALUE)), registry);
+        }
+        RecordRecoder.LOGGER.info("Registered {} declared record component keys", declared);
+        for (JsonObject modMetadata : metadata) {
+            JsonObject entrypoints = modMetadata.getAsJsonObject("entrypoints");
+            if (entrypoints == null || !entrypoints.has(Constants.ENTRYPOINT_KEY))
+                continue;
+            for (JsonElement entrypoint : entrypoints.getAsJsonArray(Constants.ENTRYPOINT_KEY)) {
+                runEntrypoint(modMetadata.get("id").getAsString(), entrypoint);
+            }
+        }
+        return registry.freeze();
+    }
+
+    private static void runEntrypoint(String modId, JsonElement entrypoint) {
+        String value;
+        if (entrypoint.isJsonObject()) {
+            JsonElement adapter = entrypoint.getAsJsonObject().get("adapter");
+            if (adapter != null && !adapter.getAsString().equals("default"))
+                throw new IllegalArgumentException("Mod " + modId + " declares a " + Constants.ENTRYPOINT_KEY + " entrypoint with the language adapter " + adapter.getAsString() + ", which can't be run ahead of time");
+            value = entrypoint.getAsJsonObject().get("value").getAsString();
+        } else {
+            value = entrypoint.getAsString();
+        }
+        if (value.contains("::"))
+            throw new IllegalArgumentException("Mod " + modId + " declares the " + Constants.ENTRYPOINT_KEY + " entrypoint " + value + " as a member, only classes can be run ahead of time");
+        try {
+            ((Runnable) Class.forName(value).getConstructor().newInstance()).run();
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to run the " + Constants.ENTRYPOINT_KEY + " entrypoint " + value + " of mod " + modId, e);
+        }
+    }
+
+    private static @Nullable JsonObject readModMetadata(Path mod) throws IOException {
+        if (Files.isDirectory(mod)) {
+            Path metadata = mod.resolve(MOD_METADATA_LOCATION);
+            if (!Files.exists(metadata))
+                return null;
+            try (BufferedReader reader = Files.newBufferedReader(metadata)) {
+                return JsonParser.parseReader(reader).getAsJsonObject();
+            }
+        }
+        try (JarFile jar = new JarFile(mod.toFile())) {
+            JarEntry metadata = jar.getJarEntry(MOD_METADATA_LOCATION);
+            if (metadata == null)
+                return null;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(jar.getInputStream(metadata), StandardCharsets.UTF_8))) {
+                return JsonParser.parseReader(reader).getAsJsonObject();
+            }
+        }
+    }
+
+    /**
+     * Loads the mappings registrations name their target classes with.
+     *
+     * @param location  A tiny file or a jar holding one, or null for the mappings on the classpath
+     * @param namespace The namespace of the transformed jar
+     * @return The resolver, mapping nothing if no mappings were found
+     * @throws IOException If the mappings can't be read
+     */
+    public static MappingResolver loadMappings(@Nullable String location, String namespace) throws IOException {
+        if (location == null) {
+            InputStream resource = AheadOfTimeTransformer.class.getClassLoader().getResourceAsStream(MAPPINGS_LOCATION);
+            if (resource == null) {
+                RecordRecoder.LOGGER.warn("No mappings on the classpath, class names are only accepted in the {} namespace", namespace);
+                return TinyMappingResolver.identity(namespace);
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource, StandardCharsets.UTF_8))) {
+                return TinyMappingResolver.read(reader, namespace);
+            }
+        }
+        Path path = Path.of(location);
+        if (!location.endsWith(".jar")) {
+            try (BufferedReader reader = Files.newBufferedReader(path)) {
+                return TinyMappingResolver.read(reader, namespace);
+            }
+        }
+        try (JarFile jar = new JarFile(path.toFile())) {
+            JarEntry entry = jar.getJarEntry(MAPPINGS_LOCATION);
+            if (entry == null)
+                throw new IllegalArgumentException(location + " holds no " + MAPPINGS_LOCATION);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(jar.getInputStream(entry), StandardCharsets.UTF_8))) {
+                return TinyMappingResolver.read(reader, namespace);
+            }
+        }
+    }
+
+    /**
+     * Copies a jar, transforming every record class targeted by keys.
+     *
+     * @param input    The jar to transform
+     * @param output   The jar to write
+     * @param snapshot The keys to implement
+     * @return The manifest of the transformed classes, which is also written to the output jar
+     * @throws IOException              If the jars can't be read or written
+     * @throws IllegalArgumentException If the input jar was already transformed ahead of time
+     */
+    public static PrepatchManifest transformJar(Path input, Path output, KeySnapshotImpl snapshot) throws IOException {
+        PrepatchManifest manifest = PrepatchManifest.create();
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null)
+            Files.createDirectories(parent);
+        try (JarFile jar = new JarFile(input.toFile());
+             OutputStream file = Files.newOutputStream(output);
+             JarOutputStream out = new JarOutputStream(file)) {
+            Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                if (entry.getName().equals(PrepatchManifest.LOCATION))
+                    throw new IllegalArgumentException(input + " was already transformed ahead of time, transform the original jar instead");
+                byte[] bytes;
+                try (InputStream in = jar.getInputStream(entry)) {
+                    bytes = in.readAllBytes();
+                }
+                if (entry.getName().endsWith(".class")) {
+                    byte[] transformed = RecordClassTransformer.transform(bytes, snapshot);
+                    if (transformed != bytes) {
+                        manifest.add(entry.getName().substring(0, entry.getName().length() - ".class".length()), snapshot);
+                        bytes = transformed;
+                    }
+                }
+                JarEntry copy = new JarEntry(entry.getName());
+                copy.setTime(entry.getTime());
+                out.putNextEntry(copy);
+                out.write(bytes);
+                out.closeEntry();
+            }
+            out.putNextEntry(new JarEntry(PrepatchManifest.LOCATION));
+            out.write(manifest.toBytes());
+            out.closeEntry();
+        }
+        return manifest;
+    }
+}
@@ -0,0 +1,134 @@
+package recordrecoder.impl.asm;
+
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.*;
+import recordrecoder.impl.asm.util.KeyedField;
+import recordrecoder.impl.utils.Constants;
+import recordrecoder.impl.utils.asmhelpers.OwnedMethod;
+
+import java.util.List;
+
+/**
+ * Generates the static copy method backing {@link recordrecoder.api.record.RecordComponentKey#with(Record, Object)}.
+ * <p>
+ * The copy method reads every field of the original instance directly, or the getters of components without a field, and passes them to the extended
+ * canonical constructor, replacing the extended values that were given. Values are picked through static
+ * helpers rather than branches, so the method needs no stack map frames of its own. Records without an
+ * extended constructor queue their extended values and call the original constructor instead.
+ */
+public class CopyMethodGenerator {
+    public static final String COPY_METHOD_NAME = "recordrecoder$copy";
+
+    /**
+     * Gets the descriptor of the copy method generated on a record.
+     *
+     * @param recordClassName The internal name of the record class
+     * @return The descriptor, taking the instance and the values array and returning the copy
+     */
+    public static String copyDescriptor(String recordClassName) {
+        Type recordType = Type.getObjectType(recordClassName);
+        return Type.getMethodDescriptor(recordType, recordType, Type.getType(Object[].class));
+    }
+
+    /**
+     * Generates the copy method of a record.
+     *
+     * @param recordClassName     The internal name of the record class
+     * @param vanillaComponents   The original components of the record
+     * @param canonicalConstructor The original canonical constructor
+     * @param extendedConstructor The extended canonical constructor, or null if the record has none
+     * @param keyedFields         The keys of the record, in the order of its extended components
+     * @return The copy method
+     */
+    public static MethodNode generate(
+            String recordClassName,
+            List<RecordComponentNode> vanillaComponents,
+            MethodNode canonicalConstructor,
+            @Nullable MethodNode extendedConstructor,
+            List<KeyedField> keyedFields) {
+
+        String descriptor = copyDescriptor(recordClassName);
+        MethodNode copy = new MethodNode(
+                Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_SYNTHETIC,
+                COPY_METHOD_NAME,
+                descriptor,
+                null,
+                null
+        );
+
+        InsnList instructions = copy.instructions;
+        int argumentSlots = Type.getArgumentsAndReturnSizes(canonicalConstructor.desc) >> 2;
+
+        if (extendedConstructor == null) {
+            // queue the extended values, the original constructor consumes them
+            for (int slot = 0; slot < keyedFields.size(); slot++) {
+                KeyedField keyedField = keyedFields.get(slot);
+                instructions.add(new FieldInsnNode(
+                        Opcodes.GETSTATIC,
+                        recordClassName,
+                        keyedField.keyFieldName(),
+                        keyedField.keyType().getDescriptor()
+                ));
+                addPickedValue(instructions, recordClassName, slot, keyedField);
+                instructions.add(keyedField.key().getQueueNextMethod().call());
+            }
+        }
+
+        instructions.add(new TypeInsnNode(Opcodes.NEW, recordClassName));
+        instructions.add(new InsnNode(Opcodes.DUP));
+        for (RecordComponentNode component : vanillaComponents) {
+            instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
+            instructions.add(new FieldInsnNode(Opcodes.GETFIELD, recordClassName, component.name, component.descriptor));
+        }
+
+        if (extendedConstructor != null) {
+            for (int slot = 0; slot < keyedFields.size(); slot++) {
+                KeyedField keyedField = keyedFields.get(slot);
+                addPickedValue(instructions, recordClassName, slot, keyedField);
+                if (keyedField.fieldType().getSort() == Type.OBJECT || keyedField.fieldType().getSort() == Type.ARRAY) {
+                    instructions.add(new TypeInsnNode(Opcodes.CHECKCAST, keyedField.fieldType().getInternalName()));
+                }
+            }
+            argumentSlots = Type.getArgumentsAndReturnSizes(extendedConstructor.desc) >> 2;
+        }
+
+        instructions.add(new MethodInsnNode(
+                Opcodes.INVOKESPECIAL,
+                recordClassName,
+                "<init>",
+                extendedConstructor != null ? extendedConstructor.desc : canonicalConstructor.desc,
+                false
+        ));
+        instructions.add(new InsnNode(Opcodes.ARETURN));
+
+        // the new instance twice, the arguments, and at most a picked value and a wide current value on top
+        copy.maxStack = argumentSlots + 1 + 3;
+        copy.maxLocals = 2;
+        return copy;
+    }
+
+    /**
+     * Pushes the value a copy assigns to one extended component: the given value, or the original one if unchanged.
+     */
+    private static void addPickedValue(InsnList instructions, String recordClassName, int slot, KeyedField keyedField) {
+        instructions.add(new VarInsnNode(Opcodes.ALOAD, 1));
+        instructions.add(new LdcInsnNode(slot));
+        instructions.add(new InsnNode(Opcodes.AALOAD));
+        instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
+        instructions.add(keyedField.load(recordClassName));
+        instructions.add(pickMethod(keyedField.fieldType()).call());
+    }
+
+    private static OwnedMethod pickMethod(Type fieldType) {
+        return switch (fieldType.getSort()) {
+            case Type.INT -> Constants.COMPONENT_ACCESSOR$PICK_INT;
+            case Type.LONG -> Constants.COMPONENT_ACCESSOR$PICK_LONG;
+            case Type.DOUBLE -> Constants.COMPONENT_ACCESSOR$PICK_DOUBLE;
+            case Type.BOOLEAN -> Constants.COMPONENT_ACCESSOR$PICK_BOOLEAN;
+            case Type.OBJECT, Type.ARRAY -> Constants.COMPONENT_ACCESSOR$PICK;
+            default -> throw new IllegalArgumentException("Unsupported component field type " + fieldType);
+        };
+    }
+}
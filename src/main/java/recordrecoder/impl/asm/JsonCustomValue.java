@@ -0,0 +1,152 @@
+package recordrecoder.impl.asm;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import net.fabricmc.loader.api.metadata.CustomValue;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Presents a parsed {@code fabric.mod.json} value as the {@link CustomValue} the loader would hand out, so
+ * {@link recordrecoder.impl.record.DeclaredKeyLoader} reads declarations the same way when records are transformed
+ * ahead of time.
+ */
+class JsonCustomValue implements CustomValue {
+    private final JsonElement element;
+
+    private JsonCustomValue(JsonElement element) {
+        this.element = element;
+    }
+
+    /**
+     * @param element The parsed value
+     * @return The value, implementing {@link CvObject} or {@link CvArray} for objects and arrays
+     */
+    static JsonCustomValue of(JsonElement element) {
+        if (element.isJsonObject())
+            return new OfObject(element.getAsJsonObject());
+        if (element.isJsonArray())
+            return new OfArray(element.getAsJsonArray());
+        return new JsonCustomValue(element);
+    }
+
+    @Override
+    public CvType getType() {
+        if (element.isJsonNull())
+            return CvType.NULL;
+        if (element.getAsJsonPrimitive().isBoolean())
+            return CvType.BOOLEAN;
+        return element.getAsJsonPrimitive().isNumber() ? CvType.NUMBER : CvType.STRING;
+    }
+
+    @Override
+    public CvObject getAsObject() {
+        throw new ClassCastException("Value is not an object");
+    }
+
+    @Override
+    public CvArray getAsArray() {
+        throw new ClassCastException("Value is not an array");
+    }
+
+    @Override
+    public String getAsString() {
+        if (getType() != CvType.STRING)
+            throw new ClassCastException("Value is not a string");
+        return element.getAsString();
+    }
+
+    @Override
+    public Number getAsNumber() {
+        if (getType() != CvType.NUMBER)
+            throw new ClassCastException("Value is not a number");
+        return element.getAsNumber();
+    }
+
+    @Override
+    public boolean getAsBoolean() {
+        if (getType() != CvType.BOOLEAN)
+            throw new ClassCastException("Value is not a boolean");
+        return element.getAsBoolean();
+    }
+
+    private static final class OfObject extends JsonCustomValue implements CvObject {
+        private final JsonObject object;
+
+        private OfObject(JsonObject object) {
+            super(object);
+            this.object = object;
+        }
+
+        @Override
+        public CvType getType() {
+            return CvType.OBJECT;
+        }
+
+        @Override
+        public CvObject getAsObject() {
+            return this;
+        }
+
+        @Override
+        public int size() {
+            return object.size();
+        }
+
+        @Override
+        public boolean containsKey(String key) {
+            return object.has(key);
+        }
+
+        @Override
+        public @Nullable CustomValue get(String key) {
+            JsonElement value = object.get(key);
+            return value != null ? of(value) : null;
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, CustomValue>> iterator() {
+            return object.entrySet().stream()
+                    .<Map.Entry<String, CustomValue>>map(entry -> new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), of(entry.getValue())))
+                    .iterator();
+        }
+    }
+
+    private static final class OfArray extends JsonCustomValue implements CvArray {
+        private final JsonArray array;
+
+        private OfArray(JsonArray array) {
+            super(array);
+            this.array = array;
+        }
+
+        @Override
+        public CvType getType() {
+            return CvType.ARRAY;
+        }
+
+        @Override
+        public CvArray getAsArray() {
+            return this;
+        }
+
+        @Override
+        public int size() {
+            return array.size();
+        }
+
+        @Override
+        public CustomValue get(int index) {
+            return of(array.get(index));
+        }
+
+        @Override
+        public Iterator<CustomValue> iterator() {
+            return array.asList().stream().<CustomValue>map(JsonCustomValue::of).iterator();
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package recordrecoder.impl.asm;
+
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.*;
+import recordrecoder.api.record.ComponentOptions;
+import recordrecoder.impl.asm.util.KeyedField;
+import recordrecoder.impl.utils.Constants;
+import recordrecoder.impl.utils.asmhelpers.BytecodeHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates straight-line {@code equals}, {@code hashCode} and {@code toString} bodies over every component of a
+ * transformed record, replacing the {@code ObjectMethods} bootstrap call sites javac emits.
+ * <p>
+ * The generated code behaves like the bootstrap: components are compared with {@code ==} for integral types,
+ * {@code Float.compare} and {@code Double.compare} for floating point types and {@code Objects.equals} otherwise,
+ * hashed as {@code 31 * h + hash(c)}, and printed as {@code Name[a=1, b=2]}. Branches only jump forward to
+ * frames that are emitted alongside them, so the methods need no frame computation.
+ * <p>
+ * Extended components follow the {@link ComponentOptions} of their key: they may be left out of {@code equals} and
+ * {@code hashCode} or {@code toString}, compared by reference, by array content through {@link java.util.Arrays},
+ * or by a custom equivalence called through the static field holding the key.
+ * <p>
+ * Only methods still implemented by the bootstrap are replaced, explicit implementations are left alone.
+ */
+public class ObjectMethodsGenerator {
+    public static final String HASH_FIELD_NAME = "recordrecoder$hash";
+
+    private record Component(String name, String fieldName, Type type, ComponentOptions options,
+                             @Nullable KeyedField keyedField) {
+    }
+
+    /**
+     * Replaces the bootstrap based object methods of a record.
+     *
+     * @param classNode         The record class, with its extended fields already added
+     * @param vanillaComponents The original components of the record
+     * @param keyedFields       The keys of the record, in the order of its extended components
+     * @param cachedHashCode    Whether to store the hash code in a synthetic field once computed
+     */
+    public static void generate(
+            ClassNode classNode,
+            List<RecordComponentNode> vanillaComponents,
+            List<KeyedField> keyedFields,
+            boolean cachedHashCode) {
+
+        List<Component> components = new ArrayList<>(vanillaComponents.size() + keyedFields.size());
+        for (RecordComponentNode component : vanillaComponents) {
+            components.add(new Component(component.name, component.name, Type.getType(component.descriptor),
+                    ComponentOptions.DEFAULT, null));
+        }
+        for (KeyedField keyedField : keyedFields) {
+            components.add(new Component(keyedField.key().getFieldName(), keyedField.fieldName(), keyedField.fieldType(),
+                    keyedField.key().getComponentOptions(), keyedField));
+        }
+        List<Component> compared = components.stream().filter(component -> component.options().includedInEquality()).toList();
+        List<Component> printed = components.stream().filter(component -> component.options().includedInToString()).toList();
+
+        for (MethodNode method : classNode.methods) {
+            if (!usesObjectMethods(method)) {
+                continue;
+            }
+            switch (method.name + method.desc) {
+                case "equals(Ljava/lang/Object;)Z" -> replaceBody(method, generateEquals(classNode.name, compared), 3, 4);
+                case "hashCode()I" -> {
+                    if (cachedHashCode) {
+                        classNode.fields.add(new FieldNode(
+                                Opcodes.ACC_PRIVATE | Opcodes.ACC_TRANSIENT | Opcodes.ACC_SYNTHETIC,
+                                HASH_FIELD_NAME,
+                                "I",
+                                null,
+                                null
+                        ));
+                    }
+                    replaceBody(method, generateHashCode(classNode.name, compared, cachedHashCode), 1, 5);
+                }
+                case "toString()Ljava/lang/String;" -> replaceBody(method, generateToString(classNode, printed), 1, 4);
+                default -> {
+                }
+            }
+        }
+    }
+
+    private static boolean usesObjectMethods(MethodNode method) {
+        for (AbstractInsnNode node : method.instructions) {
+            if (node instanceof InvokeDynamicInsnNode indy
+                    && indy.bsm.getOwner().equals("java/lang/runtime/ObjectMethods")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void replaceBody(MethodNode method, InsnList instructions, int maxLocals, int maxStack) {
+        method.instructions = instructions;
+        method.tryCatchBlocks = new ArrayList<>();
+        method.localVariables = null;
+        method.visibleLocalVariableAnnotations = null;
+        method.invisibleLocalVariableAnnotations = null;
+        method.maxLocals = maxLocals;
+        method.maxStack = maxStack;
+    }
+
+    private static InsnList generateEquals(String recordClassName, List<Component> components) {
+        InsnList instructions = new InsnList();
+        LabelNode notSame = new LabelNode();
+        LabelNode sameType = new LabelNode();
+        LabelNode notEqual = new LabelNode();
+
+        // this == o
+        instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
+        instructions.add(new VarInsnNode(Opcodes.ALOAD, 1));
+        instructions.add(new JumpInsnNode(Opcodes.IF_ACMPNE, notSame));
+        instructions.add(new InsnNode(Opcodes.ICONST_1));
+        instructions.add(new InsnNode(Opcodes.IRETURN));
+        instructions.add(notSame);
+        instructions.add(new FrameNode(Opcodes.F_SAME, 0, null, 0, null));
+
+        // records are final, so an instanceof check is an exact type check
+        instructions.add(new VarInsnNode(Opcodes.ALOAD, 1));
+        instructions.add(new TypeInsnNode(Opcodes.INSTANCEOF, recordClassName));
+        instructions.add(new JumpInsnNode(Opcodes.IFNE, sameType));
+        instructions.add(new InsnNode(Opcodes.ICONST_0));
+        instructions.add(new InsnNode(Opcodes.IRETURN));
+        instructions.add(sameType);
+        instructions.add(new FrameNode(Opcodes.F_SAME, 0, null, 0, null));
+        instructions.add(new VarInsnNode(Opcodes.ALOAD, 1));
+        instructions.add(new TypeInsnNode(Opcodes.CHECKCAST, recordClassName));
+        instructions.add(new VarInsnNode(Opcodes.ASTORE, 2));
+
+        for (Component component : components) {
+            if (component.options().equality() == ComponentOptions.Equality.CUSTOM) {
+                instructions.add(getKey(recordClassName, component));
+            }
+            instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
+            instructions.add(getField(recordClassName, component));
+            instructions.add(new VarInsnNode(Opcodes.ALOAD, 2));
+            instructions.add(getField(recordClassName, component));
+            switch (component.options().equality()) {
+                case IDENTITY -> {
+                    instructions.add(new JumpInsnNode(Opcodes.IF_ACMPNE, notEqual));
+                    continue;
+                }
+                case ARRAY_CONTENT -> {
+                    String array = arrayDescriptor(component.type());
+                    instructions.add(new MethodInsnNode(Opcodes.INVOKESTATIC, "java/util/Arrays",
+                            isDeep(array) ? "deepEquals" : "equals", "(" + array + array + ")Z", false));
+                    instructions.add(new JumpInsnNode(Opcodes.IFEQ, notEqual));
+                    continue;
+                }
+                case CUSTOM -> {
+                    instructions.add(Constants.RECORD_COMPONENT_KEY_IMPL$EQUIVALENT.call());
+                    instructions.add(new JumpInsnNode(Opcodes.IFEQ, notEqual));
+                    continue;
+                }
+                case VALUE -> {
+                }
+            }
+            switch (component.type().getSort()) {
+                case Type.BOOLEAN, Type.CHAR, Type.BYTE, Type.SHORT, Type.INT ->
+                        instructions.add(new JumpInsnNode(Opcodes.IF_ICMPNE, notEqual));
+                case Type.LONG -> {
+                    instructions.add(new InsnNode(Opcodes.LCMP));
+                    instructions.add(new JumpInsnNode(Opcodes.IFNE, notEqual));
+                }
+                case Type.FLOAT -> {
+                    instructions.add(new MethodInsnNode(Opcodes.INVOKESTATIC, "java/lang/Float", "compare", "(FF)I", false));
+                    instructions.add(new JumpInsnNode(Opcodes.IFNE, notEqual));
+                }
+                case Type.DOUBLE -> {
+                    instructions.add(new MethodInsnNode(Opcodes.INVOKESTATIC, "java/lang/Double", "compare", "(DD)I", false));
+                    instructions.add(new JumpInsnNode(Opcodes.IFNE, notEqual));
+                }
+                default -> {
+                    instructions.add(new MethodInsnNode(Opcodes.INVOKESTATIC, "java/util/Objects", "equals",
+                            "(Ljava/lang/Object;Ljava/lang/Object;)Z", false));
+                    instructions.add(new JumpInsnNode(Opcodes.IFEQ, notEqual));
+                }
+            }
+        }
+        instructions.add(new InsnNode(Opcodes.ICONST_1));
+        instructions.add(new InsnNode(Opcodes.IRETURN));
+
+        instructions.add(notEqual);
+        instructions.add(new FrameNode(Opcodes.F_APPEND, 1, new Object[]{recordClassName}, 0, null));
+        instructions.add(new InsnNode(Opcodes.ICONST_0));
+        instructions.add(new InsnNode(Opcodes.IRETURN));
+        return instructions;
+    }
+
+    private static InsnList generateHashCode(String recordClassName, List<Component> components, boolean cached) {
+        InsnList instructions = new InsnList();
+
+        if (cached) {
+            // zero means not computed yet, like String#hash a hash of zero is simply recomputed
+            LabelNode compute = new LabelNode();
+            instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
+            instructions.add(new FieldInsnNode(Opcodes.GETFIELD, recordClassName, HASH_FIELD_NAME, "I"));
+            instructions.add(new InsnNode(Opcodes.DUP));
+            instructions.add(new JumpInsnNode(Opcodes.IFEQ, compute));
+            instructions.add(new InsnNode(Opcodes.IRETURN));
+            instructions.add(compute);
+            instructions.add(new FrameNode(Opcodes.F_SAME1, 0, null, 1, new Object[]{Opcodes.INTEGER}));
+            instructions.add(new InsnNode(Opcodes.POP));
+        }
+
+        instructions.add(new InsnNode(Opcodes.ICONST_0));
+        for (Component component : components) {
+            instructions.add(BytecodeHelper.pushInt(31));
+            instructions.add(new InsnNode(Opcodes.IMUL));
+            if (component.options().equality() == ComponentOptions.Equality.CUSTOM) {
+                instructions.add(getKey(recordClassName, component));
+            }
+            instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
+            instructions.add(getField(recordClassName, component));
+            instructions.add(hashOf(component));
+            instructions.add(new InsnNode(Opcodes.IADD));
+        }
+
+        if (cached) {
+            instructions.add(new InsnNode(Opcodes.DUP));
+            instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
+            instructions.add(new InsnNode(Opcodes.SWAP));
+            instructions.add(new FieldInsnNode(Opcodes.PUTFIELD, recordClassName, HASH_FIELD_NAME, "I"));
+        }
+        instructions.add(new InsnNode(Opcodes.IRETURN));
+        return instructions;
+    }
+
+    private static MethodInsnNode hashOf(Component component) {
+        switch (component.options().equality()) {
+            case IDENTITY -> {
+                return new MethodInsnNode(Opcodes.INVOKESTATIC, "java/lang/System", "identityHashCode", "(Ljava/lang/Object;)I", false);
+            }
+            case ARRAY_CONTENT -> {
+                String array = arrayDescriptor(component.type());
+                return new MethodInsnNode(Opcodes.INVOKESTATIC, "java/util/Arrays",
+                        isDeep(array) ? "deepHashCode" : "hashCode", "(" + array + ")I", false);
+            }
+            case CUSTOM -> {
+                return Constants.RECORD_COMPONENT_KEY_IMPL$HASH.call();
+            }
+            case VALUE -> {
+            }
+        }
+        return switch (component.type().getSort()) {
+            case Type.BOOLEAN -> new MethodInsnNode(Opcodes.INVOKESTATIC, "java/lang/Boolean", "hashCode", "(Z)I", false);
+            case Type.CHAR -> new MethodInsnNode(Opcodes.INVOKESTATIC, "java/lang/Character", "hashCode", "(C)I", false);
+            case Type.BYTE -> new MethodInsnNode(Opcodes.INVOKESTATIC, "java/lang/Byte", "hashCode", "(B)I", false);
+            case Type.SHORT -> new MethodInsnNode(Opcodes.INVOKESTATIC, "java/lang/Short", "hashCode", "(S)I", false);
+            case Type.INT -> new MethodInsnNode(Opcodes.INVOKESTATIC, "java/lang/Integer", "hashCode", "(I)I", false);
+            case Type.LONG -> new MethodInsnNode(Opcodes.INVOKESTATIC, "java/lang/Long", "hashCode", "(J)I", false);
+            case Type.FLOAT -> new MethodInsnNode(Opcodes.INVOKESTATIC, "java/lang/Float", "hashCode", "(F)I", false);
+            case Type.DOUBLE -> new MethodInsnNode(Opcodes.INVOKESTATIC, "java/lang/Double", "hashCode", "(D)I", false);
+            default -> new MethodInsnNode(Opcodes.INVOKESTATIC, "java/util/Objects", "hashCode", "(Ljava/lang/Object;)I", false);
+        };
+    }
+
+    private static InsnList generateToString(ClassNode classNode, List<Component> components) {
+        InsnList instructions = new InsnList();
+        instructions.add(new TypeInsnNode(Opcodes.NEW, "java/lang/StringBuilder"));
+        instructions.add(new InsnNode(Opcodes.DUP));
+        instructions.add(new MethodInsnNode(Opcodes.INVOKESPECIAL, "java/lang/StringBuilder", "<init>", "()V", false));
+
+        String separator = simpleName(classNode) + "[";
+        for (Component component : components) {
+            appendConstant(instructions, separator + component.name() + "=");
+            instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
+            instructions.add(getField(classNode.name, component));
+            Type appended = appendType(component.type());
+            if (component.options().equality() == ComponentOptions.Equality.ARRAY_CONTENT) {
+                String array = arrayDescriptor(component.type());
+                instructions.add(new MethodInsnNode(Opcodes.INVOKESTATIC, "java/util/Arrays",
+                        isDeep(array) ? "deepToString" : "toString", "(" + array + ")Ljava/lang/String;", false));
+                appended = Type.getType(String.class);
+            }
+            instructions.add(new MethodInsnNode(Opcodes.INVOKEVIRTUAL, "java/lang/StringBuilder", "append",
+                    "(" + appended.getDescriptor() + ")Ljava/lang/StringBuilder;", false));
+            separator = ", ";
+        }
+        appendConstant(instructions, components.isEmpty() ? separator + "]" : "]");
+
+        instructions.add(new MethodInsnNode(Opcodes.INVOKEVIRTUAL, "java/lang/StringBuilder", "toString",
+                "()Ljava/lang/String;", false));
+        instructions.add(new InsnNode(Opcodes.ARETURN));
+        return instructions;
+    }
+
+    private static void appendConstant(InsnList instructions, String constant) {
+        instructions.add(new LdcInsnNode(constant));
+        instructions.add(new MethodInsnNode(Opcodes.INVOKEVIRTUAL, "java/lang/StringBuilder", "append",
+                "(Ljava/lang/String;)Ljava/lang/StringBuilder;", false));
+    }
+
+    private static Type appendType(Type type) {
+        return switch (type.getSort()) {
+            case Type.BYTE, Type.SHORT, Type.INT -> Type.INT_TYPE;
+            case Type.BOOLEAN, Type.CHAR, Type.LONG, Type.FLOAT, Type.DOUBLE -> type;
+            default -> Type.getType(Object.class);
+        };
+    }
+
+    /**
+     * Gets the name {@link Class#getSimpleName()} reports, which the bootstrap prints.
+     */
+    private static String simpleName(ClassNode classNode) {
+        if (classNode.innerClasses != null) {
+            for (InnerClassNode innerClass : classNode.innerClasses) {
+                if (innerClass.name.equals(classNode.name) && innerClass.innerName != null) {
+                    return innerClass.innerName;
+                }
+            }
+        }
+        return classNode.name.substring(classNode.name.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Gets the parameter type of the {@link java.util.Arrays} methods taking an array: the array type itself for
+     * one-dimensional primitive arrays, {@code Object[]} for every other array, which the deep variants walk.
+     */
+    private static String arrayDescriptor(Type type) {
+        return type.getDimensions() == 1 && type.getElementType().getSort() != Type.OBJECT
+                ? type.getDescriptor()
+                : "[Ljava/lang/Object;";
+    }
+
+    private static boolean isDeep(String arrayDescriptor) {
+        return arrayDescriptor.equals("[Ljava/lang/Object;");
+    }
+
+    private static FieldInsnNode getKey(String recordClassName, Component component) {
+        return new FieldInsnNode(Opcodes.GETSTATIC, recordClassName, component.keyedField().keyFieldName(),
+                component.keyedField().keyType().getDescriptor());
+    }
+
+    private static AbstractInsnNode getField(String recordClassName, Component component) {
+        if (component.keyedField() != null) {
+            return component.keyedField().load(recordClassName);
+        }
+        return new FieldInsnNode(Opcodes.GETFIELD, recordClassName, component.fieldName(), component.type().getDescriptor());
+    }
+}
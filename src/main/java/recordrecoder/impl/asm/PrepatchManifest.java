@@ -0,0 +1,125 @@
+package recordrecoder.impl.asm;
+
+import recordrecoder.impl.RecordRecoder;
+import recordrecoder.impl.record.KeySnapshotImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Lists the record classes of a jar that were transformed ahead of time by {@link AheadOfTimeTransformer}.
+ * <p>
+ * The manifest is stored as a resource with one line per class, holding its internal name and the digest of
+ * the keys it was transformed with, so that a class transformed with different keys is not taken for current.
+ */
+public class PrepatchManifest {
+    public static final String LOCATION = "META-INF/recordrecoder/prepatched.txt";
+
+    private final Map<String, String> keysDigests;
+
+    private PrepatchManifest(Map<String, String> keysDigests) {
+        this.keysDigests = keysDigests;
+    }
+
+    /**
+     * Creates an empty manifest to record transformed classes in.
+     *
+     * @return The empty manifest
+     */
+    public static PrepatchManifest create() {
+        return new PrepatchManifest(new TreeMap<>());
+    }
+
+    /**
+     * Reads and merges every manifest visible to a class loader.
+     *
+     * @param classLoader The class loader the game classes are loaded by
+     * @return The merged manifest, empty if no classes were transformed ahead of time
+     */
+    public static PrepatchManifest load(ClassLoader classLoader) {
+        Map<String, String> keysDigests = new HashMap<>();
+        try {
+            Enumeration<URL> resources = classLoader.getResources(LOCATION);
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+                    reader.lines()
+                            .filter(line -> !line.isBlank())
+                            .map(line -> line.split(" ", 2))
+                            .filter(parts -> parts.length == 2)
+                            .forEach(parts -> keysDigests.put(parts[0], parts[1]));
+                }
+            }
+        } catch (IOException e) {
+            RecordRecoder.LOGGER.warn("Failed to read the list of record classes transformed ahead of time", e);
+        }
+        return new PrepatchManifest(keysDigests);
+    }
+
+    /**
+     * Records a class as transformed.
+     *
+     * @param internalName The internal name of the class
+     * @param snapshot     The snapshot the class was transformed with
+     */
+    public void add(String internalName, KeySnapshotImpl snapshot) {
+        keysDigests.put(internalName, TransformCache.keysDigest(internalName, snapshot));
+    }
+
+    /**
+     * @return The number of classes in the manifest
+     */
+    public int size() {
+        return keysDigests.size();
+    }
+
+    /**
+     * Checks whether a class was transformed ahead of time, with any keys.
+     *
+     * @param internalName The internal name of the class
+     * @return Whether the class is in the manifest
+     */
+    public boolean contains(String internalName) {
+        return keysDigests.containsKey(internalName);
+    }
+
+    /**
+     * Checks whether a class was transformed ahead of time with exactly the keys of a snapshot.
+     *
+     * @param internalName The internal name of the class
+     * @param snapshot     The snapshot of the current keys
+     * @return Whether the class is up to date
+     */
+    public boolean isCurrent(String internalName, KeySnapshotImpl snapshot) {
+        String keysDigest = keysDigests.get(internalName);
+        return keysDigest != null
+                && keysDigest.equals(TransformCache.keysDigest(internalName, snapshot));
+    }
+
+    /**
+     * Checks whether every class targeted by keys was transformed ahead of time with its current keys,
+     * in which case no class has to be transformed at runtime.
+     *
+     * @param snapshot The snapshot of the current keys
+     * @return Whether all targeted classes are up to date
+     */
+    public boolean coversAll(KeySnapshotImpl snapshot) {
+        return snapshot.getTargetClasses().stream().allMatch(className -> isCurrent(className, snapshot));
+    }
+
+    /**
+     * @return The manifest in its resource form
+     */
+    public byte[] toBytes() {
+        StringBuilder builder = new StringBuilder();
+        keysDigests.forEach((className, keysDigest) -> builder.append(className).append(' ').append(keysDigest).append('\n'));
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
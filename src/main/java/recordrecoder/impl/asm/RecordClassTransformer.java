@@ -1,47 +1,253 @@
 package recordrecoder.impl.asm;
 
-import org.objectweb.asm.Handle;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
+import org.objectweb.asm.commons.CodeSizeEvaluator;
 import org.objectweb.asm.tree.*;
 import org.spongepowered.asm.mixin.transformer.ext.ITargetClassContext;
 import recordrecoder.api.record.ComponentKeyRegistry;
+import recordrecoder.api.record.ComponentOptions;
+import recordrecoder.api.record.RecordOptions;
 import recordrecoder.impl.RecordRecoder;
+import recordrecoder.impl.asm.util.BitfieldUtils;
 import recordrecoder.impl.asm.util.ConstructorUtils;
+import recordrecoder.impl.asm.util.KeyedField;
 import recordrecoder.impl.asm.util.LocatorUtils;
 import recordrecoder.impl.asm.util.RecordIntrinsicMethods;
+import recordrecoder.impl.asm.util.TransformStatistics;
+import recordrecoder.impl.jfr.RecordTransformEvent;
+import recordrecoder.impl.record.BitfieldKey;
+import recordrecoder.impl.record.BitfieldLayout;
 import recordrecoder.impl.record.ComponentKeyRegistryImpl;
+import recordrecoder.impl.record.KeySnapshotImpl;
+import recordrecoder.impl.record.PackedValues;
 import recordrecoder.impl.record.RecordComponentKeyImpl;
 import recordrecoder.impl.utils.Constants;
+import recordrecoder.impl.utils.asmhelpers.BytecodeHelper;
+import recordrecoder.impl.utils.asmhelpers.OwnedMethod;
 import recordrecoder.impl.utils.mixindefaults.IDefaultedExtension;
 
 import java.util.*;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Predicate;
 
 public class RecordClassTransformer implements IDefaultedExtension {
 
     private static final String FACING_NAME_ANNOTATION = "Lrecordrecoder/api/record/FacingName;";
-    private static final String OBJECT_DESCRIPTOR = "Ljava/lang/Object;";
+    private static final int MAX_PARAMETER_SLOTS = 255;
+    /**
+     * The field holding the values of all keys on records with packed storage.
+     */
+    public static final String PACKED_FIELD_NAME = "recordrecoder$packed";
+    /**
+     * The static field holding the keys of a record with packed storage, in slot order.
+     */
+    public static final String KEYS_FIELD_NAME = "recordrecoder$keys";
+    private static final String KEYS_DESCRIPTOR = "[" + Constants.RECORD_COMPONENT_KEY_IMPL.getDescriptor();
+    /**
+     * The default bytecode size limit for inlining frequently called methods on HotSpot.
+     */
+    private static final int FREQ_INLINE_SIZE = 325;
+
+    private static final LongAdder CHECKED = new LongAdder();
+    private static final LongAdder SKIPPED = new LongAdder();
+    private static final LongAdder TRANSFORMED = new LongAdder();
+    private static final LongAdder CACHE_HITS = new LongAdder();
+    private static final LongAccumulator LARGEST_CONSTRUCTOR = new LongAccumulator(Math::max, 0);
+
+    private final @Nullable TransformCache cache;
+    private final PrepatchManifest prepatched;
+
+    public RecordClassTransformer() {
+        this(null, PrepatchManifest.create());
+    }
+
+    /**
+     * @param cache      The cache transformed classes are served from and written to, or null to always transform
+     * @param prepatched The classes transformed ahead of time, which are left alone
+     */
+    public RecordClassTransformer(@Nullable TransformCache cache, PrepatchManifest prepatched) {
+        this.cache = cache;
+        this.prepatched = prepatched;
+    }
 
     @Override
     public void preApply(final ITargetClassContext context) {
         ClassNode classNode = context.getClassNode();
-        if (isRecordClass(classNode)) {
-            transform(classNode);
+        CHECKED.increment();
+        final KeySnapshotImpl snapshot = ((ComponentKeyRegistryImpl) ComponentKeyRegistry.INSTANCE).snapshot();
+        // most classes are rejected by the prefilter on their cached name hash, before anything else is looked at
+        if (!snapshot.mayHaveKeys(classNode.name)
+                || !isRecordClass(classNode)
+                || snapshot.getForInternalName(classNode.name).isEmpty()) {
+            SKIPPED.increment();
+            return;
+        }
+        if (prepatched.contains(classNode.name)) {
+            if (!prepatched.isCurrent(classNode.name, snapshot))
+                throw new IllegalStateException(classNode.name + " was transformed ahead of time with different keys, the prepatched jar has to be rebuilt");
+            SKIPPED.increment();
+            return;
+        }
+        if (cache == null) {
+            transform(classNode, snapshot);
+            return;
+        }
+        ClassWriter original = new ClassWriter(0);
+        classNode.accept(original);
+        String cacheKey = cache.key(original.toByteArray(), classNode.name, snapshot);
+        byte[] cached = cache.read(cacheKey);
+        if (cached != null) {
+            ClassNode cachedNode = new ClassNode();
+            new ClassReader(cached).accept(cachedNode, 0);
+            replaceContents(classNode, cachedNode);
+            CACHE_HITS.increment();
+            return;
         }
+        if (transform(classNode, snapshot)) {
+            ClassWriter transformed = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+            classNode.accept(transformed);
+            cache.write(cacheKey, transformed.toByteArray());
+        }
+    }
+
+    /**
+     * Replaces everything in a class node handed to us by Mixin, which has to be modified in place.
+     */
+    private static void replaceContents(ClassNode target, ClassNode source) {
+        target.version = source.version;
+        target.access = source.access;
+        target.name = source.name;
+        target.signature = source.signature;
+        target.superName = source.superName;
+        target.interfaces = source.interfaces;
+        target.sourceFile = source.sourceFile;
+        target.sourceDebug = source.sourceDebug;
+        target.module = source.module;
+        target.outerClass = source.outerClass;
+        target.outerMethod = source.outerMethod;
+        target.outerMethodDesc = source.outerMethodDesc;
+        target.visibleAnnotations = source.visibleAnnotations;
+        target.invisibleAnnotations = source.invisibleAnnotations;
+        target.visibleTypeAnnotations = source.visibleTypeAnnotations;
+        target.invisibleTypeAnnotations = source.invisibleTypeAnnotations;
+        target.attrs = source.attrs;
+        target.innerClasses = source.innerClasses;
+        target.nestHostClass = source.nestHostClass;
+        target.nestMembers = source.nestMembers;
+        target.permittedSubclasses = source.permittedSubclasses;
+        target.recordComponents = source.recordComponents;
+        target.fields = source.fields;
+        target.methods = source.methods;
+    }
+
+    /**
+     * Gets how many classes were offered to {@link #preApply(ITargetClassContext)}, how many of them were
+     * rejected before transformation, how many classes were transformed, how many were served from the cache,
+     * and the size of the largest canonical constructor produced.
+     *
+     * @return The current transformation statistics
+     */
+    public static TransformStatistics statistics() {
+        return new TransformStatistics(CHECKED.sum(), SKIPPED.sum(), TRANSFORMED.sum(), CACHE_HITS.sum(), LARGEST_CONSTRUCTOR.get());
     }
 
-    public static void transform(ClassNode classNode) {
+    /**
+     * Transforms the bytes of a class, without Mixin.
+     * Non-record classes and classes without keys are rejected from the constant pool, before a tree is built.
+     * Stack map frames of the original code are carried over by the transformation, so only maxs are computed.
+     *
+     * @param classBytes The bytes of the class
+     * @param snapshot   The keys to implement
+     * @return The bytes of the transformed class, or the given array itself if the class was not transformed
+     */
+    public static byte[] transform(byte[] classBytes, KeySnapshotImpl snapshot) {
+        return transform(classBytes, snapshot, null);
+    }
+
+    /**
+     * Transforms the bytes of a class, without Mixin, serving and storing the result through a cache.
+     *
+     * @param classBytes The bytes of the class
+     * @param snapshot   The keys to implement
+     * @param cache      The cache of transformed classes, or null to always transform
+     * @return The bytes of the transformed class, or the given array itself if the class was not transformed
+     */
+    public static byte[] transform(byte[] classBytes, KeySnapshotImpl snapshot, @Nullable TransformCache cache) {
+        ClassReader reader = new ClassReader(classBytes);
+        String className = reader.getClassName();
+        if (!snapshot.mayHaveKeys(className)
+                || !Constants.RECORD.getInternalName().equals(reader.getSuperName())
+                || snapshot.getForInternalName(className).isEmpty()) {
+            return classBytes;
+        }
+
+        String cacheKey = null;
+        if (cache != null) {
+            cacheKey = cache.key(classBytes, className, snapshot);
+            byte[] cached = cache.read(cacheKey);
+            if (cached != null) {
+                CACHE_HITS.increment();
+                return cached;
+            }
+        }
+
+        ClassNode classNode = new ClassNode();
+        // frames are read expanded, so the field initializers of the canonical constructor can be guarded
+        reader.accept(classNode, ClassReader.EXPAND_FRAMES);
+        if (!transform(classNode, snapshot)) {
+            return classBytes;
+        }
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        classNode.accept(writer);
+        byte[] transformed = writer.toByteArray();
+        if (cache != null) {
+            cache.write(cacheKey, transformed);
+        }
+        return transformed;
+    }
+
+    /**
+     * Transforms a class with the keys of the frozen registry.
+     *
+     * @param classNode The class to transform
+     * @return Whether the class was transformed
+     */
+    public static boolean transform(ClassNode classNode) {
+        return transform(classNode, ((ComponentKeyRegistryImpl) ComponentKeyRegistry.INSTANCE).snapshot());
+    }
+
+    /**
+     * Transforms a class with the keys of the given snapshot.
+     *
+     * @param classNode The class to transform
+     * @param snapshot  The keys to implement
+     * @return Whether the class was transformed
+     */
+    public static boolean transform(ClassNode classNode, KeySnapshotImpl snapshot) {
         if (!isRecordClass(classNode)) {
             RecordRecoder.LOGGER.warn("Class {} is not a record class, skipping transformation.", classNode.name);
-            return;
+            return false;
         }
 
-        final ComponentKeyRegistryImpl registry = (ComponentKeyRegistryImpl) ComponentKeyRegistry.INSTANCE;
-        List<RecordComponentKeyImpl<?>> keys = registry.getForClass(classNode.name);
+        List<RecordComponentKeyImpl<?>> keys = snapshot.getForInternalName(classNode.name);
 
         if (keys.isEmpty()) {
-            return;
+            return false;
+        }
+
+        RecordTransformEvent event = new RecordTransformEvent();
+        event.begin();
+        // sizing the class walks every method, so it is only done while the event is recorded
+        int sizeBefore = event.isEnabled() ? totalCodeSize(classNode) : 0;
+
+        // A record without components has no components in its tree
+        if (classNode.recordComponents == null) {
+            classNode.recordComponents = new ArrayList<>();
         }
 
         // Get record component types
@@ -51,7 +257,7 @@ public class RecordClassTransformer implements IDefaultedExtension {
         MethodNode canonicalConstructor = LocatorUtils.findCanonicalConstructor(classNode, types);
         if (canonicalConstructor == null) {
             RecordRecoder.LOGGER.warn("Can't find constructor for {}", classNode.name);
-            return;
+            return false;
         }
 
         ensureConstructorMetadata(canonicalConstructor, types);
@@ -60,23 +266,116 @@ public class RecordClassTransformer implements IDefaultedExtension {
         // Find intrinsic methods and their InvokeDynamic nodes
         RecordIntrinsicMethods intrinsics = LocatorUtils.findIntrinsicMethods(classNode);
 
-        List<String> keyFieldNames = processKeys(
+        RecordOptions options = snapshot.getOptions(classNode.name);
+        boolean packed = snapshot.isPacked(classNode.name);
+        if (options.packedStorage() && !packed) {
+            if (keys.size() > PackedValues.MAX_KEYS) {
+                RecordRecoder.LOGGER.warn("Not packing {}, its {} keys exceed the limit of {}; using one field per key",
+                        classNode.name, keys.size(), PackedValues.MAX_KEYS);
+            } else {
+                RecordRecoder.LOGGER.warn("Not packing {}, it has derived or mutable keys; using one field per key", classNode.name);
+            }
+        }
+        BitfieldLayout bitfield = snapshot.getBitfieldLayout(classNode.name);
+        if (!bitfield.isEmpty()) {
+            RecordRecoder.LOGGER.info("Storing {} flag and enum keys of {} in an {} bitfield",
+                    bitfield.keyCount(), classNode.name, bitfield.type().getClassName());
+        }
+
+        List<KeyedField> keyedFields = createKeyedFields(keys, snapshot, packed, bitfield);
+
+        // Packed records have no fields for the extended constructor to assign, they are constructed by queueing their values
+        final @Nullable MethodNode extendedConstructor = packed
+                ? null
+                : createExtendedCanonicalConstructor(classNode, canonicalConstructor, keyedFields, bitfield);
+        if (extendedConstructor != null) {
+            // the field initializers are skipped for records built by the extended constructor, which needs frames
+            canonicalConstructor = ConstructorUtils.expandFrames(classNode, canonicalConstructor);
+        }
+
+        // The copy method reads the original components, so they have to be captured before components are added
+        final List<RecordComponentNode> vanillaComponents = List.copyOf(classNode.recordComponents);
+
+        processKeys(
                 classNode,
-                keys,
-                registry,
+                keyedFields,
                 staticInitializer,
                 canonicalConstructor,
-                intrinsics
+                packed,
+                bitfield,
+                extendedConstructor != null
         );
 
+        // the bootstrap can only leave components out, other equality strategies need generated methods
+        if (options.directObjectMethods() || usesEqualityStrategies(keyedFields)) {
+            ObjectMethodsGenerator.generate(classNode, vanillaComponents, keyedFields, options.cachedHashCode());
+        } else {
+            // Implement Record methods if they exist
+            implementRecordMethods(intrinsics, classNode.name, keyedFields);
+        }
+
         if (!keys.isEmpty()) {
-            addExtendedCanonicalConstructor(classNode, canonicalConstructor, keyFieldNames);
-            RecordRecoder.LOGGER.info("Transformation of {} complete", classNode.name);
+            if (extendedConstructor != null) {
+                classNode.methods.addFirst(extendedConstructor);
+            }
+            classNode.methods.add(CopyMethodGenerator.generate(
+                    classNode.name, vanillaComponents, canonicalConstructor, extendedConstructor, keyedFields));
+            TRANSFORMED.increment();
+            reportCodeSizes(classNode.name, canonicalConstructor, extendedConstructor, staticInitializer);
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.className = classNode.name;
+            event.keyCount = keys.size();
+            event.bytecodeSizeBefore = sizeBefore;
+            event.bytecodeSizeAfter = totalCodeSize(classNode);
+            event.commit();
+        }
+        return true;
+    }
+
+    /**
+     * Logs the bytecode sizes of the generated code, warning when the canonical constructor grew too large for
+     * HotSpot to inline it into hot callers.
+     */
+    private static void reportCodeSizes(
+            String className,
+            MethodNode canonicalConstructor,
+            @Nullable MethodNode extendedConstructor,
+            MethodNode staticInitializer) {
+
+        int constructorSize = codeSize(canonicalConstructor);
+        LARGEST_CONSTRUCTOR.accumulate(constructorSize);
+        RecordRecoder.LOGGER.info("Transformation of {} complete, code size of constructor {}, extended constructor {}, static initializer {} bytes",
+                className,
+                constructorSize,
+                extendedConstructor != null ? codeSize(extendedConstructor) : "-",
+                codeSize(staticInitializer));
+        if (constructorSize > FREQ_INLINE_SIZE) {
+            RecordRecoder.LOGGER.warn("Constructor of {} is {} bytes, above the default FreqInlineSize of {}; it will not be inlined into hot callers",
+                    className, constructorSize, FREQ_INLINE_SIZE);
+        }
+    }
+
+    /**
+     * @return The largest size the code of a method can be written as
+     */
+    private static int codeSize(MethodNode method) {
+        CodeSizeEvaluator evaluator = new CodeSizeEvaluator(null);
+        method.accept(evaluator);
+        return evaluator.getMaxSize();
+    }
+
+    private static int totalCodeSize(ClassNode classNode) {
+        int size = 0;
+        for (MethodNode method : classNode.methods) {
+            size += codeSize(method);
+        }
+        return size;
     }
 
     private static boolean isRecordClass(ClassNode classNode) {
-        return classNode.superName.equals(Constants.RECORD.getInternalName());
+        return Constants.RECORD.getInternalName().equals(classNode.superName);
     }
 
     private static Type[] extractComponentTypes(ClassNode classNode) {
@@ -96,65 +395,216 @@ public class RecordClassTransformer implements IDefaultedExtension {
         }
     }
 
-    private static List<String> processKeys(
-            ClassNode classNode,
+    private static List<KeyedField> createKeyedFields(
             List<RecordComponentKeyImpl<?>> keys,
-            ComponentKeyRegistryImpl registry,
-            MethodNode staticInitializer,
-            MethodNode canonicalConstructor,
-            RecordIntrinsicMethods intrinsics) {
+            KeySnapshotImpl snapshot,
+            boolean packed,
+            BitfieldLayout bitfield) {
 
-        List<String> keyFieldNames = new ArrayList<>(keys.size());
+        List<KeyedField> keyedFields = new ArrayList<>(keys.size());
 
         for (final RecordComponentKeyImpl<?> key : keys) {
-            final UUID uuid = UUID.randomUUID();
-            final String fieldName = "keyedField-" + uuid;
-            final String keyFieldName = "key-" + uuid;
-            keyFieldNames.add(keyFieldName);
+            int slot = keyedFields.size();
+            // member names are assigned when the registry is frozen, so every transformation of a class agrees
+            keyedFields.add(new KeyedField(key, snapshot.getFieldName(key), snapshot.getKeyFieldName(key), slot, packed,
+                    bitfield.contains(slot) ? bitfield.shift(slot) : -1));
+        }
 
-            registry.registerNameForKey(key, fieldName);
-            addComponent(classNode, fieldName, key.getFieldName());
-            addKeyField(classNode, keyFieldName);
+        return keyedFields;
+    }
 
-            // Initialize fields
-            addKeyFieldInitializer(classNode, staticInitializer, keyFieldName, fieldName);
-            addFieldInitializer(classNode, canonicalConstructor, keyFieldName, fieldName);
+    /**
+     * Adds the members of every key in a single pass: the initializers of all keys are collected into one list per
+     * method and inserted at a single scan for the return.
+     * <p>
+     * Packed records get a single field instead of one per key, which the constructor assigns with one call packing
+     * the values of all keys, and their getters unpack their value through the key.
+     * <p>
+     * Flag and small enum keys of records with a bitfield share a single field too, which the constructor assigns
+     * with the encoded values of all of them combined, and their getters read their value with shift and mask.
+     * <p>
+     * Mutable keys get a non-final field, which their accessors hold a handle on.
+     * <p>
+     * Keys with lazy defaults get a mutable field, which the constructor assigns a marker if no value was queued, and
+     * a static handle on it, which their getters create the default through on the first read.
+     * <p>
+     * Records with an extended constructor get a flag it sets, and the initializers of the original constructor are
+     * skipped for flagged records, except for derived keys.
+     */
+    private static void processKeys(
+            ClassNode classNode,
+            List<KeyedField> keyedFields,
+            MethodNode staticInitializer,
+            MethodNode canonicalConstructor,
+            boolean packed,
+            BitfieldLayout bitfield,
+            boolean extended) {
+
+        // Bind every key with a single call, which returns the keys of this record to store in their fields
+        InsnList keyFieldInitializers = new InsnList();
+        keyFieldInitializers.add(Constants.COMPONENT_KEY_REGISTRY$INSTANCE.get());
+        keyFieldInitializers.add(new TypeInsnNode(Opcodes.CHECKCAST, Constants.COMPONENT_KEY_REGISTRY_IMPL.getInternalName()));
+        keyFieldInitializers.add(Constants.METHOD_HANDLES$LOOKUP.call());
+        keyFieldInitializers.add(Constants.COMPONENT_KEY_REGISTRY_IMPL$BIND_KEYS.call());
+        InsnList fieldInitializers = new InsnList();
+        // records built by the extended constructor have their fields assigned, only derived keys are left to compute
+        InsnList assignedInitializers = new InsnList();
+
+        final int frameLocal;
+        if (packed) {
+            addPackedFields(classNode);
+            frameLocal = -1;
+            fieldInitializers.add(generatePackedFieldInitializer(classNode.name));
+        } else {
+            // Look the pending value frame up once, for all field initializers
+            frameLocal = canonicalConstructor.maxLocals++;
+            fieldInitializers.add(Constants.PENDING_VALUES$CURRENT.call());
+            fieldInitializers.add(new VarInsnNode(Opcodes.ASTORE, frameLocal));
+        }
 
-            // Implement Record methods if they exist
-            implementRecordMethods(intrinsics, key, classNode.name, fieldName);
+        for (final KeyedField keyedField : keyedFields) {
+            addComponent(classNode, keyedField);
+            addKeyField(classNode, keyedField);
+
+            // Initialize fields
+            keyFieldInitializers.add(generateKeyFieldInitializer(classNode.name, keyedField));
+            if (keyedField.hasField()) {
+                fieldInitializers.add(generateFieldInitializer(classNode.name, frameLocal, keyedField));
+                if (keyedField.derived()) {
+                    assignedInitializers.add(generateDerivedFieldInitializer(classNode.name, keyedField));
+                }
+            }
 
             // Add getter method
-            addGetterMethod(classNode, fieldName);
+            addGetterMethod(classNode, keyedField, bitfield);
+        }
+
+        if (!bitfield.isEmpty()) {
+            classNode.fields.add(BitfieldUtils.createField(bitfield));
+            fieldInitializers.add(BitfieldUtils.store(classNode.name, bitfield, keyedFields, keyedField -> {
+                InsnList encoded = new InsnList();
+                encoded.add(new FieldInsnNode(Opcodes.GETSTATIC, classNode.name, keyedField.keyFieldName(), keyedField.keyType().getDescriptor()));
+                encoded.add(new VarInsnNode(Opcodes.ALOAD, frameLocal));
+                encoded.add(((BitfieldKey) keyedField.key()).getNextEncodedMethod().call());
+                return encoded;
+            }));
+        }
+
+        if (packed) {
+            // packed records keep the array of their keys to pack their values from
+            keyFieldInitializers.add(new FieldInsnNode(Opcodes.PUTSTATIC, classNode.name, KEYS_FIELD_NAME, KEYS_DESCRIPTOR));
+        } else {
+            keyFieldInitializers.add(new InsnNode(Opcodes.POP));
         }
+        for (final KeyedField keyedField : keyedFields) {
+            if (keyedField.lazy()) {
+                addHandleField(classNode, keyedField);
+                keyFieldInitializers.add(generateHandleFieldInitializer(classNode.name, keyedField));
+            }
+        }
+        if (extended) {
+            classNode.fields.add(ConstructorUtils.createAssignedField());
+            fieldInitializers = ConstructorUtils.guardFieldInitializers(classNode.name, fieldInitializers, assignedInitializers);
+        }
+        addKeyFieldInitializers(staticInitializer, keyFieldInitializers);
+        addFieldInitializers(canonicalConstructor, fieldInitializers);
+
+    }
+
+    private static void addPackedFields(ClassNode classNode) {
+        classNode.fields.add(new FieldNode(
+                Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL | Opcodes.ACC_SYNTHETIC,
+                PACKED_FIELD_NAME,
+                Constants.PACKED_VALUES.getDescriptor(),
+                null,
+                null
+        ));
+        classNode.fields.add(new FieldNode(
+                Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL | Opcodes.ACC_SYNTHETIC,
+                KEYS_FIELD_NAME,
+                KEYS_DESCRIPTOR,
+                null,
+                null
+        ));
+    }
+
+    private static InsnList generatePackedFieldInitializer(final String recordClassName) {
+        InsnList instructions = new InsnList();
+        instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
+        instructions.add(new FieldInsnNode(Opcodes.GETSTATIC, recordClassName, KEYS_FIELD_NAME, KEYS_DESCRIPTOR));
+        instructions.add(Constants.PACKED_VALUES$PACK.call());
+        instructions.add(new FieldInsnNode(Opcodes.PUTFIELD, recordClassName, PACKED_FIELD_NAME, Constants.PACKED_VALUES.getDescriptor()));
+        return instructions;
+    }
+
+    private static void addHandleField(ClassNode classNode, KeyedField keyedField) {
+        classNode.fields.add(new FieldNode(
+                Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL | Opcodes.ACC_SYNTHETIC,
+                keyedField.handleFieldName(),
+                Constants.VAR_HANDLE.getDescriptor(),
+                null,
+                null
+        ));
+    }
 
-        return keyFieldNames;
+    private static InsnList generateHandleFieldInitializer(final String recordClassName, final KeyedField keyedField) {
+        InsnList instructions = new InsnList();
+        instructions.add(Constants.METHOD_HANDLES$LOOKUP.call());
+        instructions.add(new LdcInsnNode(Type.getObjectType(recordClassName)));
+        instructions.add(new LdcInsnNode(keyedField.fieldName()));
+        instructions.add(new LdcInsnNode(keyedField.storageType()));
+        instructions.add(Constants.METHOD_HANDLES_LOOKUP$FIND_VAR_HANDLE.call());
+        instructions.add(new FieldInsnNode(Opcodes.PUTSTATIC, recordClassName, keyedField.handleFieldName(), Constants.VAR_HANDLE.getDescriptor()));
+        return instructions;
     }
 
-    private static void addKeyField(ClassNode classNode, String keyFieldName) {
+    private static void addKeyField(ClassNode classNode, KeyedField keyedField) {
         classNode.fields.add(
                 new FieldNode(
                         Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL,
-                        keyFieldName,
-                        Constants.RECORD_COMPONENT_KEY_IMPL.getDescriptor(),
-                        Constants.RECORD_COMPONENT_KEY_IMPL.getDescriptor(),
+                        keyedField.keyFieldName(),
+                        keyedField.keyType().getDescriptor(),
+                        keyedField.keyType().getDescriptor(),
                         null
                 )
         );
     }
 
-    private static void addGetterMethod(ClassNode classNode, String fieldName) {
+    private static void addGetterMethod(ClassNode classNode, KeyedField keyedField, BitfieldLayout bitfield) {
+        final Type fieldType = keyedField.fieldType();
+        final String descriptor = Type.getMethodDescriptor(fieldType);
         MethodNode getter = new MethodNode(
                 Opcodes.ACC_PUBLIC,
-                fieldName,
-                "()Ljava/lang/Object;",
-                "()Ljava/lang/Object;",
+                keyedField.fieldName(),
+                descriptor,
+                descriptor,
                 new String[]{}
         );
 
         InsnList instructions = new InsnList();
-        instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
-        instructions.add(new FieldInsnNode(Opcodes.GETFIELD, classNode.name, fieldName, OBJECT_DESCRIPTOR));
-        instructions.add(new InsnNode(Opcodes.ARETURN));
+        if (keyedField.packed()) {
+            OwnedMethod unpack = keyedField.key().getUnpackMethod();
+            instructions.add(new FieldInsnNode(Opcodes.GETSTATIC, classNode.name, keyedField.keyFieldName(), keyedField.keyType().getDescriptor()));
+            instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
+            instructions.add(new FieldInsnNode(Opcodes.GETFIELD, classNode.name, PACKED_FIELD_NAME, Constants.PACKED_VALUES.getDescriptor()));
+            instructions.add(BytecodeHelper.pushInt(keyedField.slot()));
+            instructions.add(unpack.call());
+            if (!unpack.descriptor().getReturnType().equals(fieldType)) {
+                instructions.add(new TypeInsnNode(Opcodes.CHECKCAST, fieldType.getInternalName()));
+            }
+        } else if (keyedField.inBitfield()) {
+            instructions.add(BitfieldUtils.read(classNode.name, bitfield, keyedField));
+        } else if (keyedField.lazy()) {
+            instructions.add(new FieldInsnNode(Opcodes.GETSTATIC, classNode.name, keyedField.keyFieldName(), keyedField.keyType().getDescriptor()));
+            instructions.add(new FieldInsnNode(Opcodes.GETSTATIC, classNode.name, keyedField.handleFieldName(), Constants.VAR_HANDLE.getDescriptor()));
+            instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
+            instructions.add(Constants.RECORD_COMPONENT_KEY_IMPL$RESOLVE_LAZY.call());
+            instructions.add(new TypeInsnNode(Opcodes.CHECKCAST, fieldType.getInternalName()));
+        } else {
+            instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
+            instructions.add(new FieldInsnNode(Opcodes.GETFIELD, classNode.name, keyedField.fieldName(), fieldType.getDescriptor()));
+        }
+        instructions.add(new InsnNode(fieldType.getOpcode(Opcodes.IRETURN)));
 
         getter.instructions = instructions;
         classNode.methods.add(getter);
@@ -162,50 +612,79 @@ public class RecordClassTransformer implements IDefaultedExtension {
 
     private static void implementRecordMethods(
             RecordIntrinsicMethods intrinsics,
-            RecordComponentKeyImpl<?> key,
             String recordClassName,
-            String fieldName) {
+            List<KeyedField> keyedFields) {
 
         if (intrinsics.string() != null) {
-            implementRecordMethod(intrinsics.string(), key, recordClassName, fieldName);
+            implementRecordMethod(intrinsics.string(), recordClassName,
+                    filter(keyedFields, ComponentOptions::includedInToString));
         }
 
+        List<KeyedField> compared = filter(keyedFields, ComponentOptions::includedInEquality);
         if (intrinsics.hash() != null) {
-            implementRecordMethod(intrinsics.hash(), key, recordClassName, fieldName);
+            implementRecordMethod(intrinsics.hash(), recordClassName, compared);
         }
 
         if (intrinsics.equals() != null) {
-            implementRecordMethod(intrinsics.equals(), key, recordClassName, fieldName);
+            implementRecordMethod(intrinsics.equals(), recordClassName, compared);
+        }
+    }
+
+    private static List<KeyedField> filter(List<KeyedField> keyedFields, Predicate<ComponentOptions> included) {
+        for (KeyedField keyedField : keyedFields) {
+            if (!included.test(keyedField.key().getComponentOptions())) {
+                return keyedFields.stream()
+                        .filter(field -> included.test(field.key().getComponentOptions()))
+                        .toList();
+            }
         }
+        return keyedFields;
     }
 
-    private static void addExtendedCanonicalConstructor(
+    private static boolean usesEqualityStrategies(List<KeyedField> keyedFields) {
+        for (KeyedField keyedField : keyedFields) {
+            if (keyedField.key().getComponentOptions().equality() != ComponentOptions.Equality.VALUE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static @Nullable MethodNode createExtendedCanonicalConstructor(
             ClassNode classNode,
             MethodNode canonicalConstructor,
-            List<String> keyFieldNames) {
+            List<KeyedField> keyedFields,
+            BitfieldLayout bitfield) {
+
+        // Create new canonical constructor with additional parameters
+        final List<Type> fieldTypes = keyedFields.stream().map(KeyedField::fieldType).toList();
+        String newDesc = appendArguments(canonicalConstructor.desc, fieldTypes);
+        // Parameter slots including the receiver, limited to 255 by the JVM
+        if (Type.getArgumentsAndReturnSizes(newDesc) >> 2 > MAX_PARAMETER_SLOTS) {
+            RecordRecoder.LOGGER.warn("Not adding canonical constructor for {}, {} keys exceed the parameter limit; "
+                    + "RecordFactory will construct it through the original constructor", classNode.name, keyedFields.size());
+            return null;
+        }
 
         RecordRecoder.LOGGER.info("Adding canonical constructor for {} with {} keys",
-                classNode.name, keyFieldNames.size());
+                classNode.name, keyedFields.size());
 
-        // Create new canonical constructor with additional parameters
-        String newDesc = appendArguments(canonicalConstructor.desc, keyFieldNames.size());
-        String newSignature = appendArguments(canonicalConstructor.signature, keyFieldNames.size());
+        String newSignature = appendArguments(canonicalConstructor.signature, fieldTypes);
         int access = canonicalConstructor.access;
         // As the components are in order, this cannot be varargs because the array param is not last
         access = access & ~Opcodes.ACC_VARARGS;
 
-        final MethodNode newConstructor = ConstructorUtils.createExtendedConstructor(
-                classNode, canonicalConstructor, newDesc, newSignature, access, keyFieldNames);
-
-        classNode.methods.addFirst(newConstructor);
+        return ConstructorUtils.createExtendedConstructor(
+                classNode, canonicalConstructor, newDesc, newSignature, access, keyedFields, bitfield);
     }
 
-    private static void addComponent(final ClassNode targetClass, final String fieldName, String facingName) {
+    private static void addComponent(final ClassNode targetClass, final KeyedField keyedField) {
+        final String descriptor = keyedField.fieldType().getDescriptor();
         // Create a new record component
         RecordComponentNode component = new RecordComponentNode(
-                fieldName,
-                OBJECT_DESCRIPTOR,
-                OBJECT_DESCRIPTOR
+                keyedField.fieldName(),
+                descriptor,
+                descriptor
         );
 
         // Add facing name annotation
@@ -214,109 +693,88 @@ public class RecordClassTransformer implements IDefaultedExtension {
         }
 
         AnnotationNode facingNameNode = new AnnotationNode(FACING_NAME_ANNOTATION);
-        facingNameNode.visit("value", facingName);
+        facingNameNode.visit("value", keyedField.key().getFieldName());
         component.visibleAnnotations.add(facingNameNode);
 
-        // Add component and field
+        // Add component and field, unless the value is held by the packed field or the bitfield
         targetClass.recordComponents.add(component);
+        if (!keyedField.hasField()) {
+            return;
+        }
+        // fields of lazy defaults are assigned again on the first read, those of mutable keys by their operations
+        final String storageDescriptor = keyedField.storageType().getDescriptor();
         targetClass.fields.add(
                 new FieldNode(
-                        Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL,
-                        fieldName,
-                        OBJECT_DESCRIPTOR,
-                        OBJECT_DESCRIPTOR,
+                        keyedField.lazy() || keyedField.mutable() ? Opcodes.ACC_PRIVATE : Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL,
+                        keyedField.fieldName(),
+                        storageDescriptor,
+                        storageDescriptor,
                         null
                 )
         );
     }
 
-    private static void addKeyFieldInitializer(
-            final ClassNode classNode,
+    private static void addKeyFieldInitializers(
             final MethodNode staticInitializer,
-            final String keyFieldName,
-            final String fieldName) {
+            final InsnList keyFieldInitializers) {
 
-        InsnList keyFieldInitializer = generateKeyFieldInitializer(classNode.name, keyFieldName, fieldName);
-
-        AbstractInsnNode returnNode = findLastReturn(staticInitializer.instructions)
+        AbstractInsnNode returnNode = BytecodeHelper.findLastReturn(staticInitializer.instructions)
                 .orElse(null);
 
         if (returnNode != null) {
-            staticInitializer.instructions.insertBefore(returnNode, keyFieldInitializer);
+            staticInitializer.instructions.insertBefore(returnNode, keyFieldInitializers);
         } else {
             // If no return instruction found, add to the end
-            staticInitializer.instructions.add(keyFieldInitializer);
+            staticInitializer.instructions.add(keyFieldInitializers);
         }
     }
 
-    private static void addFieldInitializer(
-            final ClassNode classNode,
+    private static void addFieldInitializers(
             final MethodNode constructor,
-            final String keyFieldName,
-            final String fieldName) {
-
-        InsnList fieldInitializer = generateFieldInitializer(classNode.name, keyFieldName, fieldName);
+            final InsnList fieldInitializers) {
 
-        AbstractInsnNode returnNode = findLastReturn(constructor.instructions)
+        AbstractInsnNode returnNode = BytecodeHelper.findLastReturn(constructor.instructions)
                 .orElse(null);
 
         if (returnNode != null) {
-            constructor.instructions.insertBefore(returnNode, fieldInitializer);
+            constructor.instructions.insertBefore(returnNode, fieldInitializers);
         } else {
             // If no return instruction found, add to the end
-            RecordRecoder.LOGGER.warn("Constructor does not seem valid as it does not have a return instruction. Adding field initializer at the end.");
-            constructor.instructions.add(fieldInitializer);
+            RecordRecoder.LOGGER.warn("Constructor does not seem valid as it does not have a return instruction. Adding field initializers at the end.");
+            constructor.instructions.add(fieldInitializers);
             constructor.instructions.add(new InsnNode(Opcodes.RETURN));
         }
     }
 
     private static InsnList generateKeyFieldInitializer(
             final String recordClassName,
-            final String keyFieldName,
-            final String fieldName) {
+            final KeyedField keyedField) {
 
         InsnList instructions = new InsnList();
 
-        // Get the registry instance
-        instructions.add(Constants.COMPONENT_KEY_REGISTRY$INSTANCE.get());
-        instructions.add(new TypeInsnNode(Opcodes.CHECKCAST, Constants.COMPONENT_KEY_REGISTRY_IMPL.getInternalName()));
-
-        // Get the key for the field name
-        instructions.add(new LdcInsnNode(fieldName));
-        instructions.add(Constants.COMPONENT_KEY_REGISTRY_IMPL$GET_KEY_FOR_NAME.call());
-        instructions.add(new TypeInsnNode(
-                Opcodes.CHECKCAST,
-                Constants.RECORD_COMPONENT_KEY_IMPL.getInternalName()
-        ));
+        // Take the key from the array of bound keys, which stays on the stack
+        instructions.add(new InsnNode(Opcodes.DUP));
+        instructions.add(BytecodeHelper.pushInt(keyedField.slot()));
+        instructions.add(new InsnNode(Opcodes.AALOAD));
+        if (!keyedField.keyType().equals(Constants.RECORD_COMPONENT_KEY_IMPL)) {
+            instructions.add(new TypeInsnNode(Opcodes.CHECKCAST, keyedField.keyType().getInternalName()));
+        }
 
         // Store in static field
-        instructions.add(new InsnNode(Opcodes.DUP));
         instructions.add(new FieldInsnNode(
                 Opcodes.PUTSTATIC,
                 recordClassName,
-                keyFieldName,
-                Constants.RECORD_COMPONENT_KEY_IMPL.getDescriptor()
-        ));
-
-        // Set up getter handle
-        instructions.add(new LdcInsnNode(
-                new Handle(
-                        Opcodes.H_GETFIELD,
-                        recordClassName,
-                        fieldName,
-                        OBJECT_DESCRIPTOR,
-                        false
-                )
+                keyedField.keyFieldName(),
+                keyedField.keyType().getDescriptor()
         ));
-        instructions.add(Constants.RECORD_COMPONENT_KEY_IMPL$PROVIDE_GETTER.call());
 
         return instructions;
     }
 
     private static InsnList generateFieldInitializer(
             final String recordClassName,
-            final String keyFieldName,
-            final String fieldName) {
+            final int frameLocal,
+            final KeyedField keyedField) {
 
         InsnList instructions = new InsnList();
 
@@ -324,55 +782,89 @@ public class RecordClassTransformer implements IDefaultedExtension {
         instructions.add(new FieldInsnNode(
                 Opcodes.GETSTATIC,
                 recordClassName,
-                keyFieldName,
-                Constants.RECORD_COMPONENT_KEY_IMPL.getDescriptor()
+                keyedField.keyFieldName(),
+                keyedField.keyType().getDescriptor()
+        ));
+        instructions.add(new VarInsnNode(Opcodes.ALOAD, frameLocal));
+        if (keyedField.derived()) {
+            // derived keys compute their value from the vanilla components assigned above
+            instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
+        }
+        instructions.add(keyedField.key().getNextMethod().call());
+        if (!keyedField.key().getNextMethod().descriptor().getReturnType().equals(keyedField.storageType())) {
+            // reference keys hand out their values as Object, narrow them to the exact field type
+            instructions.add(new TypeInsnNode(Opcodes.CHECKCAST, keyedField.storageType().getInternalName()));
+        }
+        instructions.add(new FieldInsnNode(
+                Opcodes.PUTFIELD,
+                recordClassName,
+                keyedField.fieldName(),
+                keyedField.storageType().getDescriptor()
         ));
-        instructions.add(Constants.RECORD_COMPONENT_KEY_IMPL$GET_NEXT.call());
-        instructions.add(new FieldInsnNode(Opcodes.PUTFIELD, recordClassName, fieldName, OBJECT_DESCRIPTOR));
 
         return instructions;
     }
 
-    private static void implementRecordMethod(
-            final InvokeDynamicInsnNode indy,
-            final RecordComponentKeyImpl<?> key,
+    private static InsnList generateDerivedFieldInitializer(
             final String recordClassName,
-            final String fieldName) {
+            final KeyedField keyedField) {
+
+        InsnList instructions = new InsnList();
 
-        Object[] newArgs = new Object[indy.bsmArgs.length + 1];
-        System.arraycopy(indy.bsmArgs, 0, newArgs, 0, indy.bsmArgs.length);
-        newArgs[1] = newArgs[1] + ";" + key.getFieldName();
-        newArgs[indy.bsmArgs.length] = new Handle(
-                Opcodes.H_GETFIELD,
+        // derived keys compute their value from the vanilla components, without a pending value to drop
+        instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
+        instructions.add(new FieldInsnNode(
+                Opcodes.GETSTATIC,
                 recordClassName,
-                fieldName,
-                OBJECT_DESCRIPTOR,
-                false
-        );
-        indy.bsmArgs = newArgs;
-    }
+                keyedField.keyFieldName(),
+                keyedField.keyType().getDescriptor()
+        ));
+        instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
+        instructions.add(Constants.DERIVED_RECORD_COMPONENT_KEY_IMPL$DERIVE.call());
+        if (!keyedField.storageType().equals(Constants.OBJECT)) {
+            instructions.add(new TypeInsnNode(Opcodes.CHECKCAST, keyedField.storageType().getInternalName()));
+        }
+        instructions.add(new FieldInsnNode(
+                Opcodes.PUTFIELD,
+                recordClassName,
+                keyedField.fieldName(),
+                keyedField.storageType().getDescriptor()
+        ));
 
-    private static Optional<AbstractInsnNode> findLastReturn(final InsnList insns) {
-        return findFromLast(insns, node -> node.getOpcode() == Opcodes.RETURN);
+        return instructions;
     }
 
-    private static Optional<AbstractInsnNode> findFromLast(
-            final InsnList insns,
-            final Predicate<AbstractInsnNode> predicate) {
-
-        for (AbstractInsnNode node = insns.getLast(); node != null; node = node.getPrevious()) {
-            if (predicate.test(node)) {
-                return Optional.of(node);
+    private static void implementRecordMethod(
+            final InvokeDynamicInsnNode indy,
+            final String recordClassName,
+            final List<KeyedField> keyedFields) {
+
+        final int originalLength = indy.bsmArgs.length;
+        Object[] newArgs = Arrays.copyOf(indy.bsmArgs, originalLength + keyedFields.size());
+        StringBuilder names = new StringBuilder((String) indy.bsmArgs[1]);
+        for (int i = 0; i < keyedFields.size(); i++) {
+            KeyedField keyedField = keyedFields.get(i);
+            // the names of a record without components are empty, not separated
+            if (!names.isEmpty()) {
+                names.append(';');
             }
+            names.append(keyedField.key().getFieldName());
+            newArgs[originalLength + i] = keyedField.getterHandle(recordClassName);
         }
-        return Optional.empty();
+        newArgs[1] = names.toString();
+        indy.bsmArgs = newArgs;
     }
 
-    private static String appendArguments(String desc, int numAdditional) {
-        var splitDesc = desc.split("\\)");
-        if (splitDesc.length != 2) {
+    private static String appendArguments(String desc, List<Type> additional) {
+        int end = desc.lastIndexOf(')');
+        if (end < 0) {
             return null;
         }
-        return splitDesc[0] + OBJECT_DESCRIPTOR.repeat(Math.max(0, numAdditional)) + ")" + splitDesc[1];
+        StringBuilder arguments = new StringBuilder(desc.length() + additional.size() * 8);
+        arguments.append(desc, 0, end);
+        for (Type type : additional) {
+            arguments.append(type.getDescriptor());
+        }
+        return arguments.append(desc, end, desc.length()).toString();
     }
-}
\ No newline at end of file
+}
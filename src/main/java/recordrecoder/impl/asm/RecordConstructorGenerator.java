@@ -0,0 +1,119 @@
+package recordrecoder.impl.asm;
+
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import recordrecoder.impl.utils.Constants;
+
+/**
+ * Generates the hidden {@link recordrecoder.impl.record.RecordConstructor} subclasses factories construct records
+ * through. Each argument is loaded from its array, cast or unboxed to the parameter type and passed to the
+ * constructor directly.
+ */
+public class RecordConstructorGenerator {
+    private static final String CONSTRUCTOR_SUFFIX = "$RecordRecoderConstructor";
+
+    /**
+     * Generates a constructor invoker for a record.
+     * The result must be defined as a hidden nestmate of the record class, as its constructors may be private.
+     *
+     * @param recordClassName The internal name of the record class
+     * @param vanillaTypes    The parameter types of the original canonical constructor
+     * @param extendedTypes   The types of the extended components, or null if the record has no extended constructor
+     * @return The bytes of the constructor invoker class
+     */
+    public static byte[] generate(String recordClassName, Type[] vanillaTypes, Type @Nullable [] extendedTypes) {
+        String superName = Constants.RECORD_CONSTRUCTOR.getInternalName();
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(
+                Opcodes.V21,
+                Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER | Opcodes.ACC_SYNTHETIC,
+                recordClassName + CONSTRUCTOR_SUFFIX,
+                null,
+                superName,
+                null
+        );
+
+        MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, superName, "<init>", "()V", false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        MethodVisitor vanilla = writer.visitMethod(
+                Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL,
+                "constructVanilla",
+                Type.getMethodDescriptor(Constants.RECORD, Type.getType(Object[].class)),
+                null,
+                null
+        );
+        vanilla.visitCode();
+        vanilla.visitTypeInsn(Opcodes.NEW, recordClassName);
+        vanilla.visitInsn(Opcodes.DUP);
+        loadArguments(vanilla, 1, vanillaTypes);
+        vanilla.visitMethodInsn(Opcodes.INVOKESPECIAL, recordClassName, "<init>", Type.getMethodDescriptor(Type.VOID_TYPE, vanillaTypes), false);
+        vanilla.visitInsn(Opcodes.ARETURN);
+        vanilla.visitMaxs(0, 0);
+        vanilla.visitEnd();
+
+        if (extendedTypes != null) {
+            Type[] parameterTypes = new Type[vanillaTypes.length + extendedTypes.length];
+            System.arraycopy(vanillaTypes, 0, parameterTypes, 0, vanillaTypes.length);
+            System.arraycopy(extendedTypes, 0, parameterTypes, vanillaTypes.length, extendedTypes.length);
+
+            MethodVisitor extended = writer.visitMethod(
+                    Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL,
+                    "construct",
+                    Type.getMethodDescriptor(Constants.RECORD, Type.getType(Object[].class), Type.getType(Object[].class)),
+                    null,
+                    null
+            );
+            extended.visitCode();
+            extended.visitTypeInsn(Opcodes.NEW, recordClassName);
+            extended.visitInsn(Opcodes.DUP);
+            loadArguments(extended, 1, vanillaTypes);
+            loadArguments(extended, 2, extendedTypes);
+            extended.visitMethodInsn(Opcodes.INVOKESPECIAL, recordClassName, "<init>", Type.getMethodDescriptor(Type.VOID_TYPE, parameterTypes), false);
+            extended.visitInsn(Opcodes.ARETURN);
+            extended.visitMaxs(0, 0);
+            extended.visitEnd();
+        }
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static void loadArguments(MethodVisitor method, int arrayLocal, Type[] types) {
+        for (int i = 0; i < types.length; i++) {
+            method.visitVarInsn(Opcodes.ALOAD, arrayLocal);
+            method.visitLdcInsn(i);
+            method.visitInsn(Opcodes.AALOAD);
+            unbox(method, types[i]);
+        }
+    }
+
+    private static void unbox(MethodVisitor method, Type type) {
+        Type boxed = switch (type.getSort()) {
+            case Type.BOOLEAN -> Type.getType(Boolean.class);
+            case Type.CHAR -> Type.getType(Character.class);
+            case Type.BYTE -> Type.getType(Byte.class);
+            case Type.SHORT -> Type.getType(Short.class);
+            case Type.INT -> Type.getType(Integer.class);
+            case Type.FLOAT -> Type.getType(Float.class);
+            case Type.LONG -> Type.getType(Long.class);
+            case Type.DOUBLE -> Type.getType(Double.class);
+            default -> null;
+        };
+        if (boxed == null) {
+            if (!type.equals(Constants.OBJECT))
+                method.visitTypeInsn(Opcodes.CHECKCAST, type.getInternalName());
+            return;
+        }
+        method.visitTypeInsn(Opcodes.CHECKCAST, boxed.getInternalName());
+        method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, boxed.getInternalName(), type.getClassName() + "Value", Type.getMethodDescriptor(type), false);
+    }
+}
@@ -0,0 +1,112 @@
+package recordrecoder.impl.asm;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.ConstantDynamic;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import recordrecoder.impl.utils.Constants;
+
+import java.lang.constant.ConstantDescs;
+
+/**
+ * Generates the hidden subclasses keys are created as, one per key. Each is defined with the
+ * {@link java.lang.invoke.MutableCallSite} of its key as class data and resolves the accessor of an instance by
+ * invoking the target of that call site, which the key links to the accessor it binds. As the call site is a constant
+ * of the class, the JIT inlines the target of a constant key and the accessor it returns, so the read of the key is
+ * folded into a class comparison and a field load.
+ */
+public class SpecializedKeyGenerator {
+    private static final String KEY_SUFFIX = "$Specialized";
+
+    /**
+     * Generates a subclass of a key class, constructed as a copy of a key of that class.
+     * The result must be defined as a hidden class in the package of the key class, with the call site as class data.
+     *
+     * @param keyClassName The internal name of the key class
+     * @return The bytes of the key subclass
+     */
+    public static byte[] generate(String keyClassName) {
+        String constructorDescriptor = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getObjectType(keyClassName));
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(
+                Opcodes.V21,
+                Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER | Opcodes.ACC_SYNTHETIC,
+                keyClassName + KEY_SUFFIX,
+                null,
+                keyClassName,
+                null
+        );
+
+        MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", constructorDescriptor, null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitVarInsn(Opcodes.ALOAD, 1);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, keyClassName, "<init>", constructorDescriptor, false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        MethodVisitor accessorFor = writer.visitMethod(
+                Opcodes.ACC_PROTECTED | Opcodes.ACC_FINAL,
+                Constants.RECORD_COMPONENT_KEY_IMPL$ACCESSOR_FOR.name(),
+                Constants.RECORD_COMPONENT_KEY_IMPL$ACCESSOR_FOR.descriptor().getDescriptor(),
+                null,
+                null
+        );
+        accessorFor.visitCode();
+        accessorFor.visitLdcInsn(bindingSite());
+        accessorFor.visitMethodInsn(
+                Opcodes.INVOKEVIRTUAL,
+                Constants.MUTABLE_CALL_SITE.getInternalName(),
+                "getTarget",
+                Type.getMethodDescriptor(Constants.METHOD_HANDLE),
+                false
+        );
+        accessorFor.visitVarInsn(Opcodes.ALOAD, 1);
+        accessorFor.visitMethodInsn(
+                Opcodes.INVOKEVIRTUAL,
+                Constants.METHOD_HANDLE.getInternalName(),
+                "invokeExact",
+                Constants.RECORD_COMPONENT_KEY_IMPL$ACCESSOR_FOR.descriptor().getDescriptor(),
+                false
+        );
+        accessorFor.visitInsn(Opcodes.ARETURN);
+        accessorFor.visitMaxs(0, 0);
+        accessorFor.visitEnd();
+
+        MethodVisitor bindingSite = writer.visitMethod(
+                Opcodes.ACC_PROTECTED | Opcodes.ACC_FINAL,
+                Constants.RECORD_COMPONENT_KEY_IMPL$BINDING_SITE.name(),
+                Constants.RECORD_COMPONENT_KEY_IMPL$BINDING_SITE.descriptor().getDescriptor(),
+                null,
+                null
+        );
+        bindingSite.visitCode();
+        bindingSite.visitLdcInsn(bindingSite());
+        bindingSite.visitInsn(Opcodes.ARETURN);
+        bindingSite.visitMaxs(0, 0);
+        bindingSite.visitEnd();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    /**
+     * @return A dynamic constant loading the call site the class is defined with
+     */
+    private static ConstantDynamic bindingSite() {
+        return new ConstantDynamic(
+                ConstantDescs.DEFAULT_NAME,
+                Constants.MUTABLE_CALL_SITE.getDescriptor(),
+                new Handle(
+                        Opcodes.H_INVOKESTATIC,
+                        Constants.METHOD_HANDLES$CLASS_DATA.getOwnerInternalName(),
+                        Constants.METHOD_HANDLES$CLASS_DATA.name(),
+                        Constants.METHOD_HANDLES$CLASS_DATA.descriptor().getDescriptor(),
+                        false
+                )
+        );
+    }
+}
@@ -0,0 +1,118 @@
+package recordrecoder.impl.asm;
+
+import net.fabricmc.loader.api.MappingResolver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps class names with the class entries of a tiny mapping file, in place of the resolver of {@code FabricLoader}
+ * when records are transformed ahead of time. Both the v1 and the v2 format are read. Member names are not mapped,
+ * as registrations only name their target classes.
+ */
+final class TinyMappingResolver implements MappingResolver {
+    private final List<String> namespaces;
+    private final String runtimeNamespace;
+    /**
+     * Binary class names in the runtime namespace, by namespace and binary name in that namespace.
+     */
+    private final Map<String, String> toRuntime = new HashMap<>();
+    private final Map<String, String> fromRuntime = new HashMap<>();
+
+    private TinyMappingResolver(List<String> namespaces, String runtimeNamespace) {
+        this.namespaces = namespaces;
+        this.runtimeNamespace = runtimeNamespace;
+    }
+
+    /**
+     * Creates a resolver that maps nothing, for jars transformed without mappings.
+     *
+     * @param runtimeNamespace The namespace of the transformed jar
+     * @return The resolver, only accepting names in the runtime namespace
+     */
+    static TinyMappingResolver identity(String runtimeNamespace) {
+        return new TinyMappingResolver(List.of(runtimeNamespace), runtimeNamespace);
+    }
+
+    /**
+     * Reads the class entries of a tiny mapping file.
+     *
+     * @param reader           The mapping file
+     * @param runtimeNamespace The namespace of the transformed jar
+     * @return The resolver
+     * @throws IOException              If the file can't be read
+     * @throws IllegalArgumentException If the file is not a tiny file or lacks the runtime namespace
+     */
+    static TinyMappingResolver read(BufferedReader reader, String runtimeNamespace) throws IOException {
+        String header = reader.readLine();
+        String[] headerParts = header != null ? header.split("\t") : new String[0];
+        boolean v2 = headerParts.length > 3 && headerParts[0].equals("tiny") && headerParts[1].equals("2");
+        if (!v2 && (headerParts.length < 2 || !headerParts[0].equals("v1")))
+            throw new IllegalArgumentException("Mappings are neither tiny v1 nor tiny v2");
+        List<String> namespaces = List.of(headerParts).subList(v2 ? 3 : 1, headerParts.length);
+        int runtimeIndex = namespaces.indexOf(runtimeNamespace);
+        if (runtimeIndex < 0)
+            throw new IllegalArgumentException("Mappings have no namespace " + runtimeNamespace + ", only " + namespaces);
+
+        TinyMappingResolver resolver = new TinyMappingResolver(namespaces, runtimeNamespace);
+        String classPrefix = v2 ? "c\t" : "CLASS\t";
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            if (!line.startsWith(classPrefix))
+                continue;
+            String[] names = line.substring(classPrefix.length()).split("\t", -1);
+            // names missing in a namespace are the same as in the first one
+            String runtimeName = name(names, runtimeIndex);
+            for (int i = 0; i < namespaces.size(); i++) {
+                resolver.toRuntime.put(namespaces.get(i) + ' ' + name(names, i), runtimeName);
+                resolver.fromRuntime.put(namespaces.get(i) + ' ' + runtimeName, name(names, i));
+            }
+        }
+        return resolver;
+    }
+
+    private static String name(String[] names, int index) {
+        String name = index < names.length && !names[index].isEmpty() ? names[index] : names[0];
+        return name.replace('/', '.');
+    }
+
+    @Override
+    public Collection<String> getNamespaces() {
+        return namespaces;
+    }
+
+    @Override
+    public String getCurrentRuntimeNamespace() {
+        return runtimeNamespace;
+    }
+
+    @Override
+    public String mapClassName(String namespace, String className) {
+        checkNamespace(namespace);
+        return toRuntime.getOrDefault(namespace + ' ' + className, className);
+    }
+
+    @Override
+    public String unmapClassName(String targetNamespace, String className) {
+        checkNamespace(targetNamespace);
+        return fromRuntime.getOrDefault(targetNamespace + ' ' + className, className);
+    }
+
+    @Override
+    public String mapFieldName(String namespace, String owner, String name, String descriptor) {
+        throw new UnsupportedOperationException("Field names are not mapped when transforming ahead of time");
+    }
+
+    @Override
+    public String mapMethodName(String namespace, String owner, String name, String descriptor) {
+        throw new UnsupportedOperationException("Method names are not mapped when transforming ahead of time");
+    }
+
+    private void checkNamespace(String namespace) {
+        if (!namespaces.contains(namespace))
+            throw new IllegalArgumentException("No mappings for namespace " + namespace + ", pass them with --mappings");
+    }
+}
@@ -0,0 +1,251 @@
+package recordrecoder.impl.asm;
+
+import org.jetbrains.annotations.Nullable;
+import recordrecoder.impl.RecordRecoder;
+import recordrecoder.impl.record.BitfieldKey;
+import recordrecoder.impl.record.KeySnapshotImpl;
+import recordrecoder.impl.record.RecordComponentKeyImpl;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed on-disk cache of transformed record classes.
+ * <p>
+ * Entries are keyed by a SHA-256 digest of the untransformed class bytes together with everything about the
+ * keys and options that shows up in the output, so an entry can only be served for the exact input and key set it was
+ * produced from. Entries are written to a temporary file and moved into place, so a crash or a concurrent
+ * launch never leaves a partial entry behind. IO failures are logged and treated as misses.
+ * <p>
+ * The output of the transformer is tied to the library that produced it through a fingerprint of the library's own
+ * classes, which is part of every cache key and names the subdirectory the entries are stored in. Entries of any other
+ * build of the library are never read, and are pruned on the first write. If the classes of the library cannot be
+ * read, the cache is disabled.
+ */
+public class TransformCache {
+    /**
+     * Tags the layout of cache keys and entries. Changes to the transformer are covered by the library fingerprint,
+     * so this only guards the key digests of prepatch manifests, which are produced by another build of the library.
+     */
+    private static final String FORMAT_VERSION = "5";
+    private static final String LIBRARY_PACKAGE = "recordrecoder";
+    /**
+     * The length of the library fingerprint prefix naming the entry directory.
+     */
+    private static final int DIRECTORY_NAME_LENGTH = 16;
+    private static final Pattern STALE_DIRECTORY = Pattern.compile("[0-9a-f]{" + DIRECTORY_NAME_LENGTH + "}");
+    /**
+     * Entries and temporary files of the layout before entries were grouped by library fingerprint.
+     */
+    private static final Pattern STALE_ENTRY = Pattern.compile("[0-9a-f]{64}.*\\.(class|tmp)");
+
+    private final Path root;
+    private final @Nullable Path directory;
+    private boolean pruned;
+
+    /**
+     * @param root The directory holding the cache entries of every build of the library, created on first write
+     */
+    public TransformCache(Path root) {
+        this.root = root;
+        String fingerprint = LibraryFingerprint.VALUE;
+        this.directory = fingerprint != null ? root.resolve(fingerprint.substring(0, DIRECTORY_NAME_LENGTH)) : null;
+    }
+
+    /**
+     * Computes the cache key of a class.
+     *
+     * @param classBytes The untransformed class bytes
+     * @param className  The internal name of the class
+     * @param snapshot   The snapshot the class is transformed with
+     * @return The cache key
+     */
+    public String key(byte[] classBytes, String className, KeySnapshotImpl snapshot) {
+        MessageDigest digest = newDigest();
+        digest.update(FORMAT_VERSION.getBytes(StandardCharsets.UTF_8));
+        if (LibraryFingerprint.VALUE != null)
+            digest.update(LibraryFingerprint.VALUE.getBytes(StandardCharsets.UTF_8));
+        digest.update(classBytes);
+        updateDigest(digest, className, snapshot);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Computes a digest identifying the keys and options a class is transformed with, independently of the class itself.
+     *
+     * @param className The internal name of the class
+     * @param snapshot  The snapshot the class is transformed with
+     * @return The digest of the keys
+     */
+    static String keysDigest(String className, KeySnapshotImpl snapshot) {
+        MessageDigest digest = newDigest();
+        digest.update(FORMAT_VERSION.getBytes(StandardCharsets.UTF_8));
+        updateDigest(digest, className, snapshot);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Feeds everything about the keys and options that shows up in the transformed class into a digest.
+     */
+    private static void updateDigest(MessageDigest digest, String className, KeySnapshotImpl snapshot) {
+        digest.update(snapshot.getOptions(className).toString().getBytes(StandardCharsets.UTF_8));
+        for (RecordComponentKeyImpl<?> key : snapshot.getForInternalName(className)) {
+            String description = '\n' + key.getKeyClass().getName()
+                    + ' ' + key.getFieldName()
+                    + ' ' + key.getFieldType().getDescriptor()
+                    + ' ' + snapshot.getFieldName(key)
+                    + ' ' + key.getComponentOptions().includedInEquality()
+                    + ' ' + key.getComponentOptions().includedInToString()
+                    + ' ' + key.getComponentOptions().equality()
+                    + ' ' + key.getComponentOptions().lazyDefault()
+                    + ' ' + (key instanceof BitfieldKey bitfieldKey ? bitfieldKey.getBitWidth() : 0);
+            digest.update(description.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Reads a cached class.
+     *
+     * @param key The cache key
+     * @return The transformed class bytes, or null if there is no entry
+     */
+    public byte @Nullable [] read(String key) {
+        Path directory = this.directory;
+        if (directory == null)
+            return null;
+        try {
+            return Files.readAllBytes(entry(directory, key));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            RecordRecoder.LOGGER.warn("Failed to read transform cache entry {}", key, e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes a transformed class to the cache.
+     *
+     * @param key        The cache key
+     * @param classBytes The transformed class bytes
+     */
+    public void write(String key, byte[] classBytes) {
+        Path directory = this.directory;
+        if (directory == null)
+            return;
+        if (!pruned) {
+            pruned = true;
+            prune();
+        }
+        try {
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, key, ".tmp");
+            Files.write(temporary, classBytes);
+            Files.move(temporary, entry(directory, key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            RecordRecoder.LOGGER.warn("Failed to write transform cache entry {}", key, e);
+        }
+    }
+
+    private static Path entry(Path directory, String key) {
+        return directory.resolve(key + ".class");
+    }
+
+    /**
+     * Deletes the entries of other builds of the library. Only files and directories named like the ones the cache
+     * creates are touched, in case the cache shares its directory with anything else.
+     */
+    private void prune() {
+        List<Path> stale;
+        try (Stream<Path> children = Files.list(root)) {
+            stale = children
+                    .filter(child -> !child.equals(directory))
+                    .filter(child -> Files.isDirectory(child)
+                            ? STALE_DIRECTORY.matcher(child.getFileName().toString()).matches()
+                            : STALE_ENTRY.matcher(child.getFileName().toString()).matches())
+                    .toList();
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException e) {
+            RecordRecoder.LOGGER.warn("Failed to list transform cache directory {}", root, e);
+            return;
+        }
+        for (Path path : stale) {
+            try (Stream<Path> files = Files.walk(path)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList())
+                    Files.deleteIfExists(file);
+            } catch (IOException e) {
+                RecordRecoder.LOGGER.warn("Failed to delete stale transform cache entries {}", path, e);
+            }
+        }
+        if (!stale.isEmpty())
+            RecordRecoder.LOGGER.info("Pruned {} stale transform cache entries", stale.size());
+    }
+
+    /**
+     * Holds the SHA-256 digest of the names and bytes of every class of the library, read from the jar or
+     * directory it was loaded from, or null if that cannot be read.
+     */
+    private static final class LibraryFingerprint {
+        static final @Nullable String VALUE = compute();
+
+        private static @Nullable String compute() {
+            CodeSource codeSource = TransformCache.class.getProtectionDomain().getCodeSource();
+            if (codeSource == null || codeSource.getLocation() == null) {
+                RecordRecoder.LOGGER.warn("Transform cache disabled, the location of the library is unknown");
+                return null;
+            }
+            try {
+                Path location = Path.of(codeSource.getLocation().toURI());
+                if (Files.isDirectory(location))
+                    return digestClasses(location);
+                try (FileSystem jar = FileSystems.newFileSystem(location)) {
+                    return digestClasses(jar.getPath("/"));
+                }
+            } catch (IOException | URISyntaxException | RuntimeException e) {
+                RecordRecoder.LOGGER.warn("Transform cache disabled, failed to read the classes of the library from {}", codeSource.getLocation(), e);
+                return null;
+            }
+        }
+
+        private static String digestClasses(Path base) throws IOException {
+            MessageDigest digest = newDigest();
+            String separator = base.getFileSystem().getSeparator();
+            List<Path> classes;
+            try (Stream<Path> files = Files.walk(base.resolve(LIBRARY_PACKAGE))) {
+                classes = files
+                        .filter(file -> file.getFileName().toString().endsWith(".class"))
+                        .sorted(Comparator.comparing(file -> base.relativize(file).toString()))
+                        .toList();
+            }
+            for (Path file : classes) {
+                digest.update(base.relativize(file).toString().replace(separator, "/").getBytes(StandardCharsets.UTF_8));
+                digest.update(Files.readAllBytes(file));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package recordrecoder.impl.asm.util;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.*;
+import recordrecoder.impl.record.BitfieldKey;
+import recordrecoder.impl.record.BitfieldLayout;
+import recordrecoder.impl.utils.asmhelpers.BytecodeHelper;
+import recordrecoder.impl.utils.asmhelpers.OwnedMethod;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class BitfieldUtils {
+    /**
+     * The field holding the values of the flag and small enum keys on records with a bitfield.
+     */
+    public static final String FIELD_NAME = "recordrecoder$bits";
+
+    /**
+     * Creates the bitfield of a record.
+     */
+    public static FieldNode createField(BitfieldLayout layout) {
+        return new FieldNode(
+                Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL | Opcodes.ACC_SYNTHETIC,
+                FIELD_NAME,
+                layout.type().getDescriptor(),
+                null,
+                null
+        );
+    }
+
+    /**
+     * Creates instructions assigning the bitfield of the instance in local 0, combining the encoded values of every
+     * key stored in it on the stack.
+     *
+     * @param recordClassName The internal name of the record class
+     * @param layout          The layout of the bitfield
+     * @param keyedFields     The keys of the record
+     * @param encodedValue    Creates the instructions pushing the encoded value of a key as an int
+     * @return The assignment
+     */
+    public static InsnList store(
+            String recordClassName,
+            BitfieldLayout layout,
+            List<KeyedField> keyedFields,
+            Function<KeyedField, InsnList> encodedValue) {
+
+        Type type = layout.type();
+        boolean wide = type.getSort() == Type.LONG;
+        InsnList instructions = new InsnList();
+        instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
+        instructions.add(new InsnNode(wide ? Opcodes.LCONST_0 : Opcodes.ICONST_0));
+        for (KeyedField keyedField : keyedFields) {
+            if (!keyedField.inBitfield())
+                continue;
+            instructions.add(encodedValue.apply(keyedField));
+            if (wide)
+                instructions.add(new InsnNode(Opcodes.I2L));
+            if (keyedField.bitShift() != 0) {
+                instructions.add(BytecodeHelper.pushInt(keyedField.bitShift()));
+                instructions.add(new InsnNode(type.getOpcode(Opcodes.ISHL)));
+            }
+            instructions.add(new InsnNode(type.getOpcode(Opcodes.IOR)));
+        }
+        instructions.add(new FieldInsnNode(Opcodes.PUTFIELD, recordClassName, FIELD_NAME, type.getDescriptor()));
+        return instructions;
+    }
+
+    /**
+     * Creates instructions pushing the value of a key read from the bitfield of the instance in local 0, with shift
+     * and mask, decoded to the type of its component.
+     *
+     * @param recordClassName The internal name of the record class
+     * @param layout          The layout of the bitfield
+     * @param keyedField      A key stored in the bitfield
+     * @return The read
+     */
+    public static InsnList read(String recordClassName, BitfieldLayout layout, KeyedField keyedField) {
+        BitfieldKey key = (BitfieldKey) keyedField.key();
+        OwnedMethod decode = key.getDecodeMethod();
+        Type type = layout.type();
+        InsnList instructions = new InsnList();
+        if (decode != null) {
+            instructions.add(new FieldInsnNode(Opcodes.GETSTATIC, recordClassName, keyedField.keyFieldName(), keyedField.keyType().getDescriptor()));
+        }
+        instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
+        instructions.add(new FieldInsnNode(Opcodes.GETFIELD, recordClassName, FIELD_NAME, type.getDescriptor()));
+        if (keyedField.bitShift() != 0) {
+            instructions.add(BytecodeHelper.pushInt(keyedField.bitShift()));
+            instructions.add(new InsnNode(type.getOpcode(Opcodes.IUSHR)));
+        }
+        if (type.getSort() == Type.LONG)
+            instructions.add(new InsnNode(Opcodes.L2I));
+        // encoded values are at most 32 bits wide, only narrower ones need a mask
+        if (key.getBitWidth() < Integer.SIZE) {
+            instructions.add(BytecodeHelper.pushInt((1 << key.getBitWidth()) - 1));
+            instructions.add(new InsnNode(Opcodes.IAND));
+        }
+        if (decode != null) {
+            instructions.add(decode.call());
+            if (!decode.descriptor().getReturnType().equals(keyedField.fieldType()))
+                instructions.add(new TypeInsnNode(Opcodes.CHECKCAST, keyedField.fieldType().getInternalName()));
+        }
+        return instructions;
+    }
+}
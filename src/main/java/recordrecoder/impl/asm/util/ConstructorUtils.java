@@ -1,55 +1,115 @@
 package recordrecoder.impl.asm.util;
 
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 import org.objectweb.asm.tree.*;
 import recordrecoder.impl.RecordRecoder;
+import recordrecoder.impl.record.BitfieldKey;
+import recordrecoder.impl.record.BitfieldLayout;
 import recordrecoder.impl.utils.Constants;
 import recordrecoder.impl.utils.asmhelpers.BytecodeHelper;
+import recordrecoder.impl.utils.asmhelpers.OwnedMethod;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ConstructorUtils {
+    /**
+     * The field the extended canonical constructor sets before calling the original one, which then leaves the
+     * fields of the keys as they were assigned instead of taking them from the pending value frame.
+     */
+    public static final String ASSIGNED_FIELD_NAME = "recordrecoder$assigned";
 
+    /**
+     * Creates the field marking records constructed through the extended canonical constructor.
+     */
+    public static FieldNode createAssignedField() {
+        return new FieldNode(
+                Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL | Opcodes.ACC_SYNTHETIC,
+                ASSIGNED_FIELD_NAME,
+                Type.BOOLEAN_TYPE.getDescriptor(),
+                null,
+                null
+        );
+    }
+
+    /**
+     * Creates the extended canonical constructor, taking one additional argument per key.
+     * <p>
+     * The new constructor assigns the additional arguments to their fields directly, and combines those stored in the
+     * bitfield into it, before anything else. Fields declared by the record itself may be assigned before the call to
+     * another constructor. It then marks the record as assigned and calls the original canonical constructor, so code
+     * that mixins inject into it also runs for records built by {@link recordrecoder.api.record.RecordFactory} and by
+     * copies, and sees the arguments. The original constructor skips the pending value frame for marked records, see
+     * {@link #guardFieldInitializers}, so the extended path never looks the frame up, leaves values queued on the
+     * current thread alone and never creates a default value. Derived keys ignore their argument, the original
+     * constructor computes them from the vanilla components. A null argument for a key with a lazy default leaves the
+     * default to be created on the first read.
+     */
     public static MethodNode createExtendedConstructor(
             ClassNode classNode,
             MethodNode originalConstructor,
             String newDesc,
             String newSignature,
             int access,
-            List<String> keyFieldNames) {
+            List<KeyedField> keyedFields,
+            BitfieldLayout bitfield) {
 
         final MethodNode newConstructor = new MethodNode(
                 access,
                 "<init>",
                 newDesc,
                 newSignature,
-                new String[]{}
+                originalConstructor.exceptions.toArray(new String[0])
         );
 
         InsnList instructions = new InsnList();
+        final Type[] types = Type.getArgumentTypes(originalConstructor.desc);
+        final int parameterSlots = Type.getArgumentsAndReturnSizes(originalConstructor.desc) >> 2; // includes this
 
-        // Add key queue loading operations
-        int offset = Type.getArgumentCount(originalConstructor.desc) + 1; // +1 for this
-        for (String name : keyFieldNames) {
-            instructions.add(new FieldInsnNode(
-                    Opcodes.GETSTATIC,
-                    classNode.name,
-                    name,
-                    "Lrecordrecoder/impl/record/RecordComponentKeyImpl;"
-            ));
-            instructions.add(new VarInsnNode(Opcodes.ALOAD, offset++));
-            instructions.add(Constants.RECORD_COMPONENT_KEY_IMPL$QUEUE_NEXT.call());
+        // Assign the additional arguments to their fields
+        final Map<KeyedField, Integer> offsets = new HashMap<>();
+        int offset = parameterSlots;
+        for (KeyedField keyedField : keyedFields) {
+            offsets.put(keyedField, offset);
+            if (!keyedField.inBitfield() && !keyedField.derived()) {
+                instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
+                instructions.add(new VarInsnNode(getLoadOpcodeForType(keyedField.fieldType()), offset));
+                if (keyedField.lazy())
+                    instructions.add(Constants.RECORD_COMPONENT_KEY_IMPL$LAZY_IF_NULL.call());
+                instructions.add(new FieldInsnNode(
+                        Opcodes.PUTFIELD,
+                        classNode.name,
+                        keyedField.fieldName(),
+                        keyedField.storageType().getDescriptor()
+                ));
+            }
+            offset += keyedField.fieldType().getSize();
         }
+        if (!bitfield.isEmpty()) {
+            instructions.add(BitfieldUtils.store(classNode.name, bitfield, keyedFields, keyedField -> {
+                InsnList encoded = new InsnList();
+                encoded.add(new VarInsnNode(getLoadOpcodeForType(keyedField.fieldType()), offsets.get(keyedField)));
+                OwnedMethod encode = ((BitfieldKey) keyedField.key()).getEncodeMethod();
+                if (encode != null)
+                    encoded.add(encode.call());
+                return encoded;
+            }));
+        }
+        instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
+        instructions.add(new InsnNode(Opcodes.ICONST_1));
+        instructions.add(new FieldInsnNode(Opcodes.PUTFIELD, classNode.name, ASSIGNED_FIELD_NAME, Type.BOOLEAN_TYPE.getDescriptor()));
 
         // Call original constructor
-        Type[] types = Type.getArgumentTypes(originalConstructor.desc);
         instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
-
-        for (int i = 0; i < types.length; i++) {
-            instructions.add(new VarInsnNode(getLoadOpcodeForType(types[i]), i + 1));
+        int argumentOffset = 1;
+        for (Type type : types) {
+            instructions.add(new VarInsnNode(getLoadOpcodeForType(type), argumentOffset));
+            argumentOffset += type.getSize();
         }
-
         instructions.add(new MethodInsnNode(
                 Opcodes.INVOKESPECIAL,
                 classNode.name,
@@ -60,10 +120,80 @@ public class ConstructorUtils {
 
         instructions.add(new InsnNode(Opcodes.RETURN));
         newConstructor.instructions = instructions;
+        newConstructor.maxLocals = offset;
+        // the original arguments, or this and a wide value, or this, a wide bitfield and a wide encoded value
+        newConstructor.maxStack = Math.max(parameterSlots, bitfield.isEmpty() ? 3 : 5);
 
         return newConstructor;
     }
 
+    /**
+     * Wraps the field initializers of the original canonical constructor, so records marked by the extended
+     * constructor skip them, and with them the lookup of the pending value frame.
+     * <p>
+     * The constructor must have expanded stack map frames, see {@link #expandFrames}, as frames are inserted at the
+     * end of the skipped block.
+     *
+     * @param recordClassName      The internal name of the record class
+     * @param frameInitializers    The initializers taking the values from the pending value frame
+     * @param assignedInitializers The initializers run instead for records constructed by the extended constructor
+     * @return The guarded initializers
+     */
+    public static InsnList guardFieldInitializers(String recordClassName, InsnList frameInitializers, InsnList assignedInitializers) {
+        LabelNode assigned = new LabelNode();
+        LabelNode end = new LabelNode();
+        // only this is known to keep its type across the original body
+        Object[] locals = {recordClassName};
+
+        InsnList instructions = new InsnList();
+        instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
+        instructions.add(new FieldInsnNode(Opcodes.GETFIELD, recordClassName, ASSIGNED_FIELD_NAME, Type.BOOLEAN_TYPE.getDescriptor()));
+        // two frames can't share an offset, so there is no second branch without initializers in it
+        instructions.add(new JumpInsnNode(Opcodes.IFNE, assignedInitializers.size() == 0 ? end : assigned));
+        instructions.add(frameInitializers);
+        if (assignedInitializers.size() != 0) {
+            instructions.add(new JumpInsnNode(Opcodes.GOTO, end));
+            instructions.add(assigned);
+            instructions.add(new FrameNode(Opcodes.F_NEW, locals.length, locals, 0, new Object[0]));
+            instructions.add(assignedInitializers);
+        }
+        instructions.add(end);
+        instructions.add(new FrameNode(Opcodes.F_NEW, locals.length, locals, 0, new Object[0]));
+        return instructions;
+    }
+
+    /**
+     * Rewrites the stack map frames of a method in their expanded form, unless they already are.
+     * Compressed frames are relative to the previous one, so frames can't be inserted among them without knowing every
+     * local of the method. Mixin hands out classes with expanded frames, those read by us are read expanded too, so this
+     * only round trips methods of classes read by others.
+     *
+     * @param classNode The class declaring the method
+     * @param method    The method
+     * @return The method with expanded frames, which replaced the given one in the class
+     */
+    public static MethodNode expandFrames(ClassNode classNode, MethodNode method) {
+        boolean compressed = false;
+        for (AbstractInsnNode node : method.instructions) {
+            if (node instanceof FrameNode frame && frame.type != Opcodes.F_NEW) {
+                compressed = true;
+                break;
+            }
+        }
+        if (!compressed)
+            return method;
+
+        ClassWriter writer = new ClassWriter(0);
+        writer.visit(classNode.version, classNode.access, classNode.name, null, classNode.superName, null);
+        method.accept(writer);
+        writer.visitEnd();
+        ClassNode expanded = new ClassNode();
+        new ClassReader(writer.toByteArray()).accept(expanded, ClassReader.EXPAND_FRAMES);
+        MethodNode expandedMethod = expanded.methods.getFirst();
+        classNode.methods.set(classNode.methods.indexOf(method), expandedMethod);
+        return expandedMethod;
+    }
+
     public static MethodNode ensureStaticInitializer(ClassNode classNode) {
         return BytecodeHelper.findMethod(classNode, Constants.CLINIT)
                 .orElseGet(() -> {
@@ -0,0 +1,137 @@
+package recordrecoder.impl.asm.util;
+
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import recordrecoder.impl.record.DerivedRecordComponentKeyImpl;
+import recordrecoder.impl.record.MutableKey;
+import recordrecoder.impl.record.RecordComponentKeyImpl;
+import recordrecoder.impl.utils.Constants;
+
+/**
+ * A key together with the names of the members generated for it on a transformed record.
+ *
+ * @param key          The key the members were generated for
+ * @param fieldName    The name of the generated component field, and of its getter
+ * @param keyFieldName The name of the generated static field holding the key
+ * @param slot         The position of the key among the extended components of the record
+ * @param packed       Whether the record stores its values packed, in which case there is no component field and
+ *                     the value is read through the getter
+ * @param bitShift     The lowest bit of the value in the bitfield of the record, or -1 if it is not stored there.
+ *                     Values in the bitfield have no component field either, and are read through the getter
+ * <p>
+ * Keys with lazy defaults have a field, of type Object as it holds a marker until the default is created, which is
+ * only read through the getter. Derived keys compute their value from the record under construction instead of
+ * taking a queued value or an argument.
+ */
+public record KeyedField(
+        RecordComponentKeyImpl<?> key,
+        String fieldName,
+        String keyFieldName,
+        int slot,
+        boolean packed,
+        int bitShift) {
+
+    /**
+     * @return Whether the value is stored in the bitfield of the record
+     */
+    public boolean inBitfield() {
+        return bitShift >= 0;
+    }
+
+    /**
+     * @return Whether the component has a field of its own
+     */
+    public boolean hasField() {
+        return !packed && !inBitfield();
+    }
+
+    /**
+     * @return Whether the component has a field creating its default value on the first read
+     */
+    public boolean lazy() {
+        return hasField() && key.getComponentOptions().lazyDefault();
+    }
+
+    /**
+     * @return Whether the value is computed from the vanilla components of the record
+     */
+    public boolean derived() {
+        return key instanceof DerivedRecordComponentKeyImpl<?, ?>;
+    }
+
+    /**
+     * @return Whether the component field is left non-final for the atomic operations of the key
+     */
+    public boolean mutable() {
+        return key instanceof MutableKey;
+    }
+
+    /**
+     * @return Whether the value can only be read through the getter
+     */
+    public boolean readThroughGetter() {
+        return !hasField() || lazy();
+    }
+
+    /**
+     * @return The type of the generated component field, Object for keys with lazy defaults
+     */
+    public Type storageType() {
+        return lazy() ? Constants.OBJECT : fieldType();
+    }
+
+    /**
+     * @return The name of the generated static field holding a handle on the component field of a key with a lazy
+     * default
+     */
+    public String handleFieldName() {
+        return fieldName + "$handle";
+    }
+
+    /**
+     * @return The type of the generated component field
+     */
+    public Type fieldType() {
+        return key.getFieldType();
+    }
+
+    /**
+     * @return The type of the generated static field holding the key
+     */
+    public Type keyType() {
+        return Type.getType(key.getKeyClass());
+    }
+
+    /**
+     * Creates an instruction replacing the instance on top of the stack with the value of the component.
+     *
+     * @param recordClassName The internal name of the record class
+     * @return A field read, or a getter call for components read through their getter
+     */
+    public AbstractInsnNode load(String recordClassName) {
+        if (readThroughGetter()) {
+            return new MethodInsnNode(Opcodes.INVOKEVIRTUAL, recordClassName, fieldName,
+                    Type.getMethodDescriptor(fieldType()), false);
+        }
+        return new FieldInsnNode(Opcodes.GETFIELD, recordClassName, fieldName, fieldType().getDescriptor());
+    }
+
+    /**
+     * Creates a constant method handle reading the value of the component, as the {@code ObjectMethods} bootstrap
+     * takes them.
+     *
+     * @param recordClassName The internal name of the record class
+     * @return A field getter handle, or a getter method handle for components read through their getter
+     */
+    public Handle getterHandle(String recordClassName) {
+        if (readThroughGetter()) {
+            return new Handle(Opcodes.H_INVOKEVIRTUAL, recordClassName, fieldName,
+                    Type.getMethodDescriptor(fieldType()), false);
+        }
+        return new Handle(Opcodes.H_GETFIELD, recordClassName, fieldName, fieldType().getDescriptor(), false);
+    }
+}
@@ -0,0 +1,13 @@
+package recordrecoder.impl.asm.util;
+
+/**
+ * Counters of the record transformer.
+ *
+ * @param checked            The number of classes offered to the transformer
+ * @param skipped            The number of offered classes rejected without being transformed
+ * @param transformed        The number of classes transformed
+ * @param cacheHits          The number of classes served from the transform cache instead of being transformed
+ * @param largestConstructor The largest bytecode size of a transformed canonical constructor, in bytes
+ */
+public record TransformStatistics(long checked, long skipped, long transformed, long cacheHits, long largestConstructor) {
+}
@@ -0,0 +1,31 @@
+package recordrecoder.impl.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Emitted when a key is registered, with the stack trace of the registering mod.
+ */
+@Name("recordrecoder.KeyRegistration")
+@Label("Key Registration")
+@Category("RecordRecoder")
+@Description("A record component key was registered")
+public final class KeyRegistrationEvent extends Event {
+    @Label("Target Class")
+    @Description("The internal name of the target record class")
+    public String targetClassName;
+
+    @Label("Field Name")
+    public String fieldName;
+
+    @Label("Component Type")
+    @Description("The descriptor of the generated component field")
+    public String componentType;
+
+    @Label("Key Id")
+    @Description("The dense id assigned to the key")
+    public int keyId;
+}
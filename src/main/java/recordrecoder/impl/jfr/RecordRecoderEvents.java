@@ -0,0 +1,50 @@
+package recordrecoder.impl.jfr;
+
+import jdk.jfr.FlightRecorder;
+import recordrecoder.impl.asm.RecordClassTransformer;
+import recordrecoder.impl.asm.util.TransformStatistics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Flight Recorder integration.
+ * <p>
+ * Transformations and registrations emit their own events, which cost a disabled check when not recorded.
+ * Key accesses are far too frequent to emit events for, so only their failure paths bump counters, which a
+ * periodic {@link RecordRecoderStatisticsEvent} reports. The periodic event is only computed while recorded.
+ */
+public final class RecordRecoderEvents {
+    /**
+     * Reads that threw because the key does not apply to the class of the instance.
+     */
+    public static final LongAdder KEY_MISMATCHES = new LongAdder();
+    /**
+     * Queued values that were replaced by another queued value or discarded, instead of being consumed.
+     */
+    public static final LongAdder UNCONSUMED_VALUES = new LongAdder();
+
+    private static boolean registered;
+
+    private RecordRecoderEvents() {
+    }
+
+    /**
+     * Registers the periodic statistics event. Registering more than once has no effect.
+     */
+    public static synchronized void register() {
+        if (registered)
+            return;
+        registered = true;
+        FlightRecorder.addPeriodicEvent(RecordRecoderStatisticsEvent.class, () -> {
+            RecordRecoderStatisticsEvent event = new RecordRecoderStatisticsEvent();
+            TransformStatistics statistics = RecordClassTransformer.statistics();
+            event.classesChecked = statistics.checked();
+            event.classesSkipped = statistics.skipped();
+            event.classesTransformed = statistics.transformed();
+            event.cacheHits = statistics.cacheHits();
+            event.keyMismatches = KEY_MISMATCHES.sum();
+            event.unconsumedValues = UNCONSUMED_VALUES.sum();
+            event.commit();
+        });
+    }
+}
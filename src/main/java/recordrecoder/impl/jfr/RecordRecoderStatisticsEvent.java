@@ -0,0 +1,40 @@
+package recordrecoder.impl.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+/**
+ * Periodically emitted with the counters of the transformer and of key accesses, see {@link RecordRecoderEvents}.
+ * All counters are totals since startup.
+ */
+@Name("recordrecoder.Statistics")
+@Label("RecordRecoder Statistics")
+@Category("RecordRecoder")
+@Period("10 s")
+@StackTrace(false)
+public final class RecordRecoderStatisticsEvent extends Event {
+    @Label("Classes Checked")
+    public long classesChecked;
+
+    @Label("Classes Skipped")
+    public long classesSkipped;
+
+    @Label("Classes Transformed")
+    public long classesTransformed;
+
+    @Label("Cache Hits")
+    public long cacheHits;
+
+    @Label("Key Mismatches")
+    @Description("Reads through a key that failed because the key does not apply to the record")
+    public long keyMismatches;
+
+    @Label("Unconsumed Values")
+    @Description("Queued values replaced or discarded before a record consumed them")
+    public long unconsumedValues;
+}
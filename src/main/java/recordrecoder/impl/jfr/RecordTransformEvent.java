@@ -0,0 +1,37 @@
+package recordrecoder.impl.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted for every record class the transformer implements keys on, spanning the whole transformation.
+ * Classes served from the transform cache or prepatched ahead of time are not transformed and emit nothing.
+ */
+@Name("recordrecoder.RecordTransform")
+@Label("Record Transform")
+@Category("RecordRecoder")
+@Description("A record class was transformed to implement its keys")
+@StackTrace(false)
+public final class RecordTransformEvent extends Event {
+    @Label("Class")
+    @Description("The internal name of the transformed record class")
+    public String className;
+
+    @Label("Key Count")
+    public int keyCount;
+
+    @Label("Bytecode Size Before")
+    @Description("The total code size of all methods before the transformation")
+    @DataAmount
+    public int bytecodeSizeBefore;
+
+    @Label("Bytecode Size After")
+    @Description("The total code size of all methods after the transformation")
+    @DataAmount
+    public int bytecodeSizeAfter;
+}
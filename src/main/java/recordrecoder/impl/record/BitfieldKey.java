@@ -0,0 +1,39 @@
+package recordrecoder.impl.record;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+import recordrecoder.impl.utils.asmhelpers.OwnedMethod;
+
+/**
+ * A key whose values can be stored as a few bits of a bitfield shared by the keys of a record.
+ * Values are encoded as non-negative ints below {@code 1 << getBitWidth()}.
+ */
+@ApiStatus.Internal
+public interface BitfieldKey {
+    /**
+     * @return The number of bits an encoded value takes
+     */
+    int getBitWidth();
+
+    /**
+     * Gets the method the generated constructors call to retrieve the next queued value, already encoded.
+     * It takes the pending value frame and returns an int or a boolean.
+     *
+     * @return The method retrieving the next encoded value
+     */
+    OwnedMethod getNextEncodedMethod();
+
+    /**
+     * Gets the method the generated extended constructor calls on an argument to encode it.
+     *
+     * @return The method encoding a value, or null if the value is its own encoding
+     */
+    @Nullable OwnedMethod getEncodeMethod();
+
+    /**
+     * Gets the method the generated getters call on the key to decode a value read from the bitfield.
+     *
+     * @return The method decoding a value, or null if the encoding is the value itself
+     */
+    @Nullable OwnedMethod getDecodeMethod();
+}
@@ -0,0 +1,91 @@
+package recordrecoder.impl.record;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.objectweb.asm.Type;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Where the values of the flag and small enum keys of a record are stored in its bitfield.
+ * <p>
+ * Keys are laid out in slot order, each at the lowest bits not taken by the keys before it. A key that is too wide,
+ * or no longer fits into 64 bits, keeps its own field. The bitfield is an {@code int} if its keys take at most 32 bits.
+ */
+@ApiStatus.Internal
+public final class BitfieldLayout {
+    /**
+     * The layout of records without a bitfield.
+     */
+    public static final BitfieldLayout NONE = new BitfieldLayout(new int[0], 0);
+
+    /**
+     * The lowest bit of the value of each slot, or -1 for slots outside the bitfield.
+     */
+    private final int[] shifts;
+    private final int bits;
+
+    private BitfieldLayout(int[] shifts, int bits) {
+        this.shifts = shifts;
+        this.bits = bits;
+    }
+
+    /**
+     * Lays out the bitfield of a record.
+     *
+     * @param keys        The keys of the record, in slot order
+     * @param maxEnumBits The widest key stored in the bitfield
+     * @return The layout, {@link #NONE} if no key is stored in the bitfield
+     */
+    static BitfieldLayout of(List<RecordComponentKeyImpl<?>> keys, int maxEnumBits) {
+        int[] shifts = new int[keys.size()];
+        Arrays.fill(shifts, -1);
+        int bits = 0;
+        for (int slot = 0; slot < shifts.length; slot++) {
+            if (keys.get(slot) instanceof BitfieldKey key
+                    && key.getBitWidth() <= maxEnumBits
+                    && bits + key.getBitWidth() <= Long.SIZE) {
+                shifts[slot] = bits;
+                bits += key.getBitWidth();
+            }
+        }
+        return bits == 0 ? NONE : new BitfieldLayout(shifts, bits);
+    }
+
+    /**
+     * @return Whether no key is stored in the bitfield, so the record has none
+     */
+    public boolean isEmpty() {
+        return bits == 0;
+    }
+
+    /**
+     * @param slot The slot of a key
+     * @return Whether the value of the key is stored in the bitfield
+     */
+    public boolean contains(int slot) {
+        return slot < shifts.length && shifts[slot] >= 0;
+    }
+
+    /**
+     * @param slot The slot of a key stored in the bitfield
+     * @return The lowest bit of its value
+     */
+    public int shift(int slot) {
+        return shifts[slot];
+    }
+
+    /**
+     * @return The number of keys stored in the bitfield
+     */
+    public int keyCount() {
+        return (int) Arrays.stream(shifts).filter(shift -> shift >= 0).count();
+    }
+
+    /**
+     * @return The type of the bitfield, int or long
+     */
+    public Type type() {
+        return bits <= Integer.SIZE ? Type.INT_TYPE : Type.LONG_TYPE;
+    }
+}
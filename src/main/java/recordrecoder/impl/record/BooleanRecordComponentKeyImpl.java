@@ -0,0 +1,148 @@
+package recordrecoder.impl.record;
+
+import org.jetbrains.annotations.Nullable;
+import recordrecoder.api.record.ComponentOptions;
+import recordrecoder.api.record.BooleanRecordComponentKey;
+import recordrecoder.impl.utils.Constants;
+import recordrecoder.impl.utils.asmhelpers.OwnedMethod;
+
+/**
+ * Implementation of {@link BooleanRecordComponentKey}, backed by a real {@code boolean} field on the target record,
+ * or by a single bit of the bitfield of records configured with bitfields.
+ */
+public non-sealed class BooleanRecordComponentKeyImpl extends PrimitiveRecordComponentKeyImpl<Boolean> implements BooleanRecordComponentKey, BitfieldKey {
+    /**
+     * Constructs a new BooleanRecordComponentKeyImpl.
+     *
+     * @param fieldName       The name of the field this key represents
+     * @param targetClassName The internal name of the target record class
+     * @param defaultValue    The value used when none was queued
+     */
+    public BooleanRecordComponentKeyImpl(String fieldName, String targetClassName, boolean defaultValue) {
+        this(fieldName, targetClassName, defaultValue, ComponentOptions.DEFAULT);
+    }
+
+    /**
+     * Constructs a new BooleanRecordComponentKeyImpl.
+     *
+     * @param fieldName       The name of the field this key represents
+     * @param targetClassName The internal name of the target record class
+     * @param defaultValue    The value used when none was queued
+     * @param options         How the component takes part in the object methods of the record
+     * @throws IllegalArgumentException If the options use an equality strategy other than the value one
+     */
+    public BooleanRecordComponentKeyImpl(String fieldName, String targetClassName, boolean defaultValue, ComponentOptions options) {
+        super(fieldName, targetClassName, boolean.class, defaultValue, toBits(defaultValue), options);
+    }
+
+    /**
+     * Constructs a copy of a key that has not been registered yet, for {@link SpecializedKeys}.
+     *
+     * @param key The key to copy
+     */
+    protected BooleanRecordComponentKeyImpl(BooleanRecordComponentKeyImpl key) {
+        super(key);
+    }
+
+    @Override
+    protected Boolean read(ComponentAccessor accessor, Record instance) {
+        return ((ComponentAccessor.OfBoolean) accessor).getBoolean(instance);
+    }
+
+    @Override
+    public <I extends Record> boolean getBoolean(I instance) throws KeyMismatchException, IllegalStateException {
+        return ((ComponentAccessor.OfBoolean) readableAccessor(instance)).getBoolean(instance);
+    }
+
+    @Override
+    public <I extends Record> boolean getBooleanOrDefault(@Nullable I instance, boolean defaultValue) {
+        ComponentAccessor accessor = applicableAccessor(instance);
+        return accessor != null ? ((ComponentAccessor.OfBoolean) accessor).getBoolean(instance) : defaultValue;
+    }
+
+    @Override
+    public void queueNext(Boolean value) {
+        queueNextBoolean(value);
+    }
+
+    @Override
+    public void queueNextBoolean(boolean value) {
+        queueNextBits(toBits(value));
+    }
+
+    @Override
+    public Boolean getNext(PendingValues frame) {
+        return getNextBoolean(frame);
+    }
+
+    /**
+     * Retrieves and clears the next queued value for this component.
+     * Used in ASM generated field initializers.
+     *
+     * @param frame The pending value frame of the current thread
+     * @return The next queued value, or the default value if none was queued
+     */
+    public boolean getNextBoolean(PendingValues frame) {
+        return fromBits(getNextBits(frame));
+    }
+
+    @Override
+    public OwnedMethod getNextMethod() {
+        return Constants.BOOLEAN_RECORD_COMPONENT_KEY_IMPL$GET_NEXT_BOOLEAN;
+    }
+
+    /**
+     * Reads the value of this component from the packed values of a record without boxing the default.
+     * Used in ASM generated getters of packed records.
+     *
+     * @param packed The packed values of the instance
+     * @param slot   The position of this key among the extended components of the record
+     * @return The value, or the default value if none is held
+     */
+    public boolean unpackBoolean(PackedValues packed, int slot) {
+        return packed.has(slot) ? (Boolean) packed.get(slot) : fromBits(defaultBits());
+    }
+
+    @Override
+    Boolean boxBits(long bits) {
+        return fromBits(bits);
+    }
+
+    @Override
+    public OwnedMethod getUnpackMethod() {
+        return Constants.BOOLEAN_RECORD_COMPONENT_KEY_IMPL$UNPACK_BOOLEAN;
+    }
+
+    @Override
+    public int getBitWidth() {
+        return 1;
+    }
+
+    @Override
+    public OwnedMethod getNextEncodedMethod() {
+        return Constants.BOOLEAN_RECORD_COMPONENT_KEY_IMPL$GET_NEXT_BOOLEAN;
+    }
+
+    @Override
+    public @Nullable OwnedMethod getEncodeMethod() {
+        return null;
+    }
+
+    @Override
+    public @Nullable OwnedMethod getDecodeMethod() {
+        return null;
+    }
+
+    @Override
+    public OwnedMethod getQueueNextMethod() {
+        return Constants.BOOLEAN_RECORD_COMPONENT_KEY_IMPL$QUEUE_NEXT_BOOLEAN;
+    }
+
+    private static long toBits(boolean value) {
+        return value ? 1L : 0L;
+    }
+
+    private static boolean fromBits(long bits) {
+        return bits != 0L;
+    }
+}
@@ -0,0 +1,147 @@
+package recordrecoder.impl.record;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Reads a single generated component field from instances of one transformed record class.
+ * <p>
+ * Each key is bound to a hidden subclass of one of the per-shape classes below, generated when the target record
+ * initializes and defined as a nestmate of it. The subclass implements the read of its shape with a direct
+ * {@code getfield}.
+ * <p>
+ * Every key of a shape calls its accessor from the same call site, which the JIT only inlines while at most two
+ * accessors of that shape are in use. Keys created through {@link SpecializedKeys} resolve their accessor through a
+ * call site of their own instead, linked to the accessor as a constant, so the accessor of a constant key is inlined
+ * however many keys are in use. {@code recordrecoder.jmh.GetterBenchmark} measures both against plain field reads.
+ * <p>
+ * The subclass also implements {@link #copy(Object, Object[])} by forwarding to the copy method generated on the
+ * record, which rebuilds an instance from its own fields, replacing only the extended values that were given.
+ * Subclasses bound to mutable keys also implement {@link Mutable}.
+ */
+@ApiStatus.Internal
+public abstract class ComponentAccessor {
+    /**
+     * Marks an extended value that a copy keeps from the original instance.
+     */
+    public static final Object UNCHANGED = new Object();
+
+    final Class<?> recordClass;
+    /**
+     * Position of the key among the extended components of the record.
+     */
+    final int slot;
+    private final int keyCount;
+
+    protected ComponentAccessor(Class<?> recordClass, int slot, int keyCount) {
+        this.recordClass = recordClass;
+        this.slot = slot;
+        this.keyCount = keyCount;
+    }
+
+    /**
+     * Creates the values array for {@link #copy(Object, Object[])}, keeping every extended value.
+     *
+     * @return An array holding {@link #UNCHANGED} once per key of the record
+     */
+    final Object[] unchangedValues() {
+        Object[] values = new Object[keyCount];
+        Arrays.fill(values, UNCHANGED);
+        return values;
+    }
+
+    /**
+     * Copies an instance, replacing the extended values that are not {@link #UNCHANGED}.
+     *
+     * @param instance The instance to copy, of the record class this accessor reads from
+     * @param values   One value per key of the record, in the order of its extended components
+     * @return The copy
+     */
+    public abstract Record copy(Object instance, Object[] values);
+
+    /**
+     * Picks the value a copy assigns to a reference component.
+     * Used in ASM generated copy methods.
+     *
+     * @param value   The value given for the copy, or {@link #UNCHANGED}
+     * @param current The value of the original instance
+     * @return The value to assign
+     */
+    public static Object pick(Object value, Object current) {
+        return value == UNCHANGED ? current : value;
+    }
+
+    public static int pickInt(Object value, int current) {
+        return value == UNCHANGED ? current : (Integer) value;
+    }
+
+    public static long pickLong(Object value, long current) {
+        return value == UNCHANGED ? current : (Long) value;
+    }
+
+    public static double pickDouble(Object value, double current) {
+        return value == UNCHANGED ? current : (Double) value;
+    }
+
+    public static boolean pickBoolean(Object value, boolean current) {
+        return value == UNCHANGED ? current : (Boolean) value;
+    }
+
+    /**
+     * Reads a reference component, or a primitive one without a specialized key.
+     */
+    public abstract static class OfObject extends ComponentAccessor {
+        protected OfObject(Class<?> recordClass, int slot, int keyCount) {
+            super(recordClass, slot, keyCount);
+        }
+
+        public abstract Object get(Object instance);
+    }
+
+    public abstract static class OfInt extends ComponentAccessor {
+        protected OfInt(Class<?> recordClass, int slot, int keyCount) {
+            super(recordClass, slot, keyCount);
+        }
+
+        public abstract int getInt(Object instance);
+    }
+
+    public abstract static class OfLong extends ComponentAccessor {
+        protected OfLong(Class<?> recordClass, int slot, int keyCount) {
+            super(recordClass, slot, keyCount);
+        }
+
+        public abstract long getLong(Object instance);
+    }
+
+    public abstract static class OfDouble extends ComponentAccessor {
+        protected OfDouble(Class<?> recordClass, int slot, int keyCount) {
+            super(recordClass, slot, keyCount);
+        }
+
+        public abstract double getDouble(Object instance);
+    }
+
+    public abstract static class OfBoolean extends ComponentAccessor {
+        protected OfBoolean(Class<?> recordClass, int slot, int keyCount) {
+            super(recordClass, slot, keyCount);
+        }
+
+        public abstract boolean getBoolean(Object instance);
+    }
+
+    /**
+     * Implemented by the accessors of mutable keys, which are defined with a {@link VarHandle} on their field as
+     * class data.
+     */
+    public interface Mutable {
+        /**
+         * Gets the handle on the component field, returned as a constant.
+         *
+         * @return The handle on the field
+         */
+        VarHandle handle();
+    }
+}
@@ -1,10 +1,16 @@
 package recordrecoder.impl.record;
 
-import com.google.common.collect.HashBiMap;
+import net.fabricmc.loader.api.FabricLoader;
+import net.fabricmc.loader.api.MappingResolver;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 import recordrecoder.api.record.ComponentKeyRegistry;
 import recordrecoder.api.record.RecordComponentKey;
+import recordrecoder.api.record.RecordOptions;
+import recordrecoder.impl.RecordRecoder;
+import recordrecoder.impl.jfr.KeyRegistrationEvent;
 
+import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -12,43 +18,171 @@ import java.util.List;
 
 import static recordrecoder.impl.utils.asmhelpers.ClassNameHelper.toInternalName;
 
+/**
+ * Implementation of the ComponentKeyRegistry interface.
+ * <p>
+ * Keys are collected under a lock during the registration phase. Freezing the registry builds an immutable
+ * {@link KeySnapshotImpl}, which serves every read from then on without locking, including the lookups made
+ * by generated static initializers on whichever thread loads a record class. Registering after the freeze fails.
+ */
 public class ComponentKeyRegistryImpl implements ComponentKeyRegistry {
-    final HashMap<String, List<RecordComponentKeyImpl<?>>> componentKeys = new HashMap<>();
+    private final Object lock = new Object();
 
-    final HashBiMap<RecordComponentKeyImpl<?>, String> componentKeyNames = HashBiMap.create();
+    private final HashMap<String, List<RecordComponentKeyImpl<?>>> componentKeys = new HashMap<>();
+
+    private final HashMap<String, RecordComponentKeyImpl<?>> declaredKeys = new HashMap<>();
+
+    private final HashMap<String, RecordOptions> options = new HashMap<>();
+
+    private int keyCount;
+
+    private volatile @Nullable KeySnapshotImpl snapshot;
+
+    private volatile @Nullable MappingResolver mappingResolver;
+
+    private final ClassValue<RecordFactoryImpl<?>> factories = new ClassValue<>() {
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        protected RecordFactoryImpl<?> computeValue(Class<?> type) {
+            return new RecordFactoryImpl(type, getForClass(type));
+        }
+    };
 
     /**
      * Registers a record component key with the system.
      *
      * <p>This method adds the provided key to an internal collection of keys organized by target class.
-     * If the target class already has registered keys, the new key is added to the existing collection
-     * and the keys are sorted alphabetically by field name. If this is the first key for the target class,
-     * a new collection is created.</p>
+     * Keys are sorted alphabetically by field name once, when the registry is frozen.
+     * Registering the same key again has no effect.</p>
+     *
+     * <p>Each key is assigned the next dense id, used to index the per-thread pending value frame.</p>
      *
      * @param <Q> The type of record component key extending RecordComponentKey<T>
      * @param <T> The type associated with the record component key
      * @param key The record component key to register
      * @return The registered key (same instance that was passed in)
+     * @throws IllegalStateException If the registry has already been frozen
      */
     @SuppressWarnings("unchecked")
     @Override
     public <Q extends RecordComponentKey<T>, T> Q register(Q key) {
         RecordComponentKeyImpl<T> keyImpl = (RecordComponentKeyImpl<T>) key;
-        var prior = componentKeys.get(keyImpl.getTargetClassName());
-        if (prior == null) {
-            componentKeys.put(
-                    toInternalName(keyImpl.getTargetClassName()),
-                    new ArrayList<>(
-                            List.of(keyImpl)
-                    )
-            );
+        synchronized (lock) {
+            if (snapshot != null)
+                throw new IllegalStateException("Cannot register RecordComponentKey " + keyImpl.getFieldName() + " after the registry has been frozen");
+            if (keyImpl.getId() >= 0)
+                return key;
+            keyImpl.assignId(keyCount++);
+            componentKeys.computeIfAbsent(toInternalName(keyImpl.getTargetClassName()), className -> new ArrayList<>())
+                    .add(keyImpl);
+        }
+        KeyRegistrationEvent event = new KeyRegistrationEvent();
+        if (event.shouldCommit()) {
+            event.targetClassName = keyImpl.getTargetClassName();
+            event.fieldName = keyImpl.getFieldName();
+            event.componentType = keyImpl.getFieldType().getDescriptor();
+            event.keyId = keyImpl.getId();
+            event.commit();
+        }
+        return key;
+    }
+
+    @Override
+    public void configure(String targetClassName, RecordOptions options) {
+        synchronized (lock) {
+            if (snapshot != null)
+                throw new IllegalStateException("Cannot configure " + targetClassName + " after the registry has been frozen");
+            this.options.put(toInternalName(targetClassName), options);
+        }
+    }
+
+    /**
+     * Registers a key declared in mod metadata under the name it is looked up by.
+     *
+     * @param id  The name of the key, {@code <mod id>:<key id>}
+     * @param key The declared key
+     * @throws IllegalArgumentException If another key was declared under the same name
+     * @throws IllegalStateException    If the registry has already been frozen
+     */
+    @ApiStatus.Internal
+    public void registerDeclared(String id, RecordComponentKeyImpl<?> key) {
+        synchronized (lock) {
+            if (declaredKeys.containsKey(id))
+                throw new IllegalArgumentException("Key " + id + " is declared more than once");
+            register(key);
+            declaredKeys.put(id, key);
+        }
+    }
+
+    @Override
+    public RecordComponentKeyImpl<?> getDeclaredKey(String id) {
+        KeySnapshotImpl snapshot = this.snapshot;
+        RecordComponentKeyImpl<?> key;
+        if (snapshot != null) {
+            key = snapshot.getDeclaredKey(id);
         } else {
-            prior.add(keyImpl);
-            prior.sort(Comparator.comparing(RecordComponentKeyImpl::getFieldName));
+            synchronized (lock) {
+                key = declaredKeys.get(id);
+            }
         }
+        if (key == null)
+            throw new IllegalArgumentException("No key is declared as " + id);
         return key;
     }
 
+    /**
+     * Ends the registration phase, building the immutable snapshot all further reads are served from.
+     * Freezing an already frozen registry returns the existing snapshot.
+     *
+     * @return The snapshot of the registered keys
+     * @throws IllegalStateException If a record caching its hash code has a mutable key included in its equality
+     */
+    @Override
+    public KeySnapshotImpl freeze() {
+        KeySnapshotImpl snapshot = this.snapshot;
+        if (snapshot != null)
+            return snapshot;
+        synchronized (lock) {
+            if (this.snapshot == null) {
+                this.snapshot = new KeySnapshotImpl(componentKeys, keyCount, declaredKeys, options);
+                RecordRecoder.LOGGER.info("Froze {} record component keys for {} classes", keyCount, componentKeys.size());
+            }
+            return this.snapshot;
+        }
+    }
+
+    @Override
+    public MappingResolver getMappingResolver() {
+        MappingResolver mappingResolver = this.mappingResolver;
+        return mappingResolver != null ? mappingResolver : FabricLoader.getInstance().getMappingResolver();
+    }
+
+    /**
+     * Replaces the mapping resolver of {@code FabricLoader}, for registrations run outside of the game.
+     *
+     * @param mappingResolver The resolver mapping class names to the namespace the records are transformed in
+     */
+    @ApiStatus.Internal
+    public void setMappingResolver(MappingResolver mappingResolver) {
+        this.mappingResolver = mappingResolver;
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return snapshot != null;
+    }
+
+    /**
+     * Gets the snapshot transformations and generated code read from, freezing the registry if needed.
+     *
+     * @return The snapshot of the registered keys
+     */
+    @ApiStatus.Internal
+    public KeySnapshotImpl snapshot() {
+        KeySnapshotImpl snapshot = this.snapshot;
+        return snapshot != null ? snapshot : freeze();
+    }
+
     /**
      * Retrieves record component keys for a specified class.
      *
@@ -68,31 +202,72 @@ public class ComponentKeyRegistryImpl implements ComponentKeyRegistry {
      */
     @Override
     public List<RecordComponentKeyImpl<?>> getForClass(String className) {
-        return componentKeys.getOrDefault(toInternalName(className), List.of());
+        KeySnapshotImpl snapshot = this.snapshot;
+        if (snapshot != null)
+            return snapshot.getForClass(className);
+        synchronized (lock) {
+            List<RecordComponentKeyImpl<?>> keys = componentKeys.get(toInternalName(className));
+            if (keys == null)
+                return List.of();
+            return keys.stream()
+                    .sorted(Comparator.comparing(RecordComponentKeyImpl::getFieldName))
+                    .toList();
+        }
     }
 
     /**
-    Warning: Do not be an absolute fool like me and remove this method!
-     This is used in our asm code, removing this will make the jvm very angry, very fast!
-    **/
-    @ApiStatus.Internal
-    @SuppressWarnings("unused")
-    public String getNameForKey(RecordComponentKeyImpl<?> key) {
-        return componentKeyNames.get(key);
+     * Gets the reusable factory for a transformed record class.
+     * Factories are created once per class and cached alongside it.
+     *
+     * @param <R>         The record type
+     * @param recordClass The transformed record class
+     * @return The factory for the record class
+     * @throws IllegalArgumentException If no keys are registered for the record class
+     * @throws IllegalStateException    If the record class has not been transformed
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R extends Record> RecordFactoryImpl<R> factoryFor(Class<R> recordClass) {
+        return (RecordFactoryImpl<R>) factories.get(recordClass);
     }
 
     /**
-     Warning: Do not be an absolute fool like me and remove this method!
-     This is used in our asm code, removing this will make the jvm very angry, very fast!
-     **/
+     * Gets the number of keys registered so far, which is also the next dense id to be assigned.
+     *
+     * @return The number of registered keys
+     */
     @ApiStatus.Internal
-    @SuppressWarnings("unused")
-    public RecordComponentKeyImpl<?> getKeyForName(String name) {
-        return componentKeyNames.inverse().get(name);
+    public int keyCount() {
+        KeySnapshotImpl snapshot = this.snapshot;
+        if (snapshot != null)
+            return snapshot.keyCount();
+        synchronized (lock) {
+            return keyCount;
+        }
     }
 
+    /**
+     * Binds the accessors of every key of a transformed record in one call from its static initializer.
+     * Keys without a field of their own, packed or in the bitfield, and keys with lazy defaults are read through
+     * their getter.
+     *
+     * @param lookup The full privilege lookup of the record class
+     * @return The keys in slot order, stored in their static fields and, for packed records, used by the constructor
+     *         to pack their values
+     */
     @ApiStatus.Internal
-    public void registerNameForKey(RecordComponentKeyImpl<?> key, String name) {
-        componentKeyNames.put(key, name);
+    @SuppressWarnings("unused") // used in asm generated static initializers
+    public RecordComponentKeyImpl<?>[] bindKeys(MethodHandles.Lookup lookup) {
+        KeySnapshotImpl snapshot = snapshot();
+        String className = toInternalName(lookup.lookupClass().getName());
+        List<RecordComponentKeyImpl<?>> keys = snapshot.getForInternalName(className);
+        boolean packed = snapshot.isPacked(className);
+        BitfieldLayout bitfield = snapshot.getBitfieldLayout(className);
+        RecordComponentKeyImpl<?>[] bound = keys.toArray(new RecordComponentKeyImpl<?>[0]);
+        for (int slot = 0; slot < bound.length; slot++) {
+            bound[slot].bindAccessor(lookup, snapshot.getFieldName(bound[slot]), slot, bound.length,
+                    packed || bitfield.contains(slot) || bound[slot].getComponentOptions().lazyDefault());
+        }
+        return bound;
     }
 }
@@ -0,0 +1,249 @@
+package recordrecoder.impl.record;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import net.fabricmc.loader.api.MappingResolver;
+import net.fabricmc.loader.api.ModContainer;
+import net.fabricmc.loader.api.metadata.CustomValue;
+import org.jetbrains.annotations.Nullable;
+import recordrecoder.api.record.ComponentOptions;
+import recordrecoder.impl.utils.Constants;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static recordrecoder.impl.utils.asmhelpers.ClassNameHelper.toBinaryName;
+import static recordrecoder.impl.utils.asmhelpers.ClassNameHelper.toInternalName;
+
+/**
+ * Creates the keys declared in the {@code recordrecoder:keys} block of {@code fabric.mod.json} files.
+ * <p>
+ * Declarations are read from the already parsed mod metadata, so no class of the declaring mod is loaded.
+ * Each declaration is an object with the following members:
+ * <ul>
+ *   <li>{@code target}: the target record class</li>
+ *   <li>{@code name}: the field name of the key</li>
+ *   <li>{@code type}: the component type, either {@code int}, {@code long}, {@code double}, {@code boolean},
+ *   or a class name</li>
+ *   <li>{@code default} (optional): a string, number, boolean or null literal used as the default value, which must
+ *   be an instance of the component type</li>
+ *   <li>{@code defaultFactory} (optional): a static no-argument method providing default values,
+ *   as {@code owner.Class::method}, only resolved once a default value is first needed</li>
+ *   <li>{@code equality} (optional): {@code value}, {@code identity}, {@code array_content} or {@code excluded},
+ *   how the component takes part in {@code equals} and {@code hashCode}, {@code value} by default</li>
+ *   <li>{@code toString} (optional): whether the component is printed by {@code toString}, true by default</li>
+ *   <li>{@code namespace} (optional): the mapping namespace of the class names, {@code intermediary} by default</li>
+ *   <li>{@code id} (optional): the name the key is looked up by, the field name by default</li>
+ * </ul>
+ * Declared keys are registered under {@code <mod id>:<id>}, see
+ * {@link recordrecoder.api.record.ComponentKeyRegistry#getDeclaredKey(String)}.
+ */
+public final class DeclaredKeyLoader {
+    private static final String DEFAULT_NAMESPACE = "intermediary";
+
+    private final MappingResolver mappingResolver;
+    /**
+     * Remapped class names by namespace and name, as declarations of the same mod tend to share their targets.
+     */
+    private final Map<String, String> mappedNames = new HashMap<>();
+
+    public DeclaredKeyLoader(MappingResolver mappingResolver) {
+        this.mappingResolver = mappingResolver;
+    }
+
+    /**
+     * Creates and registers the keys declared by a set of mods.
+     *
+     * @param mods     The mods to read declarations from
+     * @param registry The registry to register the keys with
+     * @return The number of declared keys
+     * @throws IllegalArgumentException If a declaration is malformed
+     */
+    public int registerAll(Collection<ModContainer> mods, ComponentKeyRegistryImpl registry) {
+        int count = 0;
+        for (ModContainer mod : mods) {
+            if (mod.getMetadata().containsCustomValue(Constants.KEYS_CUSTOM_VALUE))
+                count += register(mod.getMetadata().getId(), mod.getMetadata().getCustomValue(Constants.KEYS_CUSTOM_VALUE), registry);
+        }
+        return count;
+    }
+
+    /**
+     * Creates and registers the keys declared by one mod.
+     *
+     * @param modId        The id of the declaring mod
+     * @param declarations The value of its {@code recordrecoder:keys} block
+     * @param registry     The registry to register the keys with
+     * @return The number of declared keys
+     * @throws IllegalArgumentException If a declaration is malformed
+     */
+    public int register(String modId, CustomValue declarations, ComponentKeyRegistryImpl registry) {
+        if (declarations.getType() != CustomValue.CvType.ARRAY)
+            throw new IllegalArgumentException("Mod " + modId + " declares " + Constants.KEYS_CUSTOM_VALUE + " as something else than an array");
+        int count = 0;
+        for (CustomValue declaration : declarations.getAsArray()) {
+            if (declaration.getType() != CustomValue.CvType.OBJECT)
+                throw new IllegalArgumentException("Mod " + modId + " declares a key as something else than an object");
+            CustomValue.CvObject object = declaration.getAsObject();
+            String id = optionalString(object, "id", modId);
+            registry.registerDeclared(modId + ":" + (id != null ? id : requireString(object, "name", modId)), create(object, modId));
+            count++;
+        }
+        return count;
+    }
+
+    private RecordComponentKeyImpl<?> create(CustomValue.CvObject declaration, String modId) {
+        String namespace = optionalString(declaration, "namespace", modId);
+        if (namespace == null)
+            namespace = DEFAULT_NAMESPACE;
+        String target = toInternalName(map(namespace, requireString(declaration, "target", modId)));
+        String name = requireString(declaration, "name", modId);
+        String type = requireString(declaration, "type", modId);
+        CustomValue defaultValue = declaration.containsKey("default") ? declaration.get("default") : null;
+        ComponentOptions options = options(declaration, modId);
+        try {
+            return switch (type) {
+                case "int" -> SpecializedKeys.specialize(new IntRecordComponentKeyImpl(name, target, defaultValue != null ? defaultValue.getAsNumber().intValue() : 0, options));
+                case "long" -> SpecializedKeys.specialize(new LongRecordComponentKeyImpl(name, target, defaultValue != null ? defaultValue.getAsNumber().longValue() : 0L, options));
+                case "double" -> SpecializedKeys.specialize(new DoubleRecordComponentKeyImpl(name, target, defaultValue != null ? defaultValue.getAsNumber().doubleValue() : 0D, options));
+                case "boolean" -> SpecializedKeys.specialize(new BooleanRecordComponentKeyImpl(name, target, defaultValue != null && defaultValue.getAsBoolean(), options));
+                default -> {
+                    String componentClassName = type.startsWith("[") ? type : map(namespace, type);
+                    yield SpecializedKeys.specialize(new RecordComponentKeyImpl<>(name, target, componentClassName,
+                            defaultSupplier(declaration, componentClassName, defaultValue, modId), options));
+                }
+            };
+        } catch (ClassCastException e) {
+            throw new IllegalArgumentException("Mod " + modId + " declares key " + name + " with a default value not matching its type " + type, e);
+        }
+    }
+
+    private static ComponentOptions options(CustomValue.CvObject declaration, String modId) {
+        ComponentOptions options = ComponentOptions.DEFAULT;
+        String equality = optionalString(declaration, "equality", modId);
+        if (equality != null) {
+            options = switch (equality) {
+                case "value" -> options;
+                case "identity" -> options.withIdentityEquality();
+                case "array_content" -> options.withArrayContentEquality();
+                case "excluded" -> options.excludedFromEquality();
+                default -> throw new IllegalArgumentException("Mod " + modId + " declares the unknown equality " + equality);
+            };
+        }
+        if (declaration.containsKey("toString")) {
+            CustomValue printed = declaration.get("toString");
+            if (printed.getType() != CustomValue.CvType.BOOLEAN)
+                throw new IllegalArgumentException("Mod " + modId + " declares toString of a key as something else than a boolean");
+            if (!printed.getAsBoolean())
+                options = options.excludedFromToString();
+        }
+        return options;
+    }
+
+    private Supplier<Object> defaultSupplier(CustomValue.CvObject declaration, String componentClassName,
+                                             @Nullable CustomValue defaultValue, String modId) {
+        String factory = optionalString(declaration, "defaultFactory", modId);
+        if (factory != null) {
+            Supplier<MethodHandle> handle = Suppliers.memoize(() -> resolveFactory(factory));
+            return () -> {
+                try {
+                    return handle.get().invoke();
+                } catch (Throwable e) {
+                    throw new RuntimeException("Default value factory " + factory + " failed", e);
+                }
+            };
+        }
+        Object value = defaultValue != null ? literal(defaultValue, toBinaryName(componentClassName), modId) : null;
+        return () -> value;
+    }
+
+    /**
+     * Converts a default value literal to the boxed type of the component, so numbers can be declared for any
+     * boxed numeric component, and checks that the component type accepts it.
+     */
+    private static @Nullable Object literal(CustomValue value, String componentClassName, String modId) {
+        Object literal = switch (value.getType()) {
+            case NULL -> null;
+            case STRING -> value.getAsString();
+            case BOOLEAN -> value.getAsBoolean();
+            case NUMBER -> switch (componentClassName) {
+                case "java.lang.Integer" -> value.getAsNumber().intValue();
+                case "java.lang.Long" -> value.getAsNumber().longValue();
+                case "java.lang.Double" -> value.getAsNumber().doubleValue();
+                case "java.lang.Float" -> value.getAsNumber().floatValue();
+                case "java.lang.Short" -> value.getAsNumber().shortValue();
+                case "java.lang.Byte" -> value.getAsNumber().byteValue();
+                default -> value.getAsNumber();
+            };
+            default -> throw new IllegalArgumentException("Mod " + modId + " declares a default value that is not a literal, use defaultFactory instead");
+        };
+        if (literal != null && !acceptsLiteral(componentClassName, literal))
+            throw new IllegalArgumentException("Mod " + modId + " declares the default value " + literal + " for a key of type " + componentClassName + ", use defaultFactory instead");
+        return literal;
+    }
+
+    /**
+     * Checks whether a literal is an instance of the component type.
+     * Literals are strings, booleans and numbers, which are only instances of {@code java.} classes, so other
+     * component classes are rejected without loading them before their mixins are applied.
+     */
+    private static boolean acceptsLiteral(String componentClassName, Object literal) {
+        if (!componentClassName.startsWith("java."))
+            return false;
+        try {
+            return Class.forName(componentClassName, false, ClassLoader.getPlatformClassLoader()).isInstance(literal);
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static MethodHandle resolveFactory(String factory) {
+        int separator = factory.indexOf("::");
+        if (separator < 0)
+            throw new IllegalArgumentException("Default value factory " + factory + " is not of the form owner.Class::method");
+        try {
+            Class<?> owner = Class.forName(toBinaryName(factory.substring(0, separator)));
+            String methodName = factory.substring(separator + 2);
+            for (Method method : owner.getDeclaredMethods()) {
+                if (method.getName().equals(methodName) && method.getParameterCount() == 0
+                        && Modifier.isStatic(method.getModifiers())) {
+                    return MethodHandles.publicLookup().unreflect(method)
+                            .asType(MethodType.methodType(Object.class));
+                }
+            }
+            throw new IllegalArgumentException("Default value factory " + factory + " does not name a static method without parameters");
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to resolve default value factory " + factory, e);
+        }
+    }
+
+    private String map(String namespace, String className) {
+        String binaryName = toBinaryName(className);
+        if (binaryName.startsWith("java."))
+            return binaryName;
+        return mappedNames.computeIfAbsent(namespace + ' ' + binaryName,
+                key -> mappingResolver.mapClassName(namespace, binaryName));
+    }
+
+    private static String requireString(CustomValue.CvObject declaration, String member, String modId) {
+        String value = optionalString(declaration, member, modId);
+        if (value == null)
+            throw new IllegalArgumentException("Mod " + modId + " declares a key without " + member);
+        return value;
+    }
+
+    private static @Nullable String optionalString(CustomValue.CvObject declaration, String member, String modId) {
+        if (!declaration.containsKey(member))
+            return null;
+        CustomValue value = declaration.get(member);
+        if (value.getType() != CustomValue.CvType.STRING)
+            throw new IllegalArgumentException("Mod " + modId + " declares " + member + " of a key as something else than a string");
+        return value.getAsString();
+    }
+}
@@ -0,0 +1,135 @@
+package recordrecoder.impl.record;
+
+import org.jetbrains.annotations.ApiStatus;
+import recordrecoder.api.record.ComponentOptions;
+import recordrecoder.impl.utils.Constants;
+import recordrecoder.impl.utils.asmhelpers.OwnedMethod;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A key whose value is computed from the record it belongs to, after the original canonical constructor assigned
+ * the vanilla components.
+ * <p>
+ * Values are never taken from the pending value frame or from the arguments of the extended constructor, the
+ * generated constructors compute them instead, so a copy always holds the value derived from its own components.
+ * Keys with {@link ComponentOptions#lazyDefault()} compute their value on the first read instead.
+ *
+ * @param <R> The type of the target record
+ * @param <T> The type of the record component this key represents
+ */
+public class DerivedRecordComponentKeyImpl<R extends Record, T> extends RecordComponentKeyImpl<T> {
+    private final Function<? super R, ? extends T> function;
+    private final boolean lazy;
+
+    /**
+     * Constructs a new DerivedRecordComponentKeyImpl.
+     *
+     * @param fieldName       The name of the field this key represents
+     * @param targetClassName The internal name of the target record class
+     * @param componentClass  The Class object representing the component's type
+     * @param function        Computes the value from the vanilla components of the record
+     * @param options         How the component takes part in the object methods of the record, and whether its value
+     *                        is computed on the first read
+     * @throws IllegalArgumentException If the component type is primitive, or the equality strategy does not apply
+     *                                  to it
+     * @throws NullPointerException     If the function is null
+     */
+    public DerivedRecordComponentKeyImpl(String fieldName, String targetClassName, Class<T> componentClass, Function<? super R, ? extends T> function, ComponentOptions options) {
+        // the default is only used to fill arguments of the extended constructor, which ignores them
+        super(fieldName, targetClassName, checkComponentClass(fieldName, componentClass), () -> null, options);
+        this.function = Objects.requireNonNull(function, "Function cannot be null");
+        this.lazy = options.lazyDefault();
+    }
+
+    /**
+     * Constructs a copy of a key that has not been registered yet, for {@link SpecializedKeys}.
+     *
+     * @param key The key to copy
+     */
+    protected DerivedRecordComponentKeyImpl(DerivedRecordComponentKeyImpl<R, T> key) {
+        super(key);
+        this.function = key.function;
+        this.lazy = key.lazy;
+    }
+
+    private static Class<?> checkComponentClass(String fieldName, Class<?> componentClass) {
+        if (componentClass.isPrimitive())
+            throw new IllegalArgumentException("Derived RecordComponentKey " + fieldName + " must use the boxed type of " + componentClass.getName());
+        return componentClass;
+    }
+
+    /**
+     * Computes the value of this component for a record whose vanilla components are assigned, or the marker of
+     * lazy keys. Used in ASM generated field initializers of records built by the extended constructor, which have no
+     * pending value to drop.
+     *
+     * @param instance The record under construction
+     * @return The value, or the marker for {@link #resolveLazy} if the key is lazy
+     */
+    @ApiStatus.Internal
+    @SuppressWarnings({"unused", "unchecked"}) // used in asm generated field initializers
+    public Object derive(Record instance) {
+        return lazy ? LAZY_DEFAULT : function.apply((R) instance);
+    }
+
+    /**
+     * Drops the value queued for this component, which copies queue like for any other key, and computes the value.
+     * Used in ASM generated field initializers.
+     *
+     * @param frame    The pending value frame of the current thread
+     * @param instance The record under construction
+     * @return The value, or the marker for {@link #resolveLazy} if the key is lazy
+     */
+    @ApiStatus.Internal
+    @SuppressWarnings("unused") // used in asm generated field initializers
+    public Object deriveNext(PendingValues frame, Record instance) {
+        frame.discard(getId());
+        return derive(instance);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Object createLazyDefault(Record instance) {
+        return function.apply((R) instance);
+    }
+
+    /**
+     * @throws UnsupportedOperationException Always, as the value is computed from the record
+     */
+    @Override
+    public void queueNext(T value) {
+        throw unsupported();
+    }
+
+    /**
+     * @throws UnsupportedOperationException Always, as the value is computed from the record
+     */
+    @Override
+    public <I extends Record> I with(I instance, T value) {
+        throw unsupported();
+    }
+
+    /**
+     * @throws UnsupportedOperationException Always, as the value is computed from the record
+     */
+    @Override
+    public Binding<T> bind(T value) {
+        throw unsupported();
+    }
+
+    private UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("RecordComponentKey " + getFieldName() + " is derived from its record and cannot be given a value");
+    }
+
+    /**
+     * Gets the method the generated field initializer calls, which also takes the record under construction.
+     *
+     * @return The method computing the value
+     */
+    @Override
+    public OwnedMethod getNextMethod() {
+        return Constants.DERIVED_RECORD_COMPONENT_KEY_IMPL$DERIVE_NEXT;
+    }
+}
@@ -0,0 +1,127 @@
+package recordrecoder.impl.record;
+
+import org.jetbrains.annotations.Nullable;
+import recordrecoder.api.record.ComponentOptions;
+import recordrecoder.api.record.DoubleRecordComponentKey;
+import recordrecoder.impl.utils.Constants;
+import recordrecoder.impl.utils.asmhelpers.OwnedMethod;
+
+/**
+ * Implementation of {@link DoubleRecordComponentKey}, backed by a real {@code double} field on the target record.
+ */
+public non-sealed class DoubleRecordComponentKeyImpl extends PrimitiveRecordComponentKeyImpl<Double> implements DoubleRecordComponentKey {
+    /**
+     * Constructs a new DoubleRecordComponentKeyImpl.
+     *
+     * @param fieldName       The name of the field this key represents
+     * @param targetClassName The internal name of the target record class
+     * @param defaultValue    The value used when none was queued
+     */
+    public DoubleRecordComponentKeyImpl(String fieldName, String targetClassName, double defaultValue) {
+        this(fieldName, targetClassName, defaultValue, ComponentOptions.DEFAULT);
+    }
+
+    /**
+     * Constructs a new DoubleRecordComponentKeyImpl.
+     *
+     * @param fieldName       The name of the field this key represents
+     * @param targetClassName The internal name of the target record class
+     * @param defaultValue    The value used when none was queued
+     * @param options         How the component takes part in the object methods of the record
+     * @throws IllegalArgumentException If the options use an equality strategy other than the value one
+     */
+    public DoubleRecordComponentKeyImpl(String fieldName, String targetClassName, double defaultValue, ComponentOptions options) {
+        super(fieldName, targetClassName, double.class, defaultValue, toBits(defaultValue), options);
+    }
+
+    /**
+     * Constructs a copy of a key that has not been registered yet, for {@link SpecializedKeys}.
+     *
+     * @param key The key to copy
+     */
+    protected DoubleRecordComponentKeyImpl(DoubleRecordComponentKeyImpl key) {
+        super(key);
+    }
+
+    @Override
+    protected Double read(ComponentAccessor accessor, Record instance) {
+        return ((ComponentAccessor.OfDouble) accessor).getDouble(instance);
+    }
+
+    @Override
+    public <I extends Record> double getDouble(I instance) throws KeyMismatchException, IllegalStateException {
+        return ((ComponentAccessor.OfDouble) readableAccessor(instance)).getDouble(instance);
+    }
+
+    @Override
+    public <I extends Record> double getDoubleOrDefault(@Nullable I instance, double defaultValue) {
+        ComponentAccessor accessor = applicableAccessor(instance);
+        return accessor != null ? ((ComponentAccessor.OfDouble) accessor).getDouble(instance) : defaultValue;
+    }
+
+    @Override
+    public void queueNext(Double value) {
+        queueNextDouble(value);
+    }
+
+    @Override
+    public void queueNextDouble(double value) {
+        queueNextBits(toBits(value));
+    }
+
+    @Override
+    public Double getNext(PendingValues frame) {
+        return getNextDouble(frame);
+    }
+
+    /**
+     * Retrieves and clears the next queued value for this component.
+     * Used in ASM generated field initializers.
+     *
+     * @param frame The pending value frame of the current thread
+     * @return The next queued value, or the default value if none was queued
+     */
+    public double getNextDouble(PendingValues frame) {
+        return fromBits(getNextBits(frame));
+    }
+
+    @Override
+    public OwnedMethod getNextMethod() {
+        return Constants.DOUBLE_RECORD_COMPONENT_KEY_IMPL$GET_NEXT_DOUBLE;
+    }
+
+    /**
+     * Reads the value of this component from the packed values of a record without boxing the default.
+     * Used in ASM generated getters of packed records.
+     *
+     * @param packed The packed values of the instance
+     * @param slot   The position of this key among the extended components of the record
+     * @return The value, or the default value if none is held
+     */
+    public double unpackDouble(PackedValues packed, int slot) {
+        return packed.has(slot) ? (Double) packed.get(slot) : fromBits(defaultBits());
+    }
+
+    @Override
+    Double boxBits(long bits) {
+        return fromBits(bits);
+    }
+
+    @Override
+    public OwnedMethod getUnpackMethod() {
+        return Constants.DOUBLE_RECORD_COMPONENT_KEY_IMPL$UNPACK_DOUBLE;
+    }
+
+    @Override
+    public OwnedMethod getQueueNextMethod() {
+        return Constants.DOUBLE_RECORD_COMPONENT_KEY_IMPL$QUEUE_NEXT_DOUBLE;
+    }
+
+    private static long toBits(double value) {
+        return Double.doubleToRawLongBits(value);
+    }
+
+    private static double fromBits(long bits) {
+        return Double.longBitsToDouble(bits);
+    }
+}
@@ -0,0 +1,108 @@
+package recordrecoder.impl.record;
+
+import recordrecoder.api.record.ComponentOptions;
+import recordrecoder.api.record.EnumRecordComponentKey;
+import recordrecoder.impl.utils.Constants;
+import recordrecoder.impl.utils.asmhelpers.OwnedMethod;
+
+import java.util.Objects;
+
+/**
+ * Implementation of {@link EnumRecordComponentKey}, backed by a field of the enum type on the target record,
+ * or by the ordinal of the value in the bitfield of records configured with bitfields.
+ *
+ * @param <E> The enum type of the component
+ */
+public class EnumRecordComponentKeyImpl<E extends Enum<E>> extends RecordComponentKeyImpl<E> implements EnumRecordComponentKey<E>, BitfieldKey {
+    private final E[] constants;
+    private final int defaultOrdinal;
+    private final int bitWidth;
+
+    /**
+     * Constructs a new EnumRecordComponentKeyImpl.
+     *
+     * @param fieldName       The name of the field this key represents
+     * @param targetClassName The internal name of the target record class
+     * @param defaultValue    The value used when none was queued
+     */
+    public EnumRecordComponentKeyImpl(String fieldName, String targetClassName, E defaultValue) {
+        this(fieldName, targetClassName, defaultValue, ComponentOptions.DEFAULT);
+    }
+
+    /**
+     * Constructs a new EnumRecordComponentKeyImpl.
+     *
+     * @param fieldName       The name of the field this key represents
+     * @param targetClassName The internal name of the target record class
+     * @param defaultValue    The value used when none was queued
+     * @param options         How the component takes part in the object methods of the record
+     * @throws NullPointerException     If the default value is null
+     * @throws IllegalArgumentException If the options ask for a lazy default, as enum defaults are constants
+     */
+    public EnumRecordComponentKeyImpl(String fieldName, String targetClassName, E defaultValue, ComponentOptions options) {
+        super(fieldName, targetClassName, Objects.requireNonNull(defaultValue, "Default value cannot be null").getDeclaringClass(), () -> defaultValue, options);
+        this.constants = defaultValue.getDeclaringClass().getEnumConstants();
+        this.defaultOrdinal = defaultValue.ordinal();
+        this.bitWidth = Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(constants.length - 1));
+        if (options.lazyDefault())
+            throw new IllegalArgumentException("RecordComponentKey " + fieldName + " has a lazy default, which does not apply to enum components");
+    }
+
+    /**
+     * Constructs a copy of a key that has not been registered yet, for {@link SpecializedKeys}.
+     *
+     * @param key The key to copy
+     */
+    protected EnumRecordComponentKeyImpl(EnumRecordComponentKeyImpl<E> key) {
+        super(key);
+        this.constants = key.constants;
+        this.defaultOrdinal = key.defaultOrdinal;
+        this.bitWidth = key.bitWidth;
+    }
+
+    /**
+     * Retrieves and clears the next queued value for this component as its ordinal.
+     * Used in ASM generated bitfield initializers.
+     *
+     * @param frame The pending value frame of the current thread
+     * @return The ordinal of the next queued value, or of the default value if none was queued
+     * @throws NullPointerException If null was queued
+     */
+    @SuppressWarnings("unused") // used in asm generated bitfield initializers
+    public int getNextOrdinal(PendingValues frame) {
+        int id = getId();
+        return frame.isPending(id) ? ((Enum<?>) frame.take(id)).ordinal() : defaultOrdinal;
+    }
+
+    /**
+     * Gets the constant of the enum of this key with the given ordinal.
+     * Used in ASM generated getters of records with a bitfield.
+     *
+     * @param ordinal The ordinal read from the bitfield
+     * @return The enum constant
+     */
+    @SuppressWarnings("unused") // used in asm generated getters
+    public E fromOrdinal(int ordinal) {
+        return constants[ordinal];
+    }
+
+    @Override
+    public int getBitWidth() {
+        return bitWidth;
+    }
+
+    @Override
+    public OwnedMethod getNextEncodedMethod() {
+        return Constants.ENUM_RECORD_COMPONENT_KEY_IMPL$GET_NEXT_ORDINAL;
+    }
+
+    @Override
+    public OwnedMethod getEncodeMethod() {
+        return Constants.ENUM$ORDINAL;
+    }
+
+    @Override
+    public OwnedMethod getDecodeMethod() {
+        return Constants.ENUM_RECORD_COMPONENT_KEY_IMPL$FROM_ORDINAL;
+    }
+}
@@ -0,0 +1,127 @@
+package recordrecoder.impl.record;
+
+import org.jetbrains.annotations.Nullable;
+import recordrecoder.api.record.ComponentOptions;
+import recordrecoder.api.record.IntRecordComponentKey;
+import recordrecoder.impl.utils.Constants;
+import recordrecoder.impl.utils.asmhelpers.OwnedMethod;
+
+/**
+ * Implementation of {@link IntRecordComponentKey}, backed by a real {@code int} field on the target record.
+ */
+public non-sealed class IntRecordComponentKeyImpl extends PrimitiveRecordComponentKeyImpl<Integer> implements IntRecordComponentKey {
+    /**
+     * Constructs a new IntRecordComponentKeyImpl.
+     *
+     * @param fieldName       The name of the field this key represents
+     * @param targetClassName The internal name of the target record class
+     * @param defaultValue    The value used when none was queued
+     */
+    public IntRecordComponentKeyImpl(String fieldName, String targetClassName, int defaultValue) {
+        this(fieldName, targetClassName, defaultValue, ComponentOptions.DEFAULT);
+    }
+
+    /**
+     * Constructs a new IntRecordComponentKeyImpl.
+     *
+     * @param fieldName       The name of the field this key represents
+     * @param targetClassName The internal name of the target record class
+     * @param defaultValue    The value used when none was queued
+     * @param options         How the component takes part in the object methods of the record
+     * @throws IllegalArgumentException If the options use an equality strategy other than the value one
+     */
+    public IntRecordComponentKeyImpl(String fieldName, String targetClassName, int defaultValue, ComponentOptions options) {
+        super(fieldName, targetClassName, int.class, defaultValue, toBits(defaultValue), options);
+    }
+
+    /**
+     * Constructs a copy of a key that has not been registered yet, for {@link SpecializedKeys}.
+     *
+     * @param key The key to copy
+     */
+    protected IntRecordComponentKeyImpl(IntRecordComponentKeyImpl key) {
+        super(key);
+    }
+
+    @Override
+    protected Integer read(ComponentAccessor accessor, Record instance) {
+        return ((ComponentAccessor.OfInt) accessor).getInt(instance);
+    }
+
+    @Override
+    public <I extends Record> int getInt(I instance) throws KeyMismatchException, IllegalStateException {
+        return ((ComponentAccessor.OfInt) readableAccessor(instance)).getInt(instance);
+    }
+
+    @Override
+    public <I extends Record> int getIntOrDefault(@Nullable I instance, int defaultValue) {
+        ComponentAccessor accessor = applicableAccessor(instance);
+        return accessor != null ? ((ComponentAccessor.OfInt) accessor).getInt(instance) : defaultValue;
+    }
+
+    @Override
+    public void queueNext(Integer value) {
+        queueNextInt(value);
+    }
+
+    @Override
+    public void queueNextInt(int value) {
+        queueNextBits(toBits(value));
+    }
+
+    @Override
+    public Integer getNext(PendingValues frame) {
+        return getNextInt(frame);
+    }
+
+    /**
+     * Retrieves and clears the next queued value for this component.
+     * Used in ASM generated field initializers.
+     *
+     * @param frame The pending value frame of the current thread
+     * @return The next queued value, or the default value if none was queued
+     */
+    public int getNextInt(PendingValues frame) {
+        return fromBits(getNextBits(frame));
+    }
+
+    @Override
+    public OwnedMethod getNextMethod() {
+        return Constants.INT_RECORD_COMPONENT_KEY_IMPL$GET_NEXT_INT;
+    }
+
+    /**
+     * Reads the value of this component from the packed values of a record without boxing the default.
+     * Used in ASM generated getters of packed records.
+     *
+     * @param packed The packed values of the instance
+     * @param slot   The position of this key among the extended components of the record
+     * @return The value, or the default value if none is held
+     */
+    public int unpackInt(PackedValues packed, int slot) {
+        return packed.has(slot) ? (Integer) packed.get(slot) : fromBits(defaultBits());
+    }
+
+    @Override
+    Integer boxBits(long bits) {
+        return fromBits(bits);
+    }
+
+    @Override
+    public OwnedMethod getUnpackMethod() {
+        return Constants.INT_RECORD_COMPONENT_KEY_IMPL$UNPACK_INT;
+    }
+
+    @Override
+    public OwnedMethod getQueueNextMethod() {
+        return Constants.INT_RECORD_COMPONENT_KEY_IMPL$QUEUE_NEXT_INT;
+    }
+
+    private static long toBits(int value) {
+        return value;
+    }
+
+    private static int fromBits(long bits) {
+        return (int) bits;
+    }
+}
@@ -0,0 +1,251 @@
+package recordrecoder.impl.record;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+import recordrecoder.api.record.KeySnapshot;
+import recordrecoder.api.record.RecordOptions;
+import recordrecoder.impl.utils.StringTable;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static recordrecoder.impl.utils.asmhelpers.ClassNameHelper.toInternalName;
+
+/**
+ * Implementation of the KeySnapshot interface.
+ * <p>
+ * Keys are grouped per target class into lists sorted by field name once, when the snapshot is built.
+ * Classes are resolved through an open-addressed {@link StringTable}, and
+ * the names generated for each key are held in arrays indexed by dense key id. Member names are derived
+ * from the field names of the keys, so they are the same on every launch.
+ */
+@ApiStatus.Internal
+public final class KeySnapshotImpl implements KeySnapshot {
+    private final StringTable<List<RecordComponentKeyImpl<?>>> keysByClass;
+    private final List<String> targetClasses;
+    private final Map<String, RecordComponentKeyImpl<?>> declaredKeys;
+    private final Map<String, RecordOptions> options;
+    private final Map<String, BitfieldLayout> bitfields;
+    private final String[] fieldNames;
+    private final String[] keyFieldNames;
+    /**
+     * Bloom filter over the hash codes of the target class names, probed with two bits per name.
+     */
+    private final long[] targetFilter;
+    private final int targetFilterMask;
+
+    /**
+     * Builds a snapshot of the registered keys, generating the names of their members.
+     *
+     * @param keysByClass  The registered keys, grouped by internal name of the target class
+     * @param keyCount     The number of registered keys, which are densely numbered from zero
+     * @param declaredKeys The keys declared in mod metadata, by the name they are looked up by
+     * @param options      The options of configured record classes, by internal name
+     * @throws IllegalStateException If a record caching its hash code has a mutable key included in its equality
+     */
+    KeySnapshotImpl(Map<String, List<RecordComponentKeyImpl<?>>> keysByClass, int keyCount,
+                    Map<String, RecordComponentKeyImpl<?>> declaredKeys, Map<String, RecordOptions> options) {
+        Map<String, List<RecordComponentKeyImpl<?>>> sorted = new HashMap<>();
+        this.fieldNames = new String[keyCount];
+        this.keyFieldNames = new String[keyCount];
+        keysByClass.forEach((className, keys) -> {
+            List<RecordComponentKeyImpl<?>> classKeys = keys.stream()
+                    .sorted(Comparator.comparing(RecordComponentKeyImpl::getFieldName))
+                    .toList();
+            sorted.put(className, classKeys);
+            Set<String> memberNames = new HashSet<>();
+            for (RecordComponentKeyImpl<?> key : classKeys) {
+                String memberName = memberName(key, memberNames);
+                fieldNames[key.getId()] = "keyedField$" + memberName;
+                keyFieldNames[key.getId()] = "key$" + memberName;
+            }
+        });
+        // 64 bits per target class keeps false positives for two probes around 0.1%
+        int filterBits = Integer.highestOneBit(Math.max(64, sorted.size() * 64) * 2 - 1);
+        this.targetFilter = new long[filterBits >>> 6];
+        this.targetFilterMask = filterBits - 1;
+        for (String className : sorted.keySet()) {
+            int hash = className.hashCode();
+            setFilterBit(hash);
+            setFilterBit(secondaryHash(hash));
+        }
+        this.keysByClass = new StringTable<>(sorted);
+        this.targetClasses = sorted.keySet().stream().sorted().toList();
+        this.declaredKeys = Map.copyOf(declaredKeys);
+        this.options = Map.copyOf(options);
+        this.options.forEach((className, classOptions) -> {
+            if (classOptions.cachedHashCode())
+                checkHashStable(className);
+        });
+        Map<String, BitfieldLayout> bitfields = new HashMap<>();
+        this.options.forEach((className, classOptions) -> {
+            if (classOptions.bitfieldBits() > 0 && !isPacked(className)) {
+                BitfieldLayout layout = BitfieldLayout.of(getForInternalName(className), classOptions.bitfieldBits());
+                if (!layout.isEmpty())
+                    bitfields.put(className, layout);
+            }
+        });
+        this.bitfields = Map.copyOf(bitfields);
+    }
+
+    /**
+     * Rejects a cached hash code for a record whose hash can change, as a mutable key included in its equality would
+     * leave the cached hash stale after the first update.
+     */
+    private void checkHashStable(String className) {
+        for (RecordComponentKeyImpl<?> key : getForInternalName(className)) {
+            if (key instanceof MutableKey && key.getComponentOptions().includedInEquality())
+                throw new IllegalStateException("Record class " + className + " caches its hash code, but mutable RecordComponentKey " + key.getFieldName() + " is included in its equality");
+        }
+    }
+
+    /**
+     * Derives the name of the members generated for a key from its field name, so that transforming a class
+     * with the same keys always produces the same bytes. Characters not allowed in unqualified names are replaced,
+     * and keys whose name is then already taken by a key of the class are told apart by a counter, which is stable
+     * as the keys are sorted.
+     *
+     * @param taken The member names of the keys of the class named so far, which the name is added to
+     */
+    private static String memberName(RecordComponentKeyImpl<?> key, Set<String> taken) {
+        StringBuilder name = new StringBuilder(key.getFieldName().length());
+        for (char c : key.getFieldName().toCharArray()) {
+            // characters not allowed in unqualified names
+            name.append(c == '.' || c == ';' || c == '[' || c == '/' || c == '<' || c == '>' ? '_' : c);
+        }
+        String memberName = name.toString();
+        for (int duplicates = 1; !taken.add(memberName); duplicates++)
+            memberName = name + "$" + duplicates;
+        return memberName;
+    }
+
+    @Override
+    public List<RecordComponentKeyImpl<?>> getForClass(String className) {
+        return getForInternalName(toInternalName(className));
+    }
+
+    /**
+     * Retrieves record component keys for a class, without normalizing its name.
+     *
+     * @param internalName The internal name of the class
+     * @return The keys for the class sorted by field name, or an empty list if none exist
+     */
+    public List<RecordComponentKeyImpl<?>> getForInternalName(String internalName) {
+        List<RecordComponentKeyImpl<?>> keys = keysByClass.get(internalName);
+        return keys != null ? keys : List.of();
+    }
+
+    /**
+     * Checks whether any keys may target a class, without normalizing its name.
+     * A negative answer is exact and costs two bit tests on the cached hash code of the name,
+     * a positive answer has to be confirmed with {@link #getForInternalName(String)}.
+     *
+     * @param internalName The internal name of the class
+     * @return False if no keys target the class, true if some may
+     */
+    public boolean mayHaveKeys(String internalName) {
+        int hash = internalName.hashCode();
+        return isFilterBitSet(hash) && isFilterBitSet(secondaryHash(hash));
+    }
+
+    private static int secondaryHash(int hash) {
+        return Integer.rotateLeft(hash * 0x9E3779B9, 16);
+    }
+
+    private void setFilterBit(int hash) {
+        int bit = hash & targetFilterMask;
+        targetFilter[bit >>> 6] |= 1L << bit;
+    }
+
+    private boolean isFilterBitSet(int hash) {
+        int bit = hash & targetFilterMask;
+        return (targetFilter[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * @return The internal names of all classes targeted by keys, in lexicographic order
+     */
+    public List<String> getTargetClasses() {
+        return targetClasses;
+    }
+
+    /**
+     * Gets the options a record class is transformed with.
+     *
+     * @param internalName The internal name of the class
+     * @return The configured options, or {@link RecordOptions#DEFAULT}
+     */
+    public RecordOptions getOptions(String internalName) {
+        return options.getOrDefault(internalName, RecordOptions.DEFAULT);
+    }
+
+    /**
+     * Checks whether a record class stores the values of its keys packed behind a single field.
+     * Packing is configured through its options, and only possible with at most {@link PackedValues#MAX_KEYS} keys,
+     * none of them derived, as derived values are never defaults and would all be held anyway, nor mutable.
+     *
+     * @param internalName The internal name of the class
+     * @return Whether the class is transformed with packed storage
+     */
+    public boolean isPacked(String internalName) {
+        if (!getOptions(internalName).packedStorage())
+            return false;
+        List<RecordComponentKeyImpl<?>> keys = getForInternalName(internalName);
+        return keys.size() <= PackedValues.MAX_KEYS && keys.stream().noneMatch(key -> key instanceof DerivedRecordComponentKeyImpl<?, ?> || key instanceof MutableKey);
+    }
+
+    /**
+     * Gets where a record class stores the values of its flag and small enum keys in its bitfield.
+     * Bitfields are configured through its options, and never used with packed storage.
+     *
+     * @param internalName The internal name of the class
+     * @return The layout of the bitfield, or {@link BitfieldLayout#NONE} if the class has none
+     */
+    public BitfieldLayout getBitfieldLayout(String internalName) {
+        return bitfields.getOrDefault(internalName, BitfieldLayout.NONE);
+    }
+
+    /**
+     * Gets a key declared in mod metadata.
+     *
+     * @param id The name of the key, {@code <mod id>:<key id>}
+     * @return The key, or null if no key was declared under the name
+     */
+    public @Nullable RecordComponentKeyImpl<?> getDeclaredKey(String id) {
+        return declaredKeys.get(id);
+    }
+
+    @Override
+    public boolean hasKeys(String className) {
+        return keysByClass.containsKey(toInternalName(className));
+    }
+
+    @Override
+    public int keyCount() {
+        return fieldNames.length;
+    }
+
+    /**
+     * Gets the name of the component field generated for a key.
+     *
+     * @param key A key of this snapshot
+     * @return The name of the generated component field
+     */
+    public String getFieldName(RecordComponentKeyImpl<?> key) {
+        return fieldNames[key.requireId()];
+    }
+
+    /**
+     * Gets the name of the static field holding a key on its transformed record.
+     *
+     * @param key A key of this snapshot
+     * @return The name of the generated static field
+     */
+    public String getKeyFieldName(RecordComponentKeyImpl<?> key) {
+        return keyFieldNames[key.requireId()];
+    }
+}
@@ -0,0 +1,127 @@
+package recordrecoder.impl.record;
+
+import org.jetbrains.annotations.Nullable;
+import recordrecoder.api.record.ComponentOptions;
+import recordrecoder.api.record.LongRecordComponentKey;
+import recordrecoder.impl.utils.Constants;
+import recordrecoder.impl.utils.asmhelpers.OwnedMethod;
+
+/**
+ * Implementation of {@link LongRecordComponentKey}, backed by a real {@code long} field on the target record.
+ */
+public non-sealed class LongRecordComponentKeyImpl extends PrimitiveRecordComponentKeyImpl<Long> implements LongRecordComponentKey {
+    /**
+     * Constructs a new LongRecordComponentKeyImpl.
+     *
+     * @param fieldName       The name of the field this key represents
+     * @param targetClassName The internal name of the target record class
+     * @param defaultValue    The value used when none was queued
+     */
+    public LongRecordComponentKeyImpl(String fieldName, String targetClassName, long defaultValue) {
+        this(fieldName, targetClassName, defaultValue, ComponentOptions.DEFAULT);
+    }
+
+    /**
+     * Constructs a new LongRecordComponentKeyImpl.
+     *
+     * @param fieldName       The name of the field this key represents
+     * @param targetClassName The internal name of the target record class
+     * @param defaultValue    The value used when none was queued
+     * @param options         How the component takes part in the object methods of the record
+     * @throws IllegalArgumentException If the options use an equality strategy other than the value one
+     */
+    public LongRecordComponentKeyImpl(String fieldName, String targetClassName, long defaultValue, ComponentOptions options) {
+        super(fieldName, targetClassName, long.class, defaultValue, toBits(defaultValue), options);
+    }
+
+    /**
+     * Constructs a copy of a key that has not been registered yet, for {@link SpecializedKeys}.
+     *
+     * @param key The key to copy
+     */
+    protected LongRecordComponentKeyImpl(LongRecordComponentKeyImpl key) {
+        super(key);
+    }
+
+    @Override
+    protected Long read(ComponentAccessor accessor, Record instance) {
+        return ((ComponentAccessor.OfLong) accessor).getLong(instance);
+    }
+
+    @Override
+    public <I extends Record> long getLong(I instance) throws KeyMismatchException, IllegalStateException {
+        return ((ComponentAccessor.OfLong) readableAccessor(instance)).getLong(instance);
+    }
+
+    @Override
+    public <I extends Record> long getLongOrDefault(@Nullable I instance, long defaultValue) {
+        ComponentAccessor accessor = applicableAccessor(instance);
+        return accessor != null ? ((ComponentAccessor.OfLong) accessor).getLong(instance) : defaultValue;
+    }
+
+    @Override
+    public void queueNext(Long value) {
+        queueNextLong(value);
+    }
+
+    @Override
+    public void queueNextLong(long value) {
+        queueNextBits(toBits(value));
+    }
+
+    @Override
+    public Long getNext(PendingValues frame) {
+        return getNextLong(frame);
+    }
+
+    /**
+     * Retrieves and clears the next queued value for this component.
+     * Used in ASM generated field initializers.
+     *
+     * @param frame The pending value frame of the current thread
+     * @return The next queued value, or the default value if none was queued
+     */
+    public long getNextLong(PendingValues frame) {
+        return fromBits(getNextBits(frame));
+    }
+
+    @Override
+    public OwnedMethod getNextMethod() {
+        return Constants.LONG_RECORD_COMPONENT_KEY_IMPL$GET_NEXT_LONG;
+    }
+
+    /**
+     * Reads the value of this component from the packed values of a record without boxing the default.
+     * Used in ASM generated getters of packed records.
+     *
+     * @param packed The packed values of the instance
+     * @param slot   The position of this key among the extended components of the record
+     * @return The value, or the default value if none is held
+     */
+    public long unpackLong(PackedValues packed, int slot) {
+        return packed.has(slot) ? (Long) packed.get(slot) : fromBits(defaultBits());
+    }
+
+    @Override
+    Long boxBits(long bits) {
+        return fromBits(bits);
+    }
+
+    @Override
+    public OwnedMethod getUnpackMethod() {
+        return Constants.LONG_RECORD_COMPONENT_KEY_IMPL$UNPACK_LONG;
+    }
+
+    @Override
+    public OwnedMethod getQueueNextMethod() {
+        return Constants.LONG_RECORD_COMPONENT_KEY_IMPL$QUEUE_NEXT_LONG;
+    }
+
+    private static long toBits(long value) {
+        return value;
+    }
+
+    private static long fromBits(long bits) {
+        return bits;
+    }
+}
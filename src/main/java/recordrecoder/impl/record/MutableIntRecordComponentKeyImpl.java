@@ -0,0 +1,87 @@
+package recordrecoder.impl.record;
+
+import recordrecoder.api.record.ComponentOptions;
+import recordrecoder.api.record.MutableIntRecordComponentKey;
+
+import java.lang.invoke.VarHandle;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Implementation of {@link MutableIntRecordComponentKey}, backed by a non-final {@code int} field on the target record
+ * which the operations access through the {@link VarHandle} of the accessor bound to the class of the instance.
+ */
+public class MutableIntRecordComponentKeyImpl extends IntRecordComponentKeyImpl implements MutableIntRecordComponentKey, MutableKey {
+    /**
+     * Constructs a new MutableIntRecordComponentKeyImpl, left out of equals and hashCode.
+     *
+     * @param fieldName       The name of the field this key represents
+     * @param targetClassName The internal name of the target record class
+     * @param defaultValue    The value used when none was queued
+     */
+    public MutableIntRecordComponentKeyImpl(String fieldName, String targetClassName, int defaultValue) {
+        this(fieldName, targetClassName, defaultValue, ComponentOptions.DEFAULT.excludedFromEquality());
+    }
+
+    /**
+     * Constructs a new MutableIntRecordComponentKeyImpl.
+     *
+     * @param fieldName       The name of the field this key represents
+     * @param targetClassName The internal name of the target record class
+     * @param defaultValue    The value used when none was queued
+     * @param options         How the component takes part in the object methods of the record
+     * @throws IllegalArgumentException If the options use an equality strategy other than the value one
+     */
+    public MutableIntRecordComponentKeyImpl(String fieldName, String targetClassName, int defaultValue, ComponentOptions options) {
+        super(fieldName, targetClassName, defaultValue, options);
+    }
+
+    /**
+     * Constructs a copy of a key that has not been registered yet, for {@link SpecializedKeys}.
+     *
+     * @param key The key to copy
+     */
+    protected MutableIntRecordComponentKeyImpl(MutableIntRecordComponentKeyImpl key) {
+        super(key);
+    }
+
+    @Override
+    public <I extends Record> int getIntVolatile(I instance) throws KeyMismatchException, IllegalStateException {
+        return (int) mutableHandle(instance).getVolatile(instance);
+    }
+
+    @Override
+    public <I extends Record> int getIntAcquire(I instance) throws KeyMismatchException, IllegalStateException {
+        return (int) mutableHandle(instance).getAcquire(instance);
+    }
+
+    @Override
+    public <I extends Record> void setIntVolatile(I instance, int value) throws KeyMismatchException, IllegalStateException {
+        mutableHandle(instance).setVolatile(instance, value);
+    }
+
+    @Override
+    public <I extends Record> void setIntRelease(I instance, int value) throws KeyMismatchException, IllegalStateException {
+        mutableHandle(instance).setRelease(instance, value);
+    }
+
+    @Override
+    public <I extends Record> boolean compareAndSetInt(I instance, int expected, int value) throws KeyMismatchException, IllegalStateException {
+        return mutableHandle(instance).compareAndSet(instance, expected, value);
+    }
+
+    @Override
+    public <I extends Record> int getAndAddInt(I instance, int delta) throws KeyMismatchException, IllegalStateException {
+        return (int) mutableHandle(instance).getAndAdd(instance, delta);
+    }
+
+    @Override
+    public <I extends Record> int updateAndGetInt(I instance, IntUnaryOperator update) throws KeyMismatchException, IllegalStateException {
+        VarHandle handle = mutableHandle(instance);
+        while (true) {
+            int current = (int) handle.getVolatile(instance);
+            int next = update.applyAsInt(current);
+            if (handle.compareAndSet(instance, current, next))
+                return next;
+        }
+    }
+}
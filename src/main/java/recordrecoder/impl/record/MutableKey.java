@@ -0,0 +1,11 @@
+package recordrecoder.impl.record;
+
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * A key whose component field is left non-final, and whose accessors hold a {@link java.lang.invoke.VarHandle} on it
+ * for the atomic operations of the key. Records with mutable keys are never packed.
+ */
+@ApiStatus.Internal
+public interface MutableKey {
+}
@@ -0,0 +1,87 @@
+package recordrecoder.impl.record;
+
+import recordrecoder.api.record.ComponentOptions;
+import recordrecoder.api.record.MutableLongRecordComponentKey;
+
+import java.lang.invoke.VarHandle;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Implementation of {@link MutableLongRecordComponentKey}, backed by a non-final {@code long} field on the target record
+ * which the operations access through the {@link VarHandle} of the accessor bound to the class of the instance.
+ */
+public class MutableLongRecordComponentKeyImpl extends LongRecordComponentKeyImpl implements MutableLongRecordComponentKey, MutableKey {
+    /**
+     * Constructs a new MutableLongRecordComponentKeyImpl, left out of equals and hashCode.
+     *
+     * @param fieldName       The name of the field this key represents
+     * @param targetClassName The internal name of the target record class
+     * @param defaultValue    The value used when none was queued
+     */
+    public MutableLongRecordComponentKeyImpl(String fieldName, String targetClassName, long defaultValue) {
+        this(fieldName, targetClassName, defaultValue, ComponentOptions.DEFAULT.excludedFromEquality());
+    }
+
+    /**
+     * Constructs a new MutableLongRecordComponentKeyImpl.
+     *
+     * @param fieldName       The name of the field this key represents
+     * @param targetClassName The internal name of the target record class
+     * @param defaultValue    The value used when none was queued
+     * @param options         How the component takes part in the object methods of the record
+     * @throws IllegalArgumentException If the options use an equality strategy other than the value one
+     */
+    public MutableLongRecordComponentKeyImpl(String fieldName, String targetClassName, long defaultValue, ComponentOptions options) {
+        super(fieldName, targetClassName, defaultValue, options);
+    }
+
+    /**
+     * Constructs a copy of a key that has not been registered yet, for {@link SpecializedKeys}.
+     *
+     * @param key The key to copy
+     */
+    protected MutableLongRecordComponentKeyImpl(MutableLongRecordComponentKeyImpl key) {
+        super(key);
+    }
+
+    @Override
+    public <I extends Record> long getLongVolatile(I instance) throws KeyMismatchException, IllegalStateException {
+        return (long) mutableHandle(instance).getVolatile(instance);
+    }
+
+    @Override
+    public <I extends Record> long getLongAcquire(I instance) throws KeyMismatchException, IllegalStateException {
+        return (long) mutableHandle(instance).getAcquire(instance);
+    }
+
+    @Override
+    public <I extends Record> void setLongVolatile(I instance, long value) throws KeyMismatchException, IllegalStateException {
+        mutableHandle(instance).setVolatile(instance, value);
+    }
+
+    @Override
+    public <I extends Record> void setLongRelease(I instance, long value) throws KeyMismatchException, IllegalStateException {
+        mutableHandle(instance).setRelease(instance, value);
+    }
+
+    @Override
+    public <I extends Record> boolean compareAndSetLong(I instance, long expected, long value) throws KeyMismatchException, IllegalStateException {
+        return mutableHandle(instance).compareAndSet(instance, expected, value);
+    }
+
+    @Override
+    public <I extends Record> long getAndAddLong(I instance, long delta) throws KeyMismatchException, IllegalStateException {
+        return (long) mutableHandle(instance).getAndAdd(instance, delta);
+    }
+
+    @Override
+    public <I extends Record> long updateAndGetLong(I instance, LongUnaryOperator update) throws KeyMismatchException, IllegalStateException {
+        VarHandle handle = mutableHandle(instance);
+        while (true) {
+            long current = (long) handle.getVolatile(instance);
+            long next = update.applyAsLong(current);
+            if (handle.compareAndSet(instance, current, next))
+                return next;
+        }
+    }
+}
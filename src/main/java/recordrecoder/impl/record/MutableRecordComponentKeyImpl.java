@@ -0,0 +1,109 @@
+package recordrecoder.impl.record;
+
+import recordrecoder.api.record.ComponentOptions;
+import recordrecoder.api.record.MutableRecordComponentKey;
+
+import java.lang.invoke.VarHandle;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Implementation of {@link MutableRecordComponentKey}, backed by a non-final field on the target record which the
+ * operations access through the {@link VarHandle} of the accessor bound to the class of the instance.
+ *
+ * @param <T> The type of the record component this key represents
+ */
+public class MutableRecordComponentKeyImpl<T> extends RecordComponentKeyImpl<T> implements MutableRecordComponentKey<T>, MutableKey {
+    /**
+     * Constructs a new MutableRecordComponentKeyImpl, left out of equals and hashCode.
+     *
+     * @param fieldName            The name of the field this key represents
+     * @param targetClassName      The internal name of the target record class
+     * @param componentClass       The Class object representing the component's type
+     * @param defaultValueSupplier A supplier that provides default values for the component
+     */
+    public MutableRecordComponentKeyImpl(String fieldName, String targetClassName, Class<T> componentClass, Supplier<T> defaultValueSupplier) {
+        this(fieldName, targetClassName, componentClass, defaultValueSupplier, ComponentOptions.DEFAULT.excludedFromEquality());
+    }
+
+    /**
+     * Constructs a new MutableRecordComponentKeyImpl.
+     *
+     * @param fieldName            The name of the field this key represents
+     * @param targetClassName      The internal name of the target record class
+     * @param componentClass       The Class object representing the component's type
+     * @param defaultValueSupplier A supplier that provides default values for the component
+     * @param options              How the component takes part in the object methods of the record
+     * @throws IllegalArgumentException If the component type is primitive, the options ask for a lazy default, or the
+     *                                  equality strategy does not apply to the component type
+     */
+    public MutableRecordComponentKeyImpl(String fieldName, String targetClassName, Class<T> componentClass, Supplier<T> defaultValueSupplier, ComponentOptions options) {
+        super(fieldName, targetClassName, checkComponentClass(fieldName, componentClass), defaultValueSupplier::get, checkMutableOptions(fieldName, options));
+    }
+
+    /**
+     * Constructs a copy of a key that has not been registered yet, for {@link SpecializedKeys}.
+     *
+     * @param key The key to copy
+     */
+    protected MutableRecordComponentKeyImpl(MutableRecordComponentKeyImpl<T> key) {
+        super(key);
+    }
+
+    private static Class<?> checkComponentClass(String fieldName, Class<?> componentClass) {
+        if (componentClass.isPrimitive())
+            throw new IllegalArgumentException("Mutable RecordComponentKey " + fieldName + " of primitive type " + componentClass.getName() + " must be created as a mutable int or long key");
+        return componentClass;
+    }
+
+    private static ComponentOptions checkMutableOptions(String fieldName, ComponentOptions options) {
+        if (options.lazyDefault())
+            throw new IllegalArgumentException("Mutable RecordComponentKey " + fieldName + " cannot have a lazy default");
+        return options;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <I extends Record> T getVolatile(I instance) throws KeyMismatchException, IllegalStateException {
+        return (T) mutableHandle(instance).getVolatile(instance);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <I extends Record> T getAcquire(I instance) throws KeyMismatchException, IllegalStateException {
+        return (T) mutableHandle(instance).getAcquire(instance);
+    }
+
+    @Override
+    public <I extends Record> void setVolatile(I instance, T value) throws KeyMismatchException, IllegalStateException {
+        mutableHandle(instance).setVolatile(instance, value);
+    }
+
+    @Override
+    public <I extends Record> void setRelease(I instance, T value) throws KeyMismatchException, IllegalStateException {
+        mutableHandle(instance).setRelease(instance, value);
+    }
+
+    @Override
+    public <I extends Record> boolean compareAndSet(I instance, T expected, T value) throws KeyMismatchException, IllegalStateException {
+        return mutableHandle(instance).compareAndSet(instance, expected, value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <I extends Record> T getAndSet(I instance, T value) throws KeyMismatchException, IllegalStateException {
+        return (T) mutableHandle(instance).getAndSet(instance, value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <I extends Record> T updateAndGet(I instance, UnaryOperator<T> update) throws KeyMismatchException, IllegalStateException {
+        VarHandle handle = mutableHandle(instance);
+        while (true) {
+            T current = (T) handle.getVolatile(instance);
+            T next = update.apply(current);
+            if (handle.compareAndSet(instance, current, next))
+                return next;
+        }
+    }
+}
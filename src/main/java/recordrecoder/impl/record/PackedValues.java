@@ -0,0 +1,86 @@
+package recordrecoder.impl.record;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.Arrays;
+
+/**
+ * The values of all keys of a record transformed with packed storage, held by a single field of each instance.
+ * <p>
+ * Only values that differ from the default of their key are held, in slot order, and a presence bitmap tells
+ * which slots they belong to, so a value is found at the number of present slots below its own. Instances whose
+ * values are all defaults share {@link #DEFAULTS}, which costs them nothing beyond the reference to it.
+ */
+@ApiStatus.Internal
+public final class PackedValues {
+    /**
+     * The most keys a packed record can have, one per bit of the presence bitmap.
+     */
+    public static final int MAX_KEYS = Long.SIZE;
+    /**
+     * Shared by every instance holding only default values.
+     */
+    public static final PackedValues DEFAULTS = new PackedValues(0L, new Object[0]);
+    /**
+     * Returned by {@link RecordComponentKeyImpl#takePacked(PendingValues)} when there is no value to hold.
+     */
+    static final Object DEFAULT = new Object();
+
+    private final long present;
+    private final Object[] values;
+
+    private PackedValues(long present, Object[] values) {
+        this.present = present;
+        this.values = values;
+    }
+
+    /**
+     * Consumes the queued values of the keys of a record.
+     * Used in ASM generated constructors of packed records.
+     *
+     * @param keys The keys of the record, in slot order
+     * @return The packed values, {@link #DEFAULTS} if no value differs from its default
+     */
+    @SuppressWarnings("unused") // used in asm generated constructors
+    public static PackedValues pack(RecordComponentKeyImpl<?>[] keys) {
+        PendingValues frame = PendingValues.current();
+        if (!frame.hasPending())
+            return DEFAULTS;
+        long present = 0L;
+        Object[] values = null;
+        int count = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            Object value = keys[slot].takePacked(frame);
+            if (value == DEFAULT)
+                continue;
+            if (values == null)
+                values = new Object[keys.length - slot];
+            present |= 1L << slot;
+            values[count++] = value;
+        }
+        if (values == null)
+            return DEFAULTS;
+        return new PackedValues(present, count == values.length ? values : Arrays.copyOf(values, count));
+    }
+
+    /**
+     * Checks whether a value is held for a slot.
+     *
+     * @param slot The slot of the key
+     * @return Whether a value other than the default is held
+     */
+    boolean has(int slot) {
+        return (present & (1L << slot)) != 0;
+    }
+
+    /**
+     * Gets the value held for a slot.
+     * Must only be called after {@link #has(int)} returned true.
+     *
+     * @param slot The slot of the key
+     * @return The value, boxed for primitive keys
+     */
+    Object get(int slot) {
+        return values[Long.bitCount(present & ((1L << slot) - 1))];
+    }
+}
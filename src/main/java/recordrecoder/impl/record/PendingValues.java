@@ -0,0 +1,152 @@
+package recordrecoder.impl.record;
+
+import org.jetbrains.annotations.ApiStatus;
+import recordrecoder.api.record.ComponentKeyRegistry;
+import recordrecoder.impl.jfr.RecordRecoderEvents;
+
+import java.util.Arrays;
+
+/**
+ * Per-thread frame holding the values queued for the next record instantiation, indexed by dense key id.
+ * <p>
+ * Generated constructors look the frame up once with {@link #current()} and then consume the values of all
+ * their keys from it, so constructing a transformed record costs a single ThreadLocal lookup regardless of
+ * how many keys it has. Reference values and raw primitive bits are held in separate flat arrays, and a
+ * presence bitmap tells queued values apart from absent ones, so neither queueing nor consuming allocates
+ * once the frame has grown to the number of registered keys.
+ */
+@ApiStatus.Internal
+public final class PendingValues {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final ThreadLocal<PendingValues> CURRENT = ThreadLocal.withInitial(PendingValues::new);
+
+    private Object[] values;
+    private long[] bits;
+    private long[] present;
+    private int pendingCount;
+
+    private PendingValues() {
+        int capacity = Math.max(INITIAL_CAPACITY, ((ComponentKeyRegistryImpl) ComponentKeyRegistry.INSTANCE).keyCount());
+        this.values = new Object[capacity];
+        this.bits = new long[capacity];
+        this.present = new long[(capacity + 63) >>> 6];
+    }
+
+    /**
+     * Gets the frame of the current thread.
+     * Used in ASM generated constructors.
+     *
+     * @return The frame of the current thread
+     */
+    public static PendingValues current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Checks whether any value is queued.
+     *
+     * @return Whether a value is queued for any key
+     */
+    boolean hasPending() {
+        return pendingCount != 0;
+    }
+
+    /**
+     * Checks whether a value is queued for the given key id.
+     *
+     * @param id The dense id of the key
+     * @return Whether a value is queued
+     */
+    boolean isPending(int id) {
+        return pendingCount != 0
+                && id < values.length
+                && (present[id >>> 6] & (1L << id)) != 0;
+    }
+
+    /**
+     * Queues a reference value for the given key id, replacing any value already queued.
+     *
+     * @param id    The dense id of the key
+     * @param value The value to queue
+     */
+    void queue(int id, Object value) {
+        markPresent(id);
+        values[id] = value;
+    }
+
+    /**
+     * Queues raw primitive bits for the given key id, replacing any value already queued.
+     *
+     * @param id   The dense id of the key
+     * @param bits The raw bits to queue
+     */
+    void queueBits(int id, long bits) {
+        markPresent(id);
+        this.bits[id] = bits;
+    }
+
+    /**
+     * Consumes the reference value queued for the given key id.
+     * Must only be called after {@link #isPending(int)} returned true.
+     *
+     * @param id The dense id of the key
+     * @return The queued value
+     */
+    Object take(int id) {
+        clearPresent(id);
+        Object value = values[id];
+        values[id] = null;
+        return value;
+    }
+
+    /**
+     * Consumes the raw primitive bits queued for the given key id.
+     * Must only be called after {@link #isPending(int)} returned true.
+     *
+     * @param id The dense id of the key
+     * @return The queued bits
+     */
+    long takeBits(int id) {
+        clearPresent(id);
+        return bits[id];
+    }
+
+    /**
+     * Drops any value queued for the given key id without consuming it.
+     *
+     * @param id The dense id of the key
+     */
+    void discard(int id) {
+        if (isPending(id)) {
+            clearPresent(id);
+            values[id] = null;
+            RecordRecoderEvents.UNCONSUMED_VALUES.increment();
+        }
+    }
+
+    private void markPresent(int id) {
+        if (id >= values.length) {
+            grow(id + 1);
+        }
+        long mask = 1L << id;
+        if ((present[id >>> 6] & mask) == 0) {
+            present[id >>> 6] |= mask;
+            pendingCount++;
+        } else {
+            // the value queued before was never consumed by a constructor
+            RecordRecoderEvents.UNCONSUMED_VALUES.increment();
+        }
+    }
+
+    private void clearPresent(int id) {
+        present[id >>> 6] &= ~(1L << id);
+        pendingCount--;
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, values.length << 1);
+        values = Arrays.copyOf(values, capacity);
+        bits = Arrays.copyOf(bits, capacity);
+        present = Arrays.copyOf(present, (capacity + 63) >>> 6);
+    }
+}
@@ -0,0 +1,102 @@
+package recordrecoder.impl.record;
+
+import recordrecoder.api.record.ComponentOptions;
+
+/**
+ * Base class for the primitive specializations of {@link RecordComponentKeyImpl}.
+ * <p>
+ * Values are queued as raw bits in the primitive slots of the pending value frame, so queueing and consuming
+ * a value never allocates a box. Subclasses convert between their primitive type and the raw bits.
+ *
+ * @param <T> The boxed type of the primitive component this key represents
+ */
+public abstract sealed class PrimitiveRecordComponentKeyImpl<T> extends RecordComponentKeyImpl<T>
+        permits IntRecordComponentKeyImpl, LongRecordComponentKeyImpl, DoubleRecordComponentKeyImpl, BooleanRecordComponentKeyImpl {
+    private final long defaultBits;
+
+    /**
+     * Constructs a new PrimitiveRecordComponentKeyImpl.
+     *
+     * @param fieldName       The name of the field this key represents
+     * @param targetClassName The internal name of the target record class
+     * @param primitiveClass  The primitive class of the component
+     * @param defaultValue    The boxed default value, used for the boxed API
+     * @param defaultBits     The default value as raw bits
+     * @param options         How the component takes part in the object methods of the record
+     */
+    PrimitiveRecordComponentKeyImpl(String fieldName, String targetClassName, Class<?> primitiveClass, T defaultValue, long defaultBits, ComponentOptions options) {
+        super(fieldName, targetClassName, primitiveClass, () -> defaultValue, options);
+        this.defaultBits = defaultBits;
+    }
+
+    /**
+     * Constructs a copy of a key that has not been registered yet, for {@link SpecializedKeys}.
+     *
+     * @param key The key to copy
+     */
+    protected PrimitiveRecordComponentKeyImpl(PrimitiveRecordComponentKeyImpl<T> key) {
+        super(key);
+        this.defaultBits = key.defaultBits;
+    }
+
+    /**
+     * Queues a boxed value into the primitive slots of the pending value frame.
+     * Primitive keys never read the reference slots, so the unchecked path must unbox as well.
+     *
+     * @param value The value to queue
+     */
+    @Override
+    public final void queueNextUnchecked(T value) {
+        queueNext(value);
+    }
+
+    /**
+     * Queues raw bits to be assigned to this component during the next record instantiation.
+     *
+     * @param bits The raw bits of the value to queue
+     */
+    final void queueNextBits(long bits) {
+        PendingValues.current().queueBits(requireId(), bits);
+    }
+
+    /**
+     * Consumes the queued value of this component for a packed record, boxing it only if it is not the default.
+     *
+     * @param frame The pending value frame of the current thread
+     * @return The boxed queued value, or {@link PackedValues#DEFAULT} if none or the default value was queued
+     */
+    @Override
+    final Object takePacked(PendingValues frame) {
+        int id = getId();
+        if (!frame.isPending(id))
+            return PackedValues.DEFAULT;
+        long bits = frame.takeBits(id);
+        return bits == defaultBits ? PackedValues.DEFAULT : boxBits(bits);
+    }
+
+    /**
+     * Converts raw bits to the boxed value they represent.
+     *
+     * @param bits The raw bits
+     * @return The boxed value
+     */
+    abstract T boxBits(long bits);
+
+    /**
+     * @return The default value as raw bits
+     */
+    final long defaultBits() {
+        return defaultBits;
+    }
+
+    /**
+     * Retrieves and clears the raw bits of the next queued value for this component.
+     *
+     * @param frame The pending value frame of the current thread
+     * @return The raw bits of the next queued value, or of the default value if none was queued
+     */
+    final long getNextBits(PendingValues frame) {
+        int id = getId();
+        return frame.isPending(id) ? frame.takeBits(id) : defaultBits;
+    }
+}
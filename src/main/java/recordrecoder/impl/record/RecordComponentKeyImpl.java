@@ -4,11 +4,22 @@ import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.Type;
+import recordrecoder.api.record.ComponentEquivalence;
+import recordrecoder.api.record.ComponentOptions;
 import recordrecoder.api.record.RecordComponentKey;
 import recordrecoder.impl.RecordRecoder;
+import recordrecoder.impl.asm.AccessorGenerator;
+import recordrecoder.impl.jfr.RecordRecoderEvents;
+import recordrecoder.impl.utils.Constants;
+import recordrecoder.impl.utils.asmhelpers.OwnedMethod;
 
 import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
 import java.util.Objects;
 
 import static recordrecoder.impl.utils.asmhelpers.ClassNameHelper.toBinaryName;
@@ -23,17 +34,72 @@ import static recordrecoder.impl.utils.asmhelpers.ClassNameHelper.toInternalName
  *   <li>Handle the necessary class loading and method handle management</li>
  * </ul>
  *
+ * <p>
+ * Primitive specializations extend this class and override the storage type reported to the transformer,
+ * so that their components are emitted as real primitive fields instead of boxed objects.
+ *
  * @param <T> The type of the record component this key represents
  */
-public final class RecordComponentKeyImpl<T> implements RecordComponentKey<T> {
+public class RecordComponentKeyImpl<T> implements RecordComponentKey<T> {
     private final String targetClassName;
     private final String componentClassName;
-    private final Supplier<Class<?>> targetClassGetter;
     private final Supplier<Class<?>> componentClassGetter;
-    private final ThreadLocal<T> next;
+    private final Type componentType;
+    private final Supplier<T> defaultValueSupplier;
+    /**
+     * The default value shared by all instances of packed records, created once.
+     */
+    private final Supplier<T> packedDefault;
     private final String fieldName;
+    private final ComponentOptions options;
+    private int id = -1;
+    /**
+     * The accessor bound last, which the binding site is linked to.
+     */
     @Nullable
-    MethodHandle getter;
+    ComponentAccessor accessor;
+    /**
+     * Every accessor bound so far, one per loaded copy of the target record class.
+     */
+    private volatile ComponentAccessor[] boundAccessors = new ComponentAccessor[0];
+    /**
+     * Caches, per concrete class, the accessor reading this key from its instances or {@link #NOT_APPLICABLE}.
+     */
+    private final ClassValue<ComponentAccessor> applicability = new ClassValue<>() {
+        @Override
+        protected ComponentAccessor computeValue(Class<?> type) {
+            for (ComponentAccessor bound : boundAccessors) {
+                if (bound.recordClass == type)
+                    return bound;
+            }
+            return NOT_APPLICABLE;
+        }
+    };
+
+    private static final MethodHandle RESOLVE_ACCESSOR;
+    private static final MethodHandle IS_INSTANCE_OF;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            RESOLVE_ACCESSOR = lookup.findVirtual(RecordComponentKeyImpl.class, "resolveAccessor", MethodType.methodType(ComponentAccessor.class, Record.class));
+            IS_INSTANCE_OF = lookup.findStatic(RecordComponentKeyImpl.class, "isInstanceOf", MethodType.methodType(boolean.class, Class.class, Record.class));
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to find the accessor resolution of RecordComponentKeyImpl", e);
+        }
+    }
+
+    private static final ComponentAccessor NOT_APPLICABLE = new ComponentAccessor(Void.class, -1, 0) {
+        @Override
+        public Record copy(Object instance, Object[] values) {
+            throw new IllegalStateException("RecordComponentKey is not applicable");
+        }
+    };
+
+    /**
+     * Held by the fields of keys with lazy defaults until the default is created.
+     */
+    static final Object LAZY_DEFAULT = new Object();
 
     /**
      * Constructs a new RecordComponentKeyImpl using class names.
@@ -42,16 +108,33 @@ public final class RecordComponentKeyImpl<T> implements RecordComponentKey<T> {
      * @param targetClassName      The internal name of the target record class
      * @param componentClassName   The internal name of the component's class
      * @param defaultValueSupplier A supplier that provides default values for the component
+     * @throws IllegalArgumentException If the component type is primitive
      */
     public RecordComponentKeyImpl(String fieldName, String targetClassName, String componentClassName, Supplier<T> defaultValueSupplier) {
+        this(fieldName, targetClassName, componentClassName, defaultValueSupplier, ComponentOptions.DEFAULT);
+    }
+
+    /**
+     * Constructs a new RecordComponentKeyImpl using class names.
+     *
+     * @param fieldName            The name of the field this key represents
+     * @param targetClassName      The internal name of the target record class
+     * @param componentClassName   The internal name of the component's class
+     * @param defaultValueSupplier A supplier that provides default values for the component
+     * @param options              How the component takes part in the object methods of the record
+     * @throws IllegalArgumentException If the component type is primitive, or the equality strategy does not apply to it
+     */
+    public RecordComponentKeyImpl(String fieldName, String targetClassName, String componentClassName, Supplier<T> defaultValueSupplier, ComponentOptions options) {
         targetClassName = sanitizeFieldName(targetClassName);
 
         this.targetClassName = targetClassName;
         this.componentClassName = componentClassName;
-        this.targetClassGetter = Suppliers.memoize(createTargetClassSupplier(targetClassName));
         this.componentClassGetter = Suppliers.memoize(createComponentClassSupplier(componentClassName));
-        this.next = ThreadLocal.withInitial(defaultValueSupplier);
+        this.componentType = checkComponentType(fieldName, toComponentType(componentClassName));
+        this.defaultValueSupplier = defaultValueSupplier;
+        this.packedDefault = Suppliers.memoize(defaultValueSupplier);
         this.fieldName = fieldName;
+        this.options = checkOptions(options);
     }
 
     /**
@@ -61,16 +144,49 @@ public final class RecordComponentKeyImpl<T> implements RecordComponentKey<T> {
      * @param targetClassName      The internal name of the target record class
      * @param componentClass       The Class object representing the component's type
      * @param defaultValueSupplier A supplier that provides default values for the component
+     * @throws IllegalArgumentException If the component type is primitive
      */
     public RecordComponentKeyImpl(String fieldName, String targetClassName, Class<?> componentClass, Supplier<T> defaultValueSupplier) {
+        this(fieldName, targetClassName, componentClass, defaultValueSupplier, ComponentOptions.DEFAULT);
+    }
+
+    /**
+     * Constructs a new RecordComponentKeyImpl using a class name and component class.
+     *
+     * @param fieldName            The name of the field this key represents
+     * @param targetClassName      The internal name of the target record class
+     * @param componentClass       The Class object representing the component's type
+     * @param defaultValueSupplier A supplier that provides default values for the component
+     * @param options              How the component takes part in the object methods of the record
+     * @throws IllegalArgumentException If the component type is primitive, or the equality strategy does not apply to it
+     */
+    public RecordComponentKeyImpl(String fieldName, String targetClassName, Class<?> componentClass, Supplier<T> defaultValueSupplier, ComponentOptions options) {
         targetClassName = sanitizeFieldName(targetClassName);
 
         this.targetClassName = targetClassName;
         this.componentClassName = toInternalName(componentClass.getName());
-        this.targetClassGetter = Suppliers.memoize(createTargetClassSupplier(targetClassName));
         this.componentClassGetter = Suppliers.memoize(() -> componentClass);
-        this.next = ThreadLocal.withInitial(defaultValueSupplier);
+        this.componentType = checkComponentType(fieldName, Type.getType(componentClass));
+        this.defaultValueSupplier = defaultValueSupplier;
+        this.packedDefault = Suppliers.memoize(defaultValueSupplier);
         this.fieldName = fieldName;
+        this.options = checkOptions(options);
+    }
+
+    /**
+     * Constructs a copy of a key that has not been registered yet, for {@link SpecializedKeys}.
+     *
+     * @param key The key to copy
+     */
+    protected RecordComponentKeyImpl(RecordComponentKeyImpl<T> key) {
+        this.targetClassName = key.targetClassName;
+        this.componentClassName = key.componentClassName;
+        this.componentClassGetter = key.componentClassGetter;
+        this.componentType = key.componentType;
+        this.defaultValueSupplier = key.defaultValueSupplier;
+        this.packedDefault = key.packedDefault;
+        this.fieldName = key.fieldName;
+        this.options = key.options;
     }
 
     /**
@@ -89,6 +205,58 @@ public final class RecordComponentKeyImpl<T> implements RecordComponentKey<T> {
         return str;
     }
 
+    /**
+     * Parses the component type of a key created by class name, which may also be an array descriptor.
+     * Primitive type names and descriptors are parsed as primitive types, so they can be rejected.
+     *
+     * @param componentClassName The binary or internal name of the component class, or an array descriptor
+     * @return The component type
+     */
+    private static Type toComponentType(String componentClassName) {
+        if (componentClassName.startsWith("["))
+            return Type.getType(componentClassName.replace('.', '/'));
+        return switch (componentClassName) {
+            case "boolean", "Z" -> Type.BOOLEAN_TYPE;
+            case "byte", "B" -> Type.BYTE_TYPE;
+            case "char", "C" -> Type.CHAR_TYPE;
+            case "short", "S" -> Type.SHORT_TYPE;
+            case "int", "I" -> Type.INT_TYPE;
+            case "long", "J" -> Type.LONG_TYPE;
+            case "float", "F" -> Type.FLOAT_TYPE;
+            case "double", "D" -> Type.DOUBLE_TYPE;
+            case "void", "V" -> Type.VOID_TYPE;
+            default -> Type.getObjectType(toInternalName(componentClassName));
+        };
+    }
+
+    /**
+     * Rejects primitive component types outside the primitive specializations. The transformer would emit a primitive
+     * field that the generic initializers, accessors and reads can't handle, so the record class would fail to load.
+     *
+     * @param fieldName     The name of the field this key represents
+     * @param componentType The component type
+     * @return The component type
+     * @throws IllegalArgumentException If the component type is primitive and this is not a primitive specialization
+     */
+    private Type checkComponentType(String fieldName, Type componentType) {
+        boolean reference = componentType.getSort() == Type.OBJECT || componentType.getSort() == Type.ARRAY;
+        if (!reference && !(this instanceof PrimitiveRecordComponentKeyImpl))
+            throw new IllegalArgumentException("RecordComponentKey " + fieldName + " has the primitive type " + componentType.getClassName()
+                    + ", create it as an Int, Long, Double or BooleanRecordComponentKey or use the boxed type instead");
+        return componentType;
+    }
+
+    private ComponentOptions checkOptions(ComponentOptions options) {
+        boolean reference = componentType.getSort() == Type.OBJECT || componentType.getSort() == Type.ARRAY;
+        if (options.equality() != ComponentOptions.Equality.VALUE && !reference)
+            throw new IllegalArgumentException("Equality strategy " + options.equality() + " of RecordComponentKey " + fieldName + " does not apply to primitive components");
+        if (options.equality() == ComponentOptions.Equality.ARRAY_CONTENT && componentType.getSort() != Type.ARRAY)
+            throw new IllegalArgumentException("RecordComponentKey " + fieldName + " compares by array content, but its component type " + componentClassName + " is not an array");
+        if (options.lazyDefault() && !reference)
+            throw new IllegalArgumentException("RecordComponentKey " + fieldName + " has a lazy default, which does not apply to primitive components");
+        return options;
+    }
+
     /**
      * Retrieves the component value from a record instance.
      *
@@ -101,73 +269,409 @@ public final class RecordComponentKeyImpl<T> implements RecordComponentKey<T> {
      */
     @Override
     public <I extends Record> T get(I instance) throws KeyMismatchException, IllegalStateException {
-        Objects.requireNonNull(instance, "Instance cannot be null");
-        if (!targetClassGetter.get().isAssignableFrom(instance.getClass()))
-            throw new KeyMismatchException(fieldName, instance.getClass().getSimpleName());
-        if (this.getter == null)
-            throw new IllegalStateException("Getter not yet provided for RecordComponentKey " + this.getFieldName());
-        return getUnchecked(instance);
+        return read(readableAccessor(instance), instance);
     }
 
     /**
-     * Internal method that performs the actual invocation of the getter method handle.
+     * Retrieves the component value from a record instance, without throwing if the key is not applicable.
      *
      * @param <I>      The record instance type
-     * @param instance The record instance from which to get the component value
+     * @param instance The record instance from which to get the component value, may be null
+     * @return The component value, or null if the key is not applicable to the instance
+     */
+    @Override
+    public <I extends Record> @Nullable T getOrNull(@Nullable I instance) {
+        ComponentAccessor accessor = applicableAccessor(instance);
+        return accessor != null ? read(accessor, instance) : null;
+    }
+
+    /**
+     * Retrieves the component value from a record instance, without throwing if the key is not applicable.
+     *
+     * @param <I>          The record instance type
+     * @param instance     The record instance from which to get the component value, may be null
+     * @param defaultValue The value returned if the key is not applicable to the instance
+     * @return The component value, or the given default value if the key is not applicable to the instance
+     */
+    @Override
+    public <I extends Record> T getOrDefault(@Nullable I instance, T defaultValue) {
+        ComponentAccessor accessor = applicableAccessor(instance);
+        return accessor != null ? read(accessor, instance) : defaultValue;
+    }
+
+    /**
+     * Checks whether this key can be read from an instance.
+     *
+     * @param instance The record instance to check, may be null
+     * @return Whether the key is implemented on the class of the instance
+     */
+    @Override
+    public boolean isApplicable(@Nullable Record instance) {
+        return applicableAccessor(instance) != null;
+    }
+
+    /**
+     * Reads the component value through an accessor that accepts the instance.
+     * Primitive specializations override this to box the value read by their primitive accessor.
+     *
+     * @param accessor The accessor bound to the class of the instance
+     * @param instance The record instance
      * @return The component value
-     * @throws RuntimeException If an error occurs during method handle invocation
      */
-    @SuppressWarnings({"unchecked", "DataFlowIssue"})
-    private <I extends Record> T getUnchecked(I instance) {
-        try {
-            return (T) getter.invokeExact((Object) instance);
-        } catch (Throwable throwable) {
-            throw new RuntimeException(throwable);
+    @SuppressWarnings("unchecked")
+    protected T read(ComponentAccessor accessor, Record instance) {
+        return (T) ((ComponentAccessor.OfObject) accessor).get(instance);
+    }
+
+    /**
+     * Gets the accessor able to read this key from the given instance, if any.
+     *
+     * @param instance The record instance that is about to be read, may be null
+     * @return The accessor bound to the class of the instance, or null if the key is not applicable
+     */
+    protected final @Nullable ComponentAccessor applicableAccessor(@Nullable Record instance) {
+        return instance != null ? accessorFor(instance) : null;
+    }
+
+    /**
+     * Gets the accessor able to read this key from an instance.
+     * Keys created through {@link SpecializedKeys} override this to invoke the target of their
+     * {@link #bindingSite() binding site}, which the JIT folds for a constant key.
+     *
+     * @param instance The record instance that is about to be read
+     * @return The accessor bound to the class of the instance, or null if the key is not applicable
+     */
+    protected @Nullable ComponentAccessor accessorFor(Record instance) {
+        return resolveAccessor(instance);
+    }
+
+    /**
+     * Resolves the accessor for an instance without the binding site.
+     * The fast path is a single class comparison against the class the accessor was last bound to,
+     * any other class is resolved once and cached in a {@link ClassValue}.
+     *
+     * @param instance The record instance that is about to be read
+     * @return The accessor bound to the class of the instance, or null if the key is not applicable
+     */
+    private @Nullable ComponentAccessor resolveAccessor(Record instance) {
+        Class<?> type = instance.getClass();
+        ComponentAccessor accessor = this.accessor;
+        if (accessor != null && accessor.recordClass == type)
+            return accessor;
+        accessor = applicability.get(type);
+        return accessor != NOT_APPLICABLE ? accessor : null;
+    }
+
+    /**
+     * Gets the call site the accessor of this key is linked into, taking a record and returning its accessor.
+     * Keys created through {@link SpecializedKeys} override this to return the call site their class was defined
+     * with.
+     *
+     * @return The binding site, or null if reads resolve the accessor through {@link #resolveAccessor(Record)}
+     */
+    protected @Nullable MutableCallSite bindingSite() {
+        return null;
+    }
+
+    /**
+     * Links the binding site to the accessor bound last, falling back to {@link #resolveAccessor(Record)} for the
+     * instances of any other class.
+     * Other threads may keep invoking the previous target for a while, which resolves the same accessors, only slower.
+     */
+    void relink() {
+        MutableCallSite site = bindingSite();
+        if (site == null)
+            return;
+        MethodHandle resolve = RESOLVE_ACCESSOR.bindTo(this);
+        ComponentAccessor accessor = this.accessor;
+        if (accessor == null) {
+            site.setTarget(resolve);
+            return;
         }
+        site.setTarget(MethodHandles.guardWithTest(
+                IS_INSTANCE_OF.bindTo(accessor.recordClass),
+                MethodHandles.dropArguments(MethodHandles.constant(ComponentAccessor.class, accessor), 0, Record.class),
+                resolve
+        ));
+    }
+
+    private static boolean isInstanceOf(Class<?> recordClass, Record instance) {
+        // records are final, so an exact comparison suffices
+        return instance.getClass() == recordClass;
+    }
+
+    /**
+     * Gets the accessor able to read this key from the given instance.
+     *
+     * @param instance The record instance that is about to be read
+     * @return The bound accessor
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    protected final ComponentAccessor readableAccessor(Record instance) throws KeyMismatchException, IllegalStateException {
+        ComponentAccessor accessor = applicableAccessor(instance);
+        if (accessor != null)
+            return accessor;
+        Objects.requireNonNull(instance, "Instance cannot be null");
+        RecordRecoderEvents.KEY_MISMATCHES.increment();
+        // records are final, so only the target class itself can carry the component
+        if (instance.getClass().getName().equals(toBinaryName(targetClassName)))
+            throw new IllegalStateException("Getter not yet provided for RecordComponentKey " + this.getFieldName());
+        throw new KeyMismatchException(fieldName, instance.getClass().getSimpleName());
+    }
+
+    /**
+     * Gets the handle on the field of this component in the class of an instance, for the operations of mutable keys.
+     *
+     * @param instance The record instance that is about to be accessed
+     * @return The handle held by the bound accessor
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    protected final VarHandle mutableHandle(Record instance) throws KeyMismatchException, IllegalStateException {
+        return ((ComponentAccessor.Mutable) readableAccessor(instance)).handle();
+    }
+
+    /**
+     * Copies a record instance, replacing the value of this component.
+     * The copy is made by the copy method generated on the record, through the bound accessor.
+     *
+     * @param <R>      The record instance type
+     * @param instance The record instance to copy
+     * @param value    The value of this component on the copy
+     * @return The copy
+     * @throws KeyMismatchException  If the key is not applicable to the provided instance type
+     * @throws IllegalStateException If the getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R extends Record> R with(R instance, T value) throws KeyMismatchException, IllegalStateException {
+        ComponentAccessor accessor = readableAccessor(instance);
+        Object[] values = accessor.unchangedValues();
+        values[accessor.slot] = value;
+        return (R) accessor.copy(instance, values);
+    }
+
+    /**
+     * Copies a record instance, replacing the values of the bound components.
+     *
+     * @param <R>      The record instance type
+     * @param instance The record instance to copy
+     * @param bindings The values to replace
+     * @return The copy, or the instance itself if there are no bindings
+     * @throws KeyMismatchException  If a key is not applicable to the provided instance type
+     * @throws IllegalStateException If a getter has not been provided yet
+     * @throws NullPointerException  If the instance is null
+     */
+    @SuppressWarnings("unchecked")
+    public static <R extends Record> R withAll(R instance, Binding<?>... bindings) throws KeyMismatchException, IllegalStateException {
+        if (bindings.length == 0)
+            return Objects.requireNonNull(instance, "Instance cannot be null");
+        ComponentAccessor copier = null;
+        Object[] values = null;
+        for (Binding<?> binding : bindings) {
+            ComponentAccessor accessor = ((RecordComponentKeyImpl<?>) binding.key()).readableAccessor(instance);
+            if (copier == null) {
+                copier = accessor;
+                values = accessor.unchangedValues();
+            }
+            values[accessor.slot] = binding.value();
+        }
+        return (R) copier.copy(instance, values);
     }
 
     /**
      * Queues a value to be assigned to this component during the next record instantiation.
-     * The value is stored in a ThreadLocal to ensure thread safety.
+     * The value is stored in the pending value frame of the current thread to ensure thread safety.
      *
      * @param value The value to queue
      * @throws IllegalArgumentException If the value is not of the expected component type
+     * @throws IllegalStateException    If this key has not been registered
      */
     @Override
     public void queueNext(T value) {
         if (!componentClassGetter.get().isAssignableFrom(value.getClass())) {
             throw new IllegalArgumentException("Value " + value + " is not of type " + componentClassName);
         }
-        next.set(value);
+        PendingValues.current().queue(requireId(), value);
+    }
+
+    /**
+     * Queues a value without checking its type.
+     * Used by ASM generated extended constructors, whose parameters already carry the component type.
+     *
+     * @param value The value to queue
+     */
+    @ApiStatus.Internal
+    @SuppressWarnings("unused") // used in asm generated extended constructors
+    public void queueNextUnchecked(T value) {
+        PendingValues.current().queue(requireId(), value);
     }
 
     /**
      * Retrieves and removes the next queued value for this component.
-     * Used in ASM generated field initializers.
+     * Used in ASM generated field initializers, which look the frame up once for all keys of the record.
      *
+     * @param frame The pending value frame of the current thread
      * @return The next queued value, or a default value if none was queued
      */
+    @SuppressWarnings({"unused", "unchecked"}) // used in asm generated field initializers
+    public T getNext(PendingValues frame) {
+        return frame.isPending(id) ? (T) frame.take(id) : defaultValueSupplier.get();
+    }
+
+    /**
+     * Retrieves and removes the next queued value for this component, without creating a default value.
+     * Used in ASM generated field initializers of keys with lazy defaults.
+     *
+     * @param frame The pending value frame of the current thread
+     * @return The next queued value, or a marker for {@link #resolveLazy(VarHandle, Record)} if none was queued
+     */
+    @ApiStatus.Internal
     @SuppressWarnings("unused") // used in asm generated field initializers
-    public T getNext() {
-        var value = next.get();
-        next.remove();
-        return value;
+    public Object getNextOrLazy(PendingValues frame) {
+        return frame.isPending(id) ? frame.take(id) : LAZY_DEFAULT;
     }
 
     /**
-     * Creates a supplier that lazily loads the target class.
+     * Maps the value an extended constructor receives for a key with a lazy default to the value of its field.
+     * Used in ASM generated extended constructors, so factories can leave a component unbound without creating its
+     * default value.
      *
-     * @param targetClassName The name of the target class
-     * @return A supplier that provides the Class object for the target class
+     * @param value The value passed to the constructor, or null for the default value
+     * @return The value, or a marker for {@link #resolveLazy(VarHandle, Record)} if it was null
      */
-    private Supplier<Class<?>> createTargetClassSupplier(String targetClassName) {
-        return () -> {
-            try {
-                return Class.forName(toBinaryName(targetClassName));
-            } catch (ClassNotFoundException e) {
-                throw new RuntimeException("Failed to get target class: ", e);
-            }
-        };
+    @ApiStatus.Internal
+    @SuppressWarnings("unused") // used in asm generated extended constructors
+    public static Object lazyIfNull(@Nullable Object value) {
+        return value != null ? value : LAZY_DEFAULT;
+    }
+
+    /**
+     * Reads the value of this component from an instance, creating the default value on the first read if none was
+     * queued. Used in ASM generated getters of keys with lazy defaults.
+     * <p>
+     * The field is read with acquire semantics. The default value is published with a release compare-and-exchange,
+     * so concurrent first reads all return the value of whichever thread published first.
+     *
+     * @param handle   A handle on the field of this component, held by a static final field of the record
+     * @param instance The record instance
+     * @return The component value
+     */
+    @ApiStatus.Internal
+    @SuppressWarnings("unused") // used in asm generated getters
+    public final Object resolveLazy(VarHandle handle, Record instance) {
+        Object value = handle.getAcquire(instance);
+        return value != LAZY_DEFAULT ? value : publishLazyDefault(handle, instance);
+    }
+
+    private Object publishLazyDefault(VarHandle handle, Record instance) {
+        Object value = createLazyDefault(instance);
+        Object witness = handle.compareAndExchangeRelease(instance, LAZY_DEFAULT, value);
+        if (witness == LAZY_DEFAULT)
+            return value;
+        // another thread published first, its value has to be read with acquire semantics
+        VarHandle.acquireFence();
+        return witness;
+    }
+
+    /**
+     * Creates the value a key with a lazy default assigns on the first read.
+     *
+     * @param instance The record instance that is read
+     * @return The default value
+     */
+    protected Object createLazyDefault(Record instance) {
+        return defaultValueSupplier.get();
+    }
+
+    /**
+     * Consumes the queued value of this component for a packed record.
+     *
+     * @param frame The pending value frame of the current thread
+     * @return The queued value, or {@link PackedValues#DEFAULT} if none was queued or the shared default was queued
+     */
+    Object takePacked(PendingValues frame) {
+        if (!frame.isPending(id))
+            return PackedValues.DEFAULT;
+        Object value = frame.take(id);
+        return value == packedDefault.get() ? PackedValues.DEFAULT : value;
+    }
+
+    /**
+     * Reads the value of this component from the packed values of a record.
+     * Used in ASM generated getters of packed records.
+     *
+     * @param packed The packed values of the instance
+     * @param slot   The position of this key among the extended components of the record
+     * @return The value, or the shared default value if none is held
+     */
+    @SuppressWarnings("unused") // used in asm generated getters
+    public Object unpack(PackedValues packed, int slot) {
+        return packed.has(slot) ? packed.get(slot) : packedDefault.get();
+    }
+
+    /**
+     * Gets a fresh default value for this component, as assigned when no value was queued.
+     *
+     * @return The default value
+     */
+    @ApiStatus.Internal
+    public T getDefaultValue() {
+        return defaultValueSupplier.get();
+    }
+
+    /**
+     * Compares two values of this component with the custom equivalence of the key.
+     * Used in ASM generated {@code equals} methods.
+     *
+     * @param first  The value of the first record
+     * @param second The value of the second record
+     * @return Whether the values are equivalent
+     */
+    @ApiStatus.Internal
+    @SuppressWarnings({"unused", "unchecked"}) // used in asm generated equals methods
+    public boolean equivalent(@Nullable Object first, @Nullable Object second) {
+        if (first == second)
+            return true;
+        return first != null && second != null && ((ComponentEquivalence<Object>) options.equivalence()).equivalent(first, second);
+    }
+
+    /**
+     * Hashes a value of this component with the custom equivalence of the key.
+     * Used in ASM generated {@code hashCode} methods.
+     *
+     * @param value The value
+     * @return The hash code of the value
+     */
+    @ApiStatus.Internal
+    @SuppressWarnings({"unused", "unchecked"}) // used in asm generated hashCode methods
+    public int hash(@Nullable Object value) {
+        return value != null ? ((ComponentEquivalence<Object>) options.equivalence()).hash(value) : 0;
+    }
+
+    /**
+     * Gets how the component of this key takes part in the object methods of its record.
+     *
+     * @return The options of this key
+     */
+    @ApiStatus.Internal
+    public ComponentOptions getComponentOptions() {
+        return options;
+    }
+
+    /**
+     * Checks whether the accessor of this key has been bound to the given record class,
+     * which happens in the static initializer of the transformed class.
+     *
+     * @param recordClass The record class
+     * @return Whether the key is implemented on the record class
+     */
+    boolean isBoundTo(Class<?> recordClass) {
+        return applicability.get(recordClass) != NOT_APPLICABLE;
     }
 
     /**
@@ -187,20 +691,139 @@ public final class RecordComponentKeyImpl<T> implements RecordComponentKey<T> {
     }
 
     /**
-     * Sets the method handle used to access the component value from record instances.
-     * This method is used by ASM generated static initializers.
+     * Binds the accessor used to read the component value from record instances.
+     * This method is called for every key of a record by {@link ComponentKeyRegistryImpl#bindKeys}, with the lookup
+     * its static initializer passes, so the accessor can be defined as a hidden nestmate reading the private
+     * component field directly.
      *
-     * @param getter The method handle to use for accessing the component value
+     * @param lookup    A full privilege lookup on the transformed record class
+     * @param fieldName The name of the generated component field
+     * @param slot      The position of this key among the extended components of the record
+     * @param keyCount  The number of keys of the record
+     * @param throughGetter Whether the component has no field of its own, so the accessor reads through the getter
+     * <p>
+     * Accessors of mutable keys are given a {@link VarHandle} on the field as class data, which they hand out as a
+     * constant.
      */
     @ApiStatus.Internal
-    @SuppressWarnings("unused")
-    public void provideGetter(MethodHandle getter) {
-        this.getter = getter.asType( // currently seems the most efficient, looking into methods of acquiring constant promotion (none found that worked consistently)
-                MethodType.methodType(
-                        Object.class,
-                        Object.class
-                )
+    public void bindAccessor(MethodHandles.Lookup lookup, String fieldName, int slot, int keyCount, boolean throughGetter) {
+        boolean mutable = this instanceof MutableKey;
+        byte[] bytes = AccessorGenerator.generate(
+                toInternalName(lookup.lookupClass().getName()),
+                fieldName,
+                getFieldType(),
+                slot,
+                keyCount,
+                throughGetter,
+                mutable
         );
+        try {
+            MethodHandles.Lookup accessorLookup = mutable
+                    ? lookup.defineHiddenClassWithClassData(bytes, lookup.findVarHandle(lookup.lookupClass(), fieldName, componentClassGetter.get()), true, MethodHandles.Lookup.ClassOption.NESTMATE)
+                    : lookup.defineHiddenClass(bytes, true, MethodHandles.Lookup.ClassOption.NESTMATE);
+            this.accessor = (ComponentAccessor) accessorLookup
+                    .findConstructor(accessorLookup.lookupClass(), MethodType.methodType(void.class))
+                    .invoke();
+        } catch (Throwable throwable) {
+            throw new RuntimeException("Failed to bind accessor for RecordComponentKey " + this.getFieldName(), throwable);
+        }
+        synchronized (this) {
+            ComponentAccessor[] bound = Arrays.copyOf(boundAccessors, boundAccessors.length + 1);
+            bound[bound.length - 1] = this.accessor;
+            boundAccessors = bound;
+        }
+        // the class may have been probed while it was still initializing
+        applicability.remove(lookup.lookupClass());
+        relink();
+    }
+
+    /**
+     * Gets the type of the field the transformer emits for this key.
+     * This is the exact component type, so primitive keys keep their values unboxed
+     * and reference keys are reported with their real type by {@link Class#getRecordComponents()}.
+     *
+     * @return The field type of the generated component
+     */
+    @ApiStatus.Internal
+    public Type getFieldType() {
+        return componentType;
+    }
+
+    /**
+     * Gets the class of this key that generated code may name, which is the key class a
+     * {@link SpecializedKeys specialized} key was created from.
+     *
+     * @return The key class
+     */
+    @ApiStatus.Internal
+    public Class<?> getKeyClass() {
+        Class<?> type = getClass();
+        return type.isHidden() ? type.getSuperclass() : type;
+    }
+
+    /**
+     * Gets the method the generated field initializer calls to retrieve the next value.
+     * Its return type must match {@link #getFieldType()}, or be Object for reference keys.
+     *
+     * @return The method retrieving the next queued value
+     */
+    @ApiStatus.Internal
+    public OwnedMethod getNextMethod() {
+        return options.lazyDefault() ? Constants.RECORD_COMPONENT_KEY_IMPL$GET_NEXT_OR_LAZY : Constants.RECORD_COMPONENT_KEY_IMPL$GET_NEXT;
+    }
+
+    /**
+     * Gets the method the generated getters of packed records call to read the value.
+     * It takes the packed values and the slot, and its return type must match {@link #getFieldType()} for primitive
+     * keys, reference keys return Object.
+     *
+     * @return The method reading a packed value
+     */
+    @ApiStatus.Internal
+    public OwnedMethod getUnpackMethod() {
+        return Constants.RECORD_COMPONENT_KEY_IMPL$UNPACK;
+    }
+
+    /**
+     * Gets the method generated copy methods call to queue values, for records without an extended constructor.
+     * Its single parameter type must match {@link #getFieldType()}.
+     *
+     * @return The method queueing the next value
+     */
+    @ApiStatus.Internal
+    public OwnedMethod getQueueNextMethod() {
+        return Constants.RECORD_COMPONENT_KEY_IMPL$QUEUE_NEXT_UNCHECKED;
+    }
+
+    /**
+     * Assigns the dense id of this key, used to index the pending value frame.
+     * Called once by the registry when the key is registered.
+     *
+     * @param id The dense id of this key
+     */
+    void assignId(int id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the dense id assigned to this key at registration.
+     *
+     * @return The id of this key, or -1 if it has not been registered
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the dense id of this key, failing if it has not been registered.
+     *
+     * @return The id of this key
+     * @throws IllegalStateException If this key has not been registered
+     */
+    final int requireId() {
+        if (id < 0)
+            throw new IllegalStateException("RecordComponentKey " + fieldName + " has not been registered");
+        return id;
     }
 
     /**
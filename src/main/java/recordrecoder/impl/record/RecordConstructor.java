@@ -0,0 +1,34 @@
+package recordrecoder.impl.record;
+
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Invokes the canonical constructors of one transformed record class on arguments held in arrays.
+ * <p>
+ * Each factory is backed by a hidden subclass generated by {@link recordrecoder.impl.asm.RecordConstructorGenerator}
+ * and defined as a nestmate of its record. The subclass reads the arguments straight out of the arrays, unboxes
+ * them and invokes the constructor with a plain {@code new}, so a construction neither copies the arguments nor goes
+ * through a method handle that the JIT cannot treat as a constant.
+ */
+@ApiStatus.Internal
+public abstract class RecordConstructor {
+    /**
+     * Invokes the extended canonical constructor.
+     *
+     * @param vanillaArguments The vanilla components, in declaration order
+     * @param extendedValues   One value per key of the record, in the order of its extended components
+     * @return The constructed record
+     * @throws UnsupportedOperationException If the record has no extended constructor
+     */
+    public Record construct(Object[] vanillaArguments, Object[] extendedValues) {
+        throw new UnsupportedOperationException("Record has no extended constructor");
+    }
+
+    /**
+     * Invokes the original canonical constructor, which takes the extended values queued on the current thread.
+     *
+     * @param vanillaArguments The vanilla components, in declaration order
+     * @return The constructed record
+     */
+    public abstract Record constructVanilla(Object[] vanillaArguments);
+}
@@ -0,0 +1,289 @@
+package recordrecoder.impl.record;
+
+import org.objectweb.asm.Type;
+import recordrecoder.api.record.RecordComponentKey;
+import recordrecoder.api.record.RecordFactory;
+import recordrecoder.impl.asm.RecordConstructorGenerator;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static recordrecoder.impl.utils.asmhelpers.ClassNameHelper.toInternalName;
+
+/**
+ * Implementation of the RecordFactory interface.
+ * <p>
+ * Records are constructed through a {@link RecordConstructor} generated for the record, which passes the arguments
+ * from their arrays straight to the extended canonical constructor, so the extended values are assigned directly and
+ * the pending value frame is never touched, not even by the original constructor it delegates to. Bindings are
+ * resolved by dense key id through a flat table instead of a map. Keys with a lazy default that are not given a value
+ * are passed as null and keep their default lazy. If the transformer could not add the extended constructor, values
+ * are queued on the calling thread and the original constructor is invoked immediately after.
+ * <p>
+ * Arguments are checked against the component types before the record is constructed, so exceptions thrown by the
+ * record's own constructor reach the caller unchanged.
+ *
+ * @param <R> The record type this factory constructs
+ */
+public final class RecordFactoryImpl<R extends Record> implements RecordFactory<R> {
+    private final Class<R> recordClass;
+    private final List<RecordComponentKeyImpl<?>> keys;
+    private final int vanillaArity;
+    /**
+     * Position of each key in {@link #keys}, indexed by dense key id, or -1 for keys of other records.
+     */
+    private final int[] slotsById;
+    /**
+     * Whether each key in {@link #keys} creates its default value on the first read.
+     */
+    private final boolean[] lazy;
+    /**
+     * The component types of the record with primitives boxed, vanilla components first.
+     */
+    private final Class<?>[] argumentTypes;
+    /**
+     * Whether each component of the record has a primitive type and so cannot be null.
+     */
+    private final boolean[] primitive;
+    private final RecordConstructor constructor;
+    private final boolean extended;
+
+    /**
+     * Constructs a new RecordFactoryImpl.
+     *
+     * @param recordClass The transformed record class
+     * @param keys        The keys registered for the record class, in the order of its extended components
+     * @throws IllegalArgumentException If no keys are registered for the record class
+     * @throws IllegalStateException    If the record class has not been transformed
+     */
+    RecordFactoryImpl(Class<R> recordClass, List<RecordComponentKeyImpl<?>> keys) {
+        if (keys.isEmpty())
+            throw new IllegalArgumentException("No RecordComponentKeys are registered for " + recordClass.getName());
+        this.recordClass = recordClass;
+        this.keys = List.copyOf(keys);
+
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(recordClass, MethodHandles.lookup());
+            // binds the key accessors, which tells us whether the class was transformed
+            lookup.ensureInitialized(recordClass);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Failed to access record class " + recordClass.getName(), e);
+        }
+        for (RecordComponentKeyImpl<?> key : this.keys) {
+            if (!key.isBoundTo(recordClass))
+                throw new IllegalStateException("Record class " + recordClass.getName() + " has not been transformed for RecordComponentKey " + key.getFieldName());
+        }
+
+        RecordComponent[] components = recordClass.getRecordComponents();
+        Class<?>[] componentTypes = Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new);
+        this.vanillaArity = components.length - this.keys.size();
+        this.argumentTypes = new Class<?>[componentTypes.length];
+        this.primitive = new boolean[componentTypes.length];
+        for (int i = 0; i < componentTypes.length; i++) {
+            argumentTypes[i] = MethodType.methodType(componentTypes[i]).wrap().returnType();
+            primitive[i] = componentTypes[i].isPrimitive();
+        }
+
+        int maxId = this.keys.stream().mapToInt(RecordComponentKeyImpl::getId).max().orElse(-1);
+        this.slotsById = new int[maxId + 1];
+        Arrays.fill(slotsById, -1);
+        this.lazy = new boolean[this.keys.size()];
+        for (int i = 0; i < this.keys.size(); i++) {
+            slotsById[this.keys.get(i).requireId()] = i;
+            lazy[i] = this.keys.get(i).getComponentOptions().lazyDefault();
+        }
+
+        this.extended = hasConstructor(componentTypes);
+        this.constructor = defineConstructor(lookup, componentTypes);
+    }
+
+    private boolean hasConstructor(Class<?>[] parameterTypes) {
+        try {
+            recordClass.getDeclaredConstructor(parameterTypes);
+            return true;
+        } catch (NoSuchMethodException e) {
+            // skipped by the transformer
+            return false;
+        }
+    }
+
+    private RecordConstructor defineConstructor(MethodHandles.Lookup lookup, Class<?>[] componentTypes) {
+        Type[] types = Arrays.stream(componentTypes).map(Type::getType).toArray(Type[]::new);
+        byte[] bytes = RecordConstructorGenerator.generate(
+                toInternalName(recordClass.getName()),
+                Arrays.copyOf(types, vanillaArity),
+                extended ? Arrays.copyOfRange(types, vanillaArity, types.length) : null
+        );
+        try {
+            MethodHandles.Lookup constructorLookup = lookup.defineHiddenClass(bytes, true, MethodHandles.Lookup.ClassOption.NESTMATE);
+            return (RecordConstructor) constructorLookup
+                    .findConstructor(constructorLookup.lookupClass(), MethodType.methodType(void.class))
+                    .invoke();
+        } catch (Throwable throwable) {
+            throw new RuntimeException("Failed to define constructor of " + recordClass.getName(), throwable);
+        }
+    }
+
+    @Override
+    public Class<R> recordClass() {
+        return recordClass;
+    }
+
+    @Override
+    public List<RecordComponentKeyImpl<?>> keys() {
+        return keys;
+    }
+
+    @Override
+    public int vanillaArity() {
+        return vanillaArity;
+    }
+
+    @Override
+    public R create(Object... vanillaArguments) {
+        checkVanillaArity(vanillaArguments);
+        Object[] extendedValues = new Object[keys.size()];
+        for (int i = 0; i < extendedValues.length; i++) {
+            extendedValues[i] = defaultValue(i);
+        }
+        return construct(vanillaArguments, extendedValues);
+    }
+
+    @Override
+    public R create(Object[] vanillaArguments, Object[] extendedValues) {
+        checkVanillaArity(vanillaArguments);
+        if (extendedValues.length != keys.size())
+            throw new IllegalArgumentException("Expected " + keys.size() + " extended values for " + recordClass.getName() + ", got " + extendedValues.length);
+        return construct(vanillaArguments, extendedValues);
+    }
+
+    @Override
+    public R create(Object[] vanillaArguments, RecordComponentKey.Binding<?>... bindings) {
+        checkVanillaArity(vanillaArguments);
+        Object[] extendedValues = new Object[keys.size()];
+        boolean[] bound = new boolean[keys.size()];
+        for (RecordComponentKey.Binding<?> binding : bindings) {
+            int slot = slotOf(binding.key());
+            extendedValues[slot] = binding.value();
+            bound[slot] = true;
+        }
+        for (int i = 0; i < bound.length; i++) {
+            if (!bound[i])
+                extendedValues[i] = defaultValue(i);
+        }
+        return construct(vanillaArguments, extendedValues);
+    }
+
+    @Override
+    public List<R> createAll(int count, Object[][] vanillaColumns, Object[][] extendedColumns) {
+        if (vanillaColumns.length != vanillaArity)
+            throw new IllegalArgumentException("Expected " + vanillaArity + " vanilla columns for " + recordClass.getName() + ", got " + vanillaColumns.length);
+        if (extendedColumns.length != keys.size())
+            throw new IllegalArgumentException("Expected " + keys.size() + " extended columns for " + recordClass.getName() + ", got " + extendedColumns.length);
+        if (count < 0)
+            throw new IllegalArgumentException("Cannot construct " + count + " records of " + recordClass.getName());
+        for (int i = 0; i < vanillaColumns.length; i++) {
+            checkColumnLength(count, vanillaColumns[i], "vanilla column " + i);
+        }
+        for (int i = 0; i < extendedColumns.length; i++) {
+            if (extendedColumns[i] != null)
+                checkColumnLength(count, extendedColumns[i], "column of RecordComponentKey " + keys.get(i).getFieldName());
+        }
+
+        List<R> records = new ArrayList<>(count);
+        // the arguments are read out before the constructor runs, so one pair of row buffers serves every record
+        Object[] vanillaArguments = new Object[vanillaArity];
+        Object[] extendedValues = new Object[keys.size()];
+        for (int row = 0; row < count; row++) {
+            for (int i = 0; i < vanillaArity; i++) {
+                vanillaArguments[i] = vanillaColumns[i][row];
+            }
+            for (int i = 0; i < extendedColumns.length; i++) {
+                Object[] column = extendedColumns[i];
+                extendedValues[i] = column != null ? column[row] : defaultValue(i);
+            }
+            records.add(construct(vanillaArguments, extendedValues));
+        }
+        return records;
+    }
+
+    private void checkColumnLength(int count, Object[] column, String name) {
+        if (column.length < count)
+            throw new IllegalArgumentException("Expected at least " + count + " values in the " + name + " of " + recordClass.getName() + ", got " + column.length);
+    }
+
+    private void checkVanillaArity(Object[] vanillaArguments) {
+        if (vanillaArguments.length != vanillaArity)
+            throw new IllegalArgumentException("Expected " + vanillaArity + " components for " + recordClass.getName() + ", got " + vanillaArguments.length);
+    }
+
+    /**
+     * @return The value a key without a binding is constructed with, null for keys creating their default lazily
+     */
+    private Object defaultValue(int slot) {
+        return lazy[slot] ? null : keys.get(slot).getDefaultValue();
+    }
+
+    private int slotOf(RecordComponentKey<?> key) {
+        int id = key instanceof RecordComponentKeyImpl<?> keyImpl ? keyImpl.getId() : -1;
+        int slot = id >= 0 && id < slotsById.length ? slotsById[id] : -1;
+        if (slot < 0)
+            throw new IllegalArgumentException("RecordComponentKey " + key + " is not implemented on " + recordClass.getName());
+        return slot;
+    }
+
+    private R construct(Object[] vanillaArguments, Object[] extendedValues) {
+        for (int i = 0; i < vanillaArguments.length; i++) {
+            checkArgument(i, vanillaArguments[i]);
+        }
+        for (int i = 0; i < extendedValues.length; i++) {
+            checkArgument(vanillaArity + i, extendedValues[i]);
+        }
+        if (extended)
+            return recordClass.cast(constructor.construct(vanillaArguments, extendedValues));
+        return constructQueued(vanillaArguments, extendedValues);
+    }
+
+    /**
+     * Checks a value against the type of a component, so the generated constructor can neither fail to cast nor to
+     * unbox it.
+     *
+     * @param component The index of the component, vanilla components first
+     * @param value     The value passed for the component
+     * @throws IllegalArgumentException If the value does not fit the component
+     */
+    private void checkArgument(int component, Object value) {
+        if (value == null ? !primitive[component] : argumentTypes[component].isInstance(value))
+            return;
+        String name = component < vanillaArity
+                ? "component " + recordClass.getRecordComponents()[component].getName()
+                : "RecordComponentKey " + keys.get(component - vanillaArity).getFieldName();
+        if (value == null)
+            throw new IllegalArgumentException("The " + name + " of " + recordClass.getName() + " has a primitive type and cannot be null");
+        throw new IllegalArgumentException("The " + name + " of " + recordClass.getName() + " expects " + argumentTypes[component].getName() + ", got " + value.getClass().getName());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private R constructQueued(Object[] vanillaArguments, Object[] extendedValues) {
+        for (int i = 0; i < keys.size(); i++) {
+            // an unqueued key with a lazy default keeps it lazy
+            if (!lazy[i] || extendedValues[i] != null)
+                ((RecordComponentKeyImpl) keys.get(i)).queueNextUnchecked(extendedValues[i]);
+        }
+        try {
+            return recordClass.cast(constructor.constructVanilla(vanillaArguments));
+        } catch (Throwable throwable) {
+            // the constructor consumes its values last, so a failure leaves them queued
+            PendingValues frame = PendingValues.current();
+            for (RecordComponentKeyImpl<?> key : keys) {
+                frame.discard(key.getId());
+            }
+            throw throwable;
+        }
+    }
+}
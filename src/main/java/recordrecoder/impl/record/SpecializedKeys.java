@@ -0,0 +1,60 @@
+package recordrecoder.impl.record;
+
+import org.jetbrains.annotations.ApiStatus;
+import recordrecoder.impl.asm.SpecializedKeyGenerator;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+
+import static recordrecoder.impl.utils.asmhelpers.ClassNameHelper.toInternalName;
+
+/**
+ * Creates keys as instances of their own hidden subclass of the key class.
+ * <p>
+ * A read through a key shares its accessor call with every other key of the same shape, so with more than two such
+ * keys in use the JIT can no longer inline the accessor. Each specialized key resolves its accessor through a
+ * {@link MutableCallSite} that is a constant of its own class instead, and {@link RecordComponentKeyImpl#bindAccessor}
+ * links the call site to the accessor it binds. A read through a key held in a static final field is then compiled to
+ * a class comparison and a field load, however many keys are in use.
+ */
+@ApiStatus.Internal
+public final class SpecializedKeys {
+    private static final MethodType BINDING_SITE_TYPE = MethodType.methodType(ComponentAccessor.class, Record.class);
+    /**
+     * The generated subclass of each key class, which only differ in the call site they are defined with.
+     */
+    private static final ClassValue<byte[]> SUBCLASS_BYTES = new ClassValue<>() {
+        @Override
+        protected byte[] computeValue(Class<?> keyClass) {
+            return SpecializedKeyGenerator.generate(toInternalName(keyClass.getName()));
+        }
+    };
+
+    private SpecializedKeys() {
+    }
+
+    /**
+     * Copies a newly created key into an instance of its own hidden subclass of the key class.
+     *
+     * @param <K> The key class
+     * @param key The key to copy, which must not have been registered yet
+     * @return The specialized key, to be used in place of the given key
+     */
+    @SuppressWarnings("unchecked")
+    public static <K extends RecordComponentKeyImpl<?>> K specialize(K key) {
+        Class<?> keyClass = key.getClass();
+        MutableCallSite site = new MutableCallSite(BINDING_SITE_TYPE);
+        K specialized;
+        try {
+            MethodHandles.Lookup keyLookup = MethodHandles.lookup().defineHiddenClassWithClassData(SUBCLASS_BYTES.get(keyClass), site, true);
+            specialized = (K) keyLookup
+                    .findConstructor(keyLookup.lookupClass(), MethodType.methodType(void.class, keyClass))
+                    .invoke(key);
+        } catch (Throwable throwable) {
+            throw new RuntimeException("Failed to specialize RecordComponentKey " + key.getFieldName(), throwable);
+        }
+        specialized.relink();
+        return specialized;
+    }
+}
@@ -2,13 +2,26 @@ package recordrecoder.impl.utils;
 
 import org.objectweb.asm.Type;
 import recordrecoder.api.record.ComponentKeyRegistry;
+import recordrecoder.impl.record.BooleanRecordComponentKeyImpl;
+import recordrecoder.impl.record.ComponentAccessor;
 import recordrecoder.impl.record.ComponentKeyRegistryImpl;
+import recordrecoder.impl.record.DerivedRecordComponentKeyImpl;
+import recordrecoder.impl.record.DoubleRecordComponentKeyImpl;
+import recordrecoder.impl.record.EnumRecordComponentKeyImpl;
+import recordrecoder.impl.record.IntRecordComponentKeyImpl;
+import recordrecoder.impl.record.LongRecordComponentKeyImpl;
+import recordrecoder.impl.record.PackedValues;
+import recordrecoder.impl.record.PendingValues;
 import recordrecoder.impl.record.RecordComponentKeyImpl;
+import recordrecoder.impl.record.RecordConstructor;
 import recordrecoder.impl.utils.asmhelpers.MethodNameTypeTuple;
 import recordrecoder.impl.utils.asmhelpers.OwnedField;
 import recordrecoder.impl.utils.asmhelpers.OwnedMethod;
 
 import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MutableCallSite;
+import java.lang.invoke.VarHandle;
 import java.util.function.Function;
 
 public interface Constants {
@@ -16,11 +29,32 @@ public interface Constants {
     Type OBJECT = Type.getType(Object.class);
     Type RECORD = Type.getType(Record.class);
     Type STRING = Type.getType(String.class);
+    Type CLASS = Type.getType(Class.class);
     Type METHOD_HANDLE = Type.getType(MethodHandle.class);
+    Type METHOD_HANDLES = Type.getType(MethodHandles.class);
+    Type METHOD_HANDLES_LOOKUP = Type.getType(MethodHandles.Lookup.class);
+    Type MUTABLE_CALL_SITE = Type.getType(MutableCallSite.class);
+    Type VAR_HANDLE = Type.getType(VarHandle.class);
     Type VOID = Type.getType("V");
     Type RECORD_COMPONENT_KEY_IMPL = Type.getType(RecordComponentKeyImpl.class);
+    Type INT_RECORD_COMPONENT_KEY_IMPL = Type.getType(IntRecordComponentKeyImpl.class);
+    Type LONG_RECORD_COMPONENT_KEY_IMPL = Type.getType(LongRecordComponentKeyImpl.class);
+    Type DOUBLE_RECORD_COMPONENT_KEY_IMPL = Type.getType(DoubleRecordComponentKeyImpl.class);
+    Type BOOLEAN_RECORD_COMPONENT_KEY_IMPL = Type.getType(BooleanRecordComponentKeyImpl.class);
+    Type ENUM_RECORD_COMPONENT_KEY_IMPL = Type.getType(EnumRecordComponentKeyImpl.class);
+    Type DERIVED_RECORD_COMPONENT_KEY_IMPL = Type.getType(DerivedRecordComponentKeyImpl.class);
     Type COMPONENT_KEY_REGISTRY = Type.getType(ComponentKeyRegistry.class);
     Type COMPONENT_KEY_REGISTRY_IMPL = Type.getType(ComponentKeyRegistryImpl.class);
+    Type COMPONENT_ACCESSOR = Type.getType(ComponentAccessor.class);
+    Type COMPONENT_ACCESSOR_OF_OBJECT = Type.getType(ComponentAccessor.OfObject.class);
+    Type COMPONENT_ACCESSOR_OF_INT = Type.getType(ComponentAccessor.OfInt.class);
+    Type COMPONENT_ACCESSOR_OF_LONG = Type.getType(ComponentAccessor.OfLong.class);
+    Type COMPONENT_ACCESSOR_OF_DOUBLE = Type.getType(ComponentAccessor.OfDouble.class);
+    Type COMPONENT_ACCESSOR_OF_BOOLEAN = Type.getType(ComponentAccessor.OfBoolean.class);
+    Type COMPONENT_ACCESSOR_MUTABLE = Type.getType(ComponentAccessor.Mutable.class);
+    Type RECORD_CONSTRUCTOR = Type.getType(RecordConstructor.class);
+    Type PENDING_VALUES = Type.getType(PendingValues.class);
+    Type PACKED_VALUES = Type.getType(PackedValues.class);
     // endregion
     // region Fields
     OwnedField COMPONENT_KEY_REGISTRY$INSTANCE = new OwnedField(
@@ -31,10 +65,10 @@ public interface Constants {
     );
     // endregion
     // region Methods
-    OwnedMethod COMPONENT_KEY_REGISTRY_IMPL$GET_KEY_FOR_NAME = OwnedMethod.ofInstance(
+    OwnedMethod COMPONENT_KEY_REGISTRY_IMPL$BIND_KEYS = OwnedMethod.ofInstance(
             COMPONENT_KEY_REGISTRY_IMPL,
-            "getKeyForName",
-            Type.getMethodType(RECORD_COMPONENT_KEY_IMPL, STRING)
+            "bindKeys",
+            Type.getMethodType(Type.getType("[" + RECORD_COMPONENT_KEY_IMPL.getDescriptor()), METHOD_HANDLES_LOOKUP)
     );
 
     OwnedMethod RECORD_COMPONENT_KEY_IMPL$QUEUE_NEXT = OwnedMethod.ofInstance(
@@ -43,16 +77,226 @@ public interface Constants {
             Type.getMethodType(VOID, OBJECT)
     );
 
-    OwnedMethod RECORD_COMPONENT_KEY_IMPL$PROVIDE_GETTER = OwnedMethod.ofInstance(
+    OwnedMethod RECORD_COMPONENT_KEY_IMPL$QUEUE_NEXT_UNCHECKED = OwnedMethod.ofInstance(
             RECORD_COMPONENT_KEY_IMPL,
-            "provideGetter",
-            Type.getMethodType(VOID, METHOD_HANDLE)
+            "queueNextUnchecked",
+            Type.getMethodType(VOID, OBJECT)
+    );
+
+    OwnedMethod RECORD_COMPONENT_KEY_IMPL$EQUIVALENT = OwnedMethod.ofInstance(
+            RECORD_COMPONENT_KEY_IMPL,
+            "equivalent",
+            Type.getMethodType(Type.BOOLEAN_TYPE, OBJECT, OBJECT)
+    );
+
+    OwnedMethod RECORD_COMPONENT_KEY_IMPL$HASH = OwnedMethod.ofInstance(
+            RECORD_COMPONENT_KEY_IMPL,
+            "hash",
+            Type.getMethodType(Type.INT_TYPE, OBJECT)
+    );
+
+    OwnedMethod RECORD_COMPONENT_KEY_IMPL$ACCESSOR_FOR = OwnedMethod.ofInstance(
+            RECORD_COMPONENT_KEY_IMPL,
+            "accessorFor",
+            Type.getMethodType(COMPONENT_ACCESSOR, RECORD)
+    );
+
+    OwnedMethod RECORD_COMPONENT_KEY_IMPL$BINDING_SITE = OwnedMethod.ofInstance(
+            RECORD_COMPONENT_KEY_IMPL,
+            "bindingSite",
+            Type.getMethodType(MUTABLE_CALL_SITE)
+    );
+
+    OwnedMethod METHOD_HANDLES$LOOKUP = OwnedMethod.ofStatic(
+            METHOD_HANDLES,
+            "lookup",
+            Type.getMethodType(METHOD_HANDLES_LOOKUP)
+    );
+
+    OwnedMethod METHOD_HANDLES$CLASS_DATA = OwnedMethod.ofStatic(
+            METHOD_HANDLES,
+            "classData",
+            Type.getMethodType(OBJECT, METHOD_HANDLES_LOOKUP, STRING, CLASS)
+    );
+
+    OwnedMethod METHOD_HANDLES_LOOKUP$FIND_VAR_HANDLE = OwnedMethod.ofInstance(
+            METHOD_HANDLES_LOOKUP,
+            "findVarHandle",
+            Type.getMethodType(VAR_HANDLE, CLASS, STRING, CLASS)
     );
 
     OwnedMethod RECORD_COMPONENT_KEY_IMPL$GET_NEXT = OwnedMethod.ofInstance(
             RECORD_COMPONENT_KEY_IMPL,
             "getNext",
-            Type.getMethodType(OBJECT)
+            Type.getMethodType(OBJECT, PENDING_VALUES)
+    );
+
+    OwnedMethod RECORD_COMPONENT_KEY_IMPL$GET_NEXT_OR_LAZY = OwnedMethod.ofInstance(
+            RECORD_COMPONENT_KEY_IMPL,
+            "getNextOrLazy",
+            Type.getMethodType(OBJECT, PENDING_VALUES)
+    );
+
+    OwnedMethod RECORD_COMPONENT_KEY_IMPL$LAZY_IF_NULL = OwnedMethod.ofStatic(
+            RECORD_COMPONENT_KEY_IMPL,
+            "lazyIfNull",
+            Type.getMethodType(OBJECT, OBJECT)
+    );
+
+    OwnedMethod RECORD_COMPONENT_KEY_IMPL$RESOLVE_LAZY = OwnedMethod.ofInstance(
+            RECORD_COMPONENT_KEY_IMPL,
+            "resolveLazy",
+            Type.getMethodType(OBJECT, VAR_HANDLE, RECORD)
+    );
+
+    OwnedMethod RECORD_COMPONENT_KEY_IMPL$UNPACK = OwnedMethod.ofInstance(
+            RECORD_COMPONENT_KEY_IMPL,
+            "unpack",
+            Type.getMethodType(OBJECT, PACKED_VALUES, Type.INT_TYPE)
+    );
+
+    OwnedMethod PACKED_VALUES$PACK = OwnedMethod.ofStatic(
+            PACKED_VALUES,
+            "pack",
+            Type.getMethodType(PACKED_VALUES, Type.getType("[" + RECORD_COMPONENT_KEY_IMPL.getDescriptor()))
+    );
+
+    OwnedMethod PENDING_VALUES$CURRENT = OwnedMethod.ofStatic(
+            PENDING_VALUES,
+            "current",
+            Type.getMethodType(PENDING_VALUES)
+    );
+
+    OwnedMethod INT_RECORD_COMPONENT_KEY_IMPL$QUEUE_NEXT_INT = OwnedMethod.ofInstance(
+            INT_RECORD_COMPONENT_KEY_IMPL,
+            "queueNextInt",
+            Type.getMethodType(VOID, Type.INT_TYPE)
+    );
+
+    OwnedMethod INT_RECORD_COMPONENT_KEY_IMPL$GET_NEXT_INT = OwnedMethod.ofInstance(
+            INT_RECORD_COMPONENT_KEY_IMPL,
+            "getNextInt",
+            Type.getMethodType(Type.INT_TYPE, PENDING_VALUES)
+    );
+
+    OwnedMethod INT_RECORD_COMPONENT_KEY_IMPL$UNPACK_INT = OwnedMethod.ofInstance(
+            INT_RECORD_COMPONENT_KEY_IMPL,
+            "unpackInt",
+            Type.getMethodType(Type.INT_TYPE, PACKED_VALUES, Type.INT_TYPE)
+    );
+
+    OwnedMethod LONG_RECORD_COMPONENT_KEY_IMPL$QUEUE_NEXT_LONG = OwnedMethod.ofInstance(
+            LONG_RECORD_COMPONENT_KEY_IMPL,
+            "queueNextLong",
+            Type.getMethodType(VOID, Type.LONG_TYPE)
+    );
+
+    OwnedMethod LONG_RECORD_COMPONENT_KEY_IMPL$GET_NEXT_LONG = OwnedMethod.ofInstance(
+            LONG_RECORD_COMPONENT_KEY_IMPL,
+            "getNextLong",
+            Type.getMethodType(Type.LONG_TYPE, PENDING_VALUES)
+    );
+
+    OwnedMethod LONG_RECORD_COMPONENT_KEY_IMPL$UNPACK_LONG = OwnedMethod.ofInstance(
+            LONG_RECORD_COMPONENT_KEY_IMPL,
+            "unpackLong",
+            Type.getMethodType(Type.LONG_TYPE, PACKED_VALUES, Type.INT_TYPE)
+    );
+
+    OwnedMethod DOUBLE_RECORD_COMPONENT_KEY_IMPL$QUEUE_NEXT_DOUBLE = OwnedMethod.ofInstance(
+            DOUBLE_RECORD_COMPONENT_KEY_IMPL,
+            "queueNextDouble",
+            Type.getMethodType(VOID, Type.DOUBLE_TYPE)
+    );
+
+    OwnedMethod DOUBLE_RECORD_COMPONENT_KEY_IMPL$GET_NEXT_DOUBLE = OwnedMethod.ofInstance(
+            DOUBLE_RECORD_COMPONENT_KEY_IMPL,
+            "getNextDouble",
+            Type.getMethodType(Type.DOUBLE_TYPE, PENDING_VALUES)
+    );
+
+    OwnedMethod DOUBLE_RECORD_COMPONENT_KEY_IMPL$UNPACK_DOUBLE = OwnedMethod.ofInstance(
+            DOUBLE_RECORD_COMPONENT_KEY_IMPL,
+            "unpackDouble",
+            Type.getMethodType(Type.DOUBLE_TYPE, PACKED_VALUES, Type.INT_TYPE)
+    );
+
+    OwnedMethod BOOLEAN_RECORD_COMPONENT_KEY_IMPL$QUEUE_NEXT_BOOLEAN = OwnedMethod.ofInstance(
+            BOOLEAN_RECORD_COMPONENT_KEY_IMPL,
+            "queueNextBoolean",
+            Type.getMethodType(VOID, Type.BOOLEAN_TYPE)
+    );
+
+    OwnedMethod BOOLEAN_RECORD_COMPONENT_KEY_IMPL$GET_NEXT_BOOLEAN = OwnedMethod.ofInstance(
+            BOOLEAN_RECORD_COMPONENT_KEY_IMPL,
+            "getNextBoolean",
+            Type.getMethodType(Type.BOOLEAN_TYPE, PENDING_VALUES)
+    );
+
+    OwnedMethod BOOLEAN_RECORD_COMPONENT_KEY_IMPL$UNPACK_BOOLEAN = OwnedMethod.ofInstance(
+            BOOLEAN_RECORD_COMPONENT_KEY_IMPL,
+            "unpackBoolean",
+            Type.getMethodType(Type.BOOLEAN_TYPE, PACKED_VALUES, Type.INT_TYPE)
+    );
+
+    OwnedMethod DERIVED_RECORD_COMPONENT_KEY_IMPL$DERIVE = OwnedMethod.ofInstance(
+            DERIVED_RECORD_COMPONENT_KEY_IMPL,
+            "derive",
+            Type.getMethodType(OBJECT, RECORD)
+    );
+
+    OwnedMethod DERIVED_RECORD_COMPONENT_KEY_IMPL$DERIVE_NEXT = OwnedMethod.ofInstance(
+            DERIVED_RECORD_COMPONENT_KEY_IMPL,
+            "deriveNext",
+            Type.getMethodType(OBJECT, PENDING_VALUES, RECORD)
+    );
+
+    OwnedMethod ENUM_RECORD_COMPONENT_KEY_IMPL$GET_NEXT_ORDINAL = OwnedMethod.ofInstance(
+            ENUM_RECORD_COMPONENT_KEY_IMPL,
+            "getNextOrdinal",
+            Type.getMethodType(Type.INT_TYPE, PENDING_VALUES)
+    );
+
+    OwnedMethod ENUM_RECORD_COMPONENT_KEY_IMPL$FROM_ORDINAL = OwnedMethod.ofInstance(
+            ENUM_RECORD_COMPONENT_KEY_IMPL,
+            "fromOrdinal",
+            Type.getMethodType(Type.getType(Enum.class), Type.INT_TYPE)
+    );
+
+    OwnedMethod ENUM$ORDINAL = OwnedMethod.ofInstance(
+            Type.getType(Enum.class),
+            "ordinal",
+            Type.getMethodType(Type.INT_TYPE)
+    );
+
+    OwnedMethod COMPONENT_ACCESSOR$PICK = OwnedMethod.ofStatic(
+            COMPONENT_ACCESSOR,
+            "pick",
+            Type.getMethodType(OBJECT, OBJECT, OBJECT)
+    );
+
+    OwnedMethod COMPONENT_ACCESSOR$PICK_INT = OwnedMethod.ofStatic(
+            COMPONENT_ACCESSOR,
+            "pickInt",
+            Type.getMethodType(Type.INT_TYPE, OBJECT, Type.INT_TYPE)
+    );
+
+    OwnedMethod COMPONENT_ACCESSOR$PICK_LONG = OwnedMethod.ofStatic(
+            COMPONENT_ACCESSOR,
+            "pickLong",
+            Type.getMethodType(Type.LONG_TYPE, OBJECT, Type.LONG_TYPE)
+    );
+
+    OwnedMethod COMPONENT_ACCESSOR$PICK_DOUBLE = OwnedMethod.ofStatic(
+            COMPONENT_ACCESSOR,
+            "pickDouble",
+            Type.getMethodType(Type.DOUBLE_TYPE, OBJECT, Type.DOUBLE_TYPE)
+    );
+
+    OwnedMethod COMPONENT_ACCESSOR$PICK_BOOLEAN = OwnedMethod.ofStatic(
+            COMPONENT_ACCESSOR,
+            "pickBoolean",
+            Type.getMethodType(Type.BOOLEAN_TYPE, OBJECT, Type.BOOLEAN_TYPE)
     );
     // endregion
     // region Method Types
@@ -86,4 +330,5 @@ public interface Constants {
     );
     // endregion
     String ENTRYPOINT_KEY = "recordrecoder:register";
+    String KEYS_CUSTOM_VALUE = "recordrecoder:keys";
 }
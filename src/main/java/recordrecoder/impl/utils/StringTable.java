@@ -0,0 +1,78 @@
+package recordrecoder.impl.utils;
+
+import java.util.Map;
+
+/**
+ * An immutable open-addressed hash table keyed by strings.
+ * <p>
+ * Keys and values are held in two flat arrays probed linearly, and the table is never more than half full,
+ * so a lookup is a hash, a few array reads and one {@link String#equals(Object)} on a hit. Being immutable,
+ * the table can be read from any thread without synchronization once it has been safely published.
+ *
+ * @param <V> The type of the values
+ */
+public final class StringTable<V> {
+    private final String[] keys;
+    private final Object[] values;
+    private final int mask;
+    private final int size;
+
+    /**
+     * Builds a table holding the entries of a map.
+     *
+     * @param entries The entries to hold
+     */
+    public StringTable(Map<String, ? extends V> entries) {
+        int capacity = Integer.highestOneBit(Math.max(2, entries.size()) * 2 - 1) << 1;
+        this.keys = new String[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        this.size = entries.size();
+        entries.forEach((key, value) -> {
+            int index = indexOf(key);
+            keys[index] = key;
+            values[index] = value;
+        });
+    }
+
+    /**
+     * Gets the value held for a key.
+     *
+     * @param key The key to look up
+     * @return The value, or null if the table does not hold the key
+     */
+    @SuppressWarnings("unchecked")
+    public V get(String key) {
+        return (V) values[indexOf(key)];
+    }
+
+    /**
+     * Checks whether the table holds a key.
+     *
+     * @param key The key to look up
+     * @return Whether the table holds the key
+     */
+    public boolean containsKey(String key) {
+        return keys[indexOf(key)] != null;
+    }
+
+    /**
+     * @return The number of entries in the table
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the slot holding a key, or the empty slot ending its probe sequence.
+     */
+    private int indexOf(String key) {
+        int hash = key.hashCode();
+        int index = (hash ^ (hash >>> 16)) & mask;
+        String candidate;
+        while ((candidate = keys[index]) != null && !candidate.equals(key)) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+}
@@ -1,13 +1,52 @@
 package recordrecoder.impl.utils.asmhelpers;
 
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
 import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.InsnNode;
+import org.objectweb.asm.tree.IntInsnNode;
+import org.objectweb.asm.tree.LdcInsnNode;
 import org.objectweb.asm.tree.MethodNode;
 import org.spongepowered.asm.util.Bytecode;
 
 import java.util.Optional;
+import java.util.function.Predicate;
 
 public class BytecodeHelper {
     public static Optional<MethodNode> findMethod(ClassNode classNode, MethodNameTypeTuple nameAndType) {
         return Optional.ofNullable(Bytecode.findMethod(classNode, nameAndType.name(), nameAndType.type().getDescriptor()));
     }
+
+    /**
+     * Creates the shortest instruction pushing an int constant.
+     *
+     * @param value The constant
+     * @return The instruction
+     */
+    public static AbstractInsnNode pushInt(int value) {
+        if (value >= -1 && value <= 5)
+            return new InsnNode(Opcodes.ICONST_0 + value);
+        if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE)
+            return new IntInsnNode(Opcodes.BIPUSH, value);
+        if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE)
+            return new IntInsnNode(Opcodes.SIPUSH, value);
+        return new LdcInsnNode(value);
+    }
+
+    public static Optional<AbstractInsnNode> findLastReturn(final InsnList insns) {
+        return findFromLast(insns, node -> node.getOpcode() == Opcodes.RETURN);
+    }
+
+    public static Optional<AbstractInsnNode> findFromLast(
+            final InsnList insns,
+            final Predicate<AbstractInsnNode> predicate) {
+
+        for (AbstractInsnNode node = insns.getLast(); node != null; node = node.getPrevious()) {
+            if (predicate.test(node)) {
+                return Optional.of(node);
+            }
+        }
+        return Optional.empty();
+    }
 }
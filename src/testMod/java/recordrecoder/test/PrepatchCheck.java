@@ -0,0 +1,78 @@
+package recordrecoder.test;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.ClassNode;
+import recordrecoder.impl.asm.AheadOfTimeTransformer;
+import recordrecoder.impl.asm.PrepatchManifest;
+import recordrecoder.impl.record.KeySnapshotImpl;
+import recordrecoder.impl.record.RecordComponentKeyImpl;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarFile;
+
+/**
+ * Checks the jar written by the {@code prepatchRecords} task, run by the {@code testPrepatchRecords} task.
+ * <p>
+ * The keys are registered again the way the game registers them, from the metadata of the given mods, and every keyed
+ * record class is expected to be in the jar, transformed with exactly these keys, so the game would not register the
+ * transformer at all.
+ * <p>
+ * Usage: {@code PrepatchCheck <prepatched jar> <namespace> <mappings> [mod jar or directory...]}
+ */
+public final class PrepatchCheck {
+    private PrepatchCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path prepatched = Path.of(args[0]);
+        List<Path> mods = new ArrayList<>();
+        for (int i = 3; i < args.length; i++) {
+            mods.add(Path.of(args[i]));
+        }
+        KeySnapshotImpl snapshot = AheadOfTimeTransformer.registerKeys(mods, AheadOfTimeTransformer.loadMappings(args[2], args[1]));
+        String target = ((RecordComponentKeyImpl<?>) RecordRecoderTest.KEY).getTargetClassName();
+        expect(
+                snapshot.getTargetClasses().contains(target),
+                "expected the keys of the testmod to target DamageRecord"
+        );
+        expect(
+                snapshot.getForInternalName(target).stream().anyMatch(key -> key.getFieldName().equals("declaredTag"))
+                        && snapshot.getForInternalName(target).stream().anyMatch(key -> key.getFieldName().equals("addedField")),
+                "expected both the declared keys and the keys of the registration entrypoint to be registered"
+        );
+
+        PrepatchManifest manifest;
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{prepatched.toUri().toURL()}, null)) {
+            manifest = PrepatchManifest.load(loader);
+        }
+        expect(
+                manifest.coversAll(snapshot),
+                "expected every keyed record class to be prepatched with the current keys, so the transformer is skipped"
+        );
+
+        ClassNode transformed = new ClassNode();
+        try (JarFile jar = new JarFile(prepatched.toFile());
+             InputStream in = jar.getInputStream(jar.getJarEntry(target + ".class"))) {
+            new ClassReader(in).accept(transformed, ClassReader.SKIP_CODE);
+        }
+        int keys = snapshot.getForInternalName(target).size();
+        expect(
+                keys > 0 && transformed.methods.stream().anyMatch(method -> method.name.equals("<init>")
+                        && Type.getArgumentTypes(method.desc).length == transformed.recordComponents.size()
+                        && transformed.recordComponents.size() > keys),
+                "expected the prepatched DamageRecord to have an extended constructor taking " + keys + " keyed components"
+        );
+    }
+
+    private static void expect(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
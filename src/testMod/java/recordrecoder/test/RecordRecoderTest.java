@@ -1,25 +1,98 @@
 package recordrecoder.test;
 
-import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.entity.damage.DamageRecord;
+import recordrecoder.api.record.BooleanRecordComponentKey;
 import recordrecoder.api.record.ComponentKeyRegistry;
+import recordrecoder.api.record.ComponentOptions;
+import recordrecoder.api.record.EnumRecordComponentKey;
+import recordrecoder.api.record.IntRecordComponentKey;
+import recordrecoder.api.record.MutableIntRecordComponentKey;
 import recordrecoder.api.record.RecordComponentKey;
+import recordrecoder.api.record.RecordOptions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class RecordRecoderTest implements Runnable {
     public static final RecordComponentKey<String> KEY;
+    public static final IntRecordComponentKey INT_KEY;
+    public static final BooleanRecordComponentKey PROCESSED_KEY;
+    public static final EnumRecordComponentKey<Category> CATEGORY_KEY;
+    public static final RecordComponentKey<List<String>> TAGS_KEY;
+    public static final AtomicInteger TAGS_CREATED = new AtomicInteger();
+    /**
+     * Counted by code injected into the canonical constructor of DamageRecord.
+     */
+    public static final AtomicInteger CONSTRUCTED = new AtomicInteger();
+    public static final RecordComponentKey<Float> TOTAL_DAMAGE_KEY;
+    public static final MutableIntRecordComponentKey HITS_KEY;
+    private static final String TARGET;
+
+    public enum Category {
+        GENERIC,
+        MELEE,
+        PROJECTILE,
+        MAGIC
+    }
 
     @Override
     public void run() {
         ComponentKeyRegistry.INSTANCE.register(KEY);
+        ComponentKeyRegistry.INSTANCE.register(INT_KEY);
+        ComponentKeyRegistry.INSTANCE.register(PROCESSED_KEY);
+        ComponentKeyRegistry.INSTANCE.register(CATEGORY_KEY);
+        ComponentKeyRegistry.INSTANCE.register(TAGS_KEY);
+        ComponentKeyRegistry.INSTANCE.register(TOTAL_DAMAGE_KEY);
+        ComponentKeyRegistry.INSTANCE.register(HITS_KEY);
+        ComponentKeyRegistry.INSTANCE.configure(TARGET, RecordOptions.DEFAULT.withCachedHashCode().withBitfields());
     }
 
     static {
-        var remapper = FabricLoader.getInstance().getMappingResolver();
+        // not FabricLoader's resolver, so the keys can also be registered when records are transformed ahead of time
+        var remapper = ComponentKeyRegistry.INSTANCE.getMappingResolver();
         var mappedName = remapper.mapClassName("intermediary", "net.minecraft.class_1281").replace(".", "/");
+        TARGET = mappedName;
         KEY = RecordComponentKey.create(
                 "addedField",
                 mappedName,
                 String.class,
                 "Hello, World!"
         );
+        INT_KEY = IntRecordComponentKey.create(
+                "addedInt",
+                mappedName,
+                42
+        );
+        PROCESSED_KEY = BooleanRecordComponentKey.create(
+                "processed",
+                mappedName
+        );
+        CATEGORY_KEY = EnumRecordComponentKey.create(
+                "category",
+                mappedName,
+                Category.GENERIC
+        );
+        TAGS_KEY = RecordComponentKey.create(
+                "tags",
+                mappedName,
+                "java/util/List",
+                () -> {
+                    TAGS_CREATED.incrementAndGet();
+                    return new ArrayList<>();
+                },
+                ComponentOptions.DEFAULT.withLazyDefault()
+        );
+        // takes Record, as a lambda taking DamageRecord would load it before it is transformed
+        TOTAL_DAMAGE_KEY = RecordComponentKey.derived(
+                "totalDamage",
+                mappedName,
+                Float.class,
+                (Record record) -> ((DamageRecord) record).damage() + ((DamageRecord) record).fallDistance()
+        );
+        HITS_KEY = MutableIntRecordComponentKey.create(
+                "hits",
+                mappedName
+        );
     }
 }
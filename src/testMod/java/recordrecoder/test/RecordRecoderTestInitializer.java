@@ -11,7 +11,15 @@ import net.minecraft.registry.tag.TagKey;
 import net.minecraft.util.Identifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import recordrecoder.api.record.ComponentKeyRegistry;
+import recordrecoder.api.record.FacingName;
+import recordrecoder.api.record.IntRecordComponentKey;
+import recordrecoder.api.record.RecordComponentKey;
+import recordrecoder.api.record.RecordFactory;
+import recordrecoder.impl.asm.RecordClassTransformer;
+import recordrecoder.impl.asm.util.TransformStatistics;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
@@ -79,6 +87,253 @@ public class RecordRecoderTestInitializer implements ModInitializer {
                     "expected RecordComponentKey#getOrNull to return default value again after constructor clears value"
             );
         }
+        {
+            DamageRecord record = new DamageRecord(null, 0, FallLocation.GENERIC, 0);
+            expect(
+                    getInt(RecordRecoderTest.INT_KEY, record) == 42,
+                    "expected IntRecordComponentKey#getInt on default value to return default value"
+            );
+        }
+        {
+            RecordRecoderTest.INT_KEY.queueNextInt(-7);
+            DamageRecord record = new DamageRecord(null, 0, FallLocation.GENERIC, 0);
+            expect(
+                    getInt(RecordRecoderTest.INT_KEY, record) == -7,
+                    "expected IntRecordComponentKey#getInt on queued value to return queued value"
+            );
+        }
+        {
+            expect(
+                    Arrays.stream(DamageRecord.class.getRecordComponents())
+                            .anyMatch(component -> component.getType() == String.class
+                                    && component.getAnnotation(FacingName.class) != null
+                                    && component.getAnnotation(FacingName.class).value().equals("addedField")),
+                    "expected the added String component to be reported with its exact type"
+            );
+        }
+        {
+            RecordFactory<DamageRecord> factory = ComponentKeyRegistry.INSTANCE.factoryFor(DamageRecord.class);
+            DamageRecord record = factory.create(
+                    new Object[]{null, 0f, FallLocation.GENERIC, 0f},
+                    RecordRecoderTest.INT_KEY.bind(13)
+            );
+            expect(
+                    getInt(RecordRecoderTest.INT_KEY, record) == 13
+                            && Objects.equals(RecordRecoderTest.KEY.getOrNull(record), "Hello, World!"),
+                    "expected RecordFactory#create to assign bound values and default the rest"
+            );
+            int rejected = 0;
+            try {
+                factory.create(new Object[]{null, 0f, FallLocation.GENERIC, 0f}, RecordRecoderTest.INT_KEY.bind(null));
+            } catch (IllegalArgumentException e) {
+                rejected++;
+            }
+            try {
+                factory.createAll(2, new Object[][]{{null}, {0f}, {FallLocation.GENERIC}, {0f}}, new Object[factory.keys().size()][]);
+            } catch (IllegalArgumentException e) {
+                rejected++;
+            }
+            expect(rejected == 2, "expected RecordFactory to reject null primitive values and short columns");
+        }
+        {
+            DamageRecord record = new DamageRecord(null, 0, FallLocation.GENERIC, 0);
+            DamageRecord copy = with(RecordRecoderTest.INT_KEY, record, 21);
+            expect(
+                    getInt(RecordRecoderTest.INT_KEY, copy) == 21
+                            && getInt(RecordRecoderTest.INT_KEY, record) == 42
+                            && copy.fallLocation() == record.fallLocation(),
+                    "expected RecordComponentKey#with to replace only the given value on a copy"
+            );
+        }
+        {
+            DamageRecord record = new DamageRecord(null, 0, FallLocation.GENERIC, 0);
+            int constructed = RecordRecoderTest.CONSTRUCTED.get();
+            with(RecordRecoderTest.INT_KEY, record, 21);
+            ComponentKeyRegistry.INSTANCE.factoryFor(DamageRecord.class).create(new Object[]{null, 0f, FallLocation.GENERIC, 0f});
+            expect(
+                    RecordRecoderTest.CONSTRUCTED.get() == constructed + 2,
+                    "expected code injected into the canonical constructor to run for copies and factories"
+            );
+            RecordRecoderTest.KEY.queueNext("Queued");
+            with(RecordRecoderTest.INT_KEY, record, 22);
+            expect(
+                    Objects.equals(RecordRecoderTest.KEY.getOrNull(new DamageRecord(null, 0, FallLocation.GENERIC, 0)), "Queued"),
+                    "expected copies to leave values queued for the next construction"
+            );
+        }
+        {
+            expect(
+                    RecordRecoderTest.KEY.getClass().isHidden() && RecordRecoderTest.INT_KEY.getClass().isHidden(),
+                    "expected keys to be created as their own hidden subclass, so reads of constant keys are folded"
+            );
+        }
+        {
+            expect(ComponentKeyRegistry.INSTANCE.isFrozen(), "expected the registry to be frozen once entrypoints have run");
+            boolean rejected = false;
+            try {
+                ComponentKeyRegistry.INSTANCE.register(RecordComponentKey.create("lateField", "java/lang/Record", String.class, ""));
+            } catch (IllegalStateException e) {
+                rejected = true;
+            }
+            expect(rejected, "expected ComponentKeyRegistry#register to fail after the registry was frozen");
+        }
+        {
+            int rejected = 0;
+            try {
+                RecordComponentKey.create("primitiveField", "net/minecraft/entity/damage/DamageRecord", int.class, 0);
+            } catch (IllegalArgumentException e) {
+                rejected++;
+            }
+            try {
+                RecordComponentKey.create("primitiveField", "net/minecraft/entity/damage/DamageRecord", "int", 0);
+            } catch (IllegalArgumentException e) {
+                rejected++;
+            }
+            try {
+                RecordComponentKey.create("primitiveField", "net/minecraft/entity/damage/DamageRecord", "J", 0L);
+            } catch (IllegalArgumentException e) {
+                rejected++;
+            }
+            expect(rejected == 3, "expected the generic RecordComponentKey#create to reject primitive component types");
+        }
+        {
+            DamageRecord record = new DamageRecord(null, 0, FallLocation.GENERIC, 0);
+            expect(
+                    Objects.equals(ComponentKeyRegistry.INSTANCE.getDeclaredKey("recordrecord-testmod:declaredTag").getOrNull(record), "Declared"),
+                    "expected a key declared in fabric.mod.json to read its declared default value"
+            );
+            IntRecordComponentKey declaredCount = (IntRecordComponentKey) ComponentKeyRegistry.INSTANCE.getDeclaredKey("recordrecord-testmod:declaredCount");
+            expect(
+                    declaredCount.getIntOrDefault(record, -1) == 7,
+                    "expected an int key declared in fabric.mod.json to read its declared default value"
+            );
+        }
+        {
+            DamageRecord record = new DamageRecord(null, 0, FallLocation.GENERIC, 0);
+            DamageRecord same = new DamageRecord(null, 0, FallLocation.GENERIC, 0);
+            DamageRecord other = with(RecordRecoderTest.KEY, record, "Other");
+            expect(
+                    record.equals(same) && record.hashCode() == same.hashCode() && !record.equals(other),
+                    "expected the direct object methods to compare vanilla and extended components"
+            );
+            expect(
+                    record.toString().contains("addedField=Hello, World!") && other.toString().contains("addedField=Other"),
+                    "expected the direct toString to print extended components by their field name"
+            );
+        }
+        {
+            @SuppressWarnings("unchecked")
+            RecordComponentKey<String> declaredNote = (RecordComponentKey<String>) ComponentKeyRegistry.INSTANCE.getDeclaredKey("recordrecord-testmod:declaredNote");
+            DamageRecord record = new DamageRecord(null, 0, FallLocation.GENERIC, 0);
+            DamageRecord noted = with(declaredNote, record, "Other note");
+            expect(
+                    record.equals(noted) && record.hashCode() == noted.hashCode(),
+                    "expected a key excluded from equality to be ignored by equals and hashCode"
+            );
+            expect(
+                    !noted.toString().contains("declaredNote") && Objects.equals(declaredNote.getOrNull(noted), "Other note"),
+                    "expected a key excluded from toString to be left out of it but still readable"
+            );
+        }
+        {
+            DamageRecord record = new DamageRecord(null, 0, FallLocation.GENERIC, 0);
+            DamageRecord processed = with(RecordRecoderTest.PROCESSED_KEY,
+                    with(RecordRecoderTest.CATEGORY_KEY, record, RecordRecoderTest.Category.MAGIC), true);
+            expect(
+                    !RecordRecoderTest.PROCESSED_KEY.getBooleanOrDefault(record, true)
+                            && RecordRecoderTest.CATEGORY_KEY.getOrNull(record) == RecordRecoderTest.Category.GENERIC,
+                    "expected flag and enum keys in the bitfield to read their default values"
+            );
+            expect(
+                    RecordRecoderTest.PROCESSED_KEY.getBooleanOrDefault(processed, false)
+                            && RecordRecoderTest.CATEGORY_KEY.getOrNull(processed) == RecordRecoderTest.Category.MAGIC
+                            && Objects.equals(RecordRecoderTest.KEY.getOrNull(processed), "Hello, World!")
+                            && !processed.equals(record),
+                    "expected a copy to pack the new flag and enum values next to the other components"
+            );
+            expect(
+                    Arrays.stream(DamageRecord.class.getDeclaredFields())
+                            .filter(field -> !field.isSynthetic())
+                            .noneMatch(field -> field.getType() == boolean.class || field.getType() == RecordRecoderTest.Category.class),
+                    "expected flag and enum keys to share the bitfield instead of getting their own fields"
+            );
+        }
+        {
+            int created = RecordRecoderTest.TAGS_CREATED.get();
+            DamageRecord record = new DamageRecord(null, 0, FallLocation.GENERIC, 0);
+            expect(
+                    RecordRecoderTest.TAGS_CREATED.get() == created,
+                    "expected a lazy default not to be created by the constructor"
+            );
+            List<String> tags = RecordRecoderTest.TAGS_KEY.getOrNull(record);
+            expect(
+                    tags != null && tags.isEmpty() && RecordRecoderTest.TAGS_KEY.getOrNull(record) == tags
+                            && RecordRecoderTest.TAGS_CREATED.get() == created + 1,
+                    "expected a lazy default to be created once, on the first read"
+            );
+            DamageRecord tagged = with(RecordRecoderTest.TAGS_KEY, record, List.of("fire"));
+            expect(
+                    Objects.equals(RecordRecoderTest.TAGS_KEY.getOrNull(tagged), List.of("fire"))
+                            && RecordRecoderTest.TAGS_CREATED.get() == created + 1,
+                    "expected a queued value to replace a lazy default without creating it"
+            );
+            DamageRecord built = ComponentKeyRegistry.INSTANCE.factoryFor(DamageRecord.class)
+                    .create(new Object[]{null, 0f, FallLocation.GENERIC, 0f}, RecordRecoderTest.KEY.bind("Built"));
+            expect(
+                    RecordRecoderTest.TAGS_CREATED.get() == created + 1
+                            && RecordRecoderTest.TAGS_KEY.getOrNull(built) != null
+                            && RecordRecoderTest.TAGS_CREATED.get() == created + 2,
+                    "expected a factory to leave an unbound lazy default to the first read"
+            );
+        }
+        {
+            DamageRecord record = new DamageRecord(null, 2, FallLocation.GENERIC, 3);
+            expect(
+                    Objects.equals(RecordRecoderTest.TOTAL_DAMAGE_KEY.getOrNull(record), 5f),
+                    "expected a derived key to be computed from the vanilla components"
+            );
+            DamageRecord copy = with(RecordRecoderTest.KEY, record, "Copied");
+            expect(
+                    Objects.equals(RecordRecoderTest.TOTAL_DAMAGE_KEY.getOrNull(copy), 5f),
+                    "expected a copy to derive the same value from the same components"
+            );
+            boolean rejected = false;
+            try {
+                RecordRecoderTest.TOTAL_DAMAGE_KEY.queueNext(1f);
+            } catch (UnsupportedOperationException e) {
+                rejected = true;
+            }
+            expect(rejected, "expected a derived key to reject queued values");
+        }
+        {
+            DamageRecord record = new DamageRecord(null, 0, FallLocation.GENERIC, 0);
+            DamageRecord other = new DamageRecord(null, 0, FallLocation.GENERIC, 0);
+            int previous = -1;
+            boolean swapped = false;
+            try {
+                previous = RecordRecoderTest.HITS_KEY.getAndAddInt(record, 2);
+                swapped = RecordRecoderTest.HITS_KEY.compareAndSetInt(record, 2, 5);
+            } catch (RecordComponentKey.KeyMismatchException e) {
+                throw new RuntimeException(e);
+            }
+            expect(
+                    previous == 0 && swapped && RecordRecoderTest.HITS_KEY.getIntOrDefault(record, -1) == 5
+                            && RecordRecoderTest.HITS_KEY.getIntOrDefault(other, -1) == 0,
+                    "expected a mutable key to be changed atomically on one instance only"
+            );
+            expect(
+                    record.equals(other) && record.hashCode() == other.hashCode(),
+                    "expected a mutable key to be left out of equals and hashCode"
+            );
+        }
+        {
+            TransformStatistics statistics = RecordClassTransformer.statistics();
+            expect(
+                    statistics.transformed() + statistics.cacheHits() >= 1
+                            && statistics.skipped() + statistics.transformed() + statistics.cacheHits() <= statistics.checked(),
+                    "expected the transformer to count the checked, skipped, transformed and cached classes"
+            );
+        }
         {
             Record o = TagKey.of(RegistryKeys.ITEM, Identifier.ofVanilla("test"));
             expect(
@@ -89,6 +344,32 @@ public class RecordRecoderTestInitializer implements ModInitializer {
                     RecordRecoderTest.KEY.getOrNull(null) == null,
                     "expected RecordComponentKey#getOrNull to return null when called with null"
             );
+            expect(
+                    !RecordRecoderTest.KEY.isApplicable(o)
+                            && RecordRecoderTest.KEY.isApplicable(new DamageRecord(null, 0, FallLocation.GENERIC, 0)),
+                    "expected RecordComponentKey#isApplicable to only accept the target record"
+            );
+            expect(
+                    Objects.equals(RecordRecoderTest.KEY.getOrDefault(o, "fallback"), "fallback")
+                            && RecordRecoderTest.INT_KEY.getIntOrDefault(o, -1) == -1,
+                    "expected RecordComponentKey#getOrDefault to return the given default when not applicable"
+            );
+        }
+    }
+
+    private static int getInt(IntRecordComponentKey key, Record record) {
+        try {
+            return key.getInt(record);
+        } catch (RecordComponentKey.KeyMismatchException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static <R extends Record, T> R with(RecordComponentKey<T> key, R record, T value) {
+        try {
+            return key.with(record, value);
+        } catch (RecordComponentKey.KeyMismatchException e) {
+            throw new AssertionError(e);
         }
     }
 
@@ -3,9 +3,20 @@ package recordrecoder.test.mixin;
 import net.minecraft.entity.damage.DamageRecord;
 import org.spongepowered.asm.mixin.Debug;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import recordrecoder.test.RecordRecoderTest;
 
 @Mixin(DamageRecord.class)
 @Debug(export = true)
 public class DamageRecordMixin {
 
+    @Inject(
+            method = "<init>(Lnet/minecraft/entity/damage/DamageSource;FLnet/minecraft/entity/damage/FallLocation;F)V",
+            at = @At("RETURN")
+    )
+    private void recordrecoder$countConstruction(CallbackInfo ci) {
+        RecordRecoderTest.CONSTRUCTED.incrementAndGet();
+    }
 }